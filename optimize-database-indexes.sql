@@ -66,6 +66,13 @@ ON questions(category_id, difficulty_id);
 CREATE INDEX IF NOT EXISTS idx_questions_creator_created
 ON questions(creator_id, created_at DESC);
 
+-- ========================================
+-- 9. 复合索引（用于游标分页）
+-- ========================================
+-- 影响：题目列表按 (created_at, question_id) 游标翻页，深翻页不再线性变慢
+CREATE INDEX IF NOT EXISTS idx_questions_created_id
+ON questions(created_at DESC, question_id DESC);
+
 -- ========================================
 -- 执行后的效果验证
 -- ========================================
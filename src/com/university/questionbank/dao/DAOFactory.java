@@ -5,6 +5,7 @@ import com.university.questionbank.dao.impl.QuestionDAOImpl;
 import com.university.questionbank.dao.impl.RoleDAOImpl;
 import com.university.questionbank.dao.impl.QuestionCategoryDAOImpl;
 import com.university.questionbank.dao.impl.QuestionDifficultyDAOImpl;
+import com.university.questionbank.dao.impl.StatisticsDAOImpl;
 import java.util.logging.Logger;
 
 /**
@@ -15,7 +16,7 @@ public class DAOFactory {
     private static final Logger logger = Logger.getLogger(DAOFactory.class.getName());
 
     // 数据访问模式：REST_API 或 JDBC
-    private static DataAccessMode mode = DataAccessMode.JDBC;
+    private static volatile DataAccessMode mode = DataAccessMode.JDBC;
 
     public enum DataAccessMode {
         REST_API,
@@ -108,4 +109,17 @@ public class DAOFactory {
             return new QuestionDifficultyDAOImpl();
         }
     }
+
+    /**
+     * 创建统计 DAO
+     */
+    public static StatisticsDAO createStatisticsDAO() {
+        if (mode == DataAccessMode.REST_API) {
+            logger.info("创建 StatisticsRestDAO");
+            return new StatisticsRestDAO();
+        } else {
+            logger.info("创建 JDBC StatisticsDAO");
+            return new StatisticsDAOImpl();
+        }
+    }
 }
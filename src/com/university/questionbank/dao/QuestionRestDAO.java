@@ -1,21 +1,28 @@
 package com.university.questionbank.dao;
 
 import com.university.questionbank.model.Question;
-import com.university.questionbank.model.QuestionCategory;
-import com.university.questionbank.model.QuestionDifficulty;
-import com.university.questionbank.model.User;
+import com.university.questionbank.model.QuestionSummary;
+import com.university.questionbank.config.DatabaseConfig;
+import com.university.questionbank.util.JsonStreams;
+import com.university.questionbank.util.ProgressListener;
+import com.university.questionbank.util.QuestionFingerprint;
 import com.university.questionbank.util.SupabaseRestAPI;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 
-import java.lang.reflect.Type;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -24,39 +31,40 @@ import java.util.logging.Logger;
 public class QuestionRestDAO implements QuestionDAO {
     private static final Logger logger = Logger.getLogger(QuestionRestDAO.class.getName());
     private static final String TABLE = "/questions";
+    // 每次按内容指纹查询的数量
+    private static final int HASH_LOOKUP_CHUNK = 200;
+    // 批量删除、修改时每次请求的题目ID数量，in.() 列表放在 URL 中
+    private static final int ID_CHUNK = 200;
+    // 列表摘要的列，content_preview 是数据库中的计算列函数（见 创建题目摘要函数.sql），在服务端截断题干
+    private static final String SUMMARY_COLUMNS =
+            "question_id,content_preview,question_type,category_id,difficulty_id,creator_id,created_at";
+    // 数据库中还没有该函数时，读取完整题干并以 content_preview 为别名返回，在本地截断
+    private static final String SUMMARY_COLUMNS_FALLBACK =
+            "question_id,content_preview:question_content,question_type,category_id,difficulty_id,creator_id,created_at";
+    private static volatile boolean contentPreviewAvailable = true;
+    // 批量添加时写入的列（不含数据库生成的 question_id、created_at）
+    private static final String INSERT_COLUMNS =
+            "question_content,question_type,option_a,option_b,option_c,option_d,correct_answer,explanation,category_id,difficulty_id,creator_id";
+    // 数据库缺少 content_hash 列（未执行 创建题目指纹.sql）时写入不带指纹，查重只在本次导入内进行
+    private static volatile boolean contentHashAvailable = true;
+    // 补算内容指纹时读取的列
+    private static final String BACKFILL_COLUMNS = "question_id,question_content,option_a,option_b,option_c,option_d";
+    // 补算内容指纹时同时发出的 PATCH 请求数
+    private static final int BACKFILL_PARALLELISM = 32;
     private final Gson gson = new Gson();
-    private final QuestionCategoryDAO categoryDAO;
-    private final QuestionDifficultyDAO difficultyDAO;
-    private final UserDAO userDAO;
-
-    // 用户缓存，避免重复查询
-    private final Map<Integer, User> userCache = new HashMap<>();
-    // 分类缓存，避免N+1查询
-    private final Map<Integer, QuestionCategory> categoryCache = new HashMap<>();
-    // 难度缓存，避免N+1查询
-    private final Map<Integer, QuestionDifficulty> difficultyCache = new HashMap<>();
-    
-    // 缓存是否已加载的标志
-    private boolean cachesLoaded = false;
-
-    public QuestionRestDAO() {
-        this.categoryDAO = DAOFactory.createQuestionCategoryDAO();
-        this.difficultyDAO = DAOFactory.createQuestionDifficultyDAO();
-        this.userDAO = DAOFactory.createUserDAO();
-    }
 
     @Override
     public void addQuestion(Question question) {
         try {
-            // 构建JSON时不包含question_id，让数据库自动生成ID
-            String json = gson.toJson(question);
-            // 移除question_id字段，让数据库自动生成
-            json = json.replaceAll("\"question_id\":\\s*\\d+,?", "");
-            json = json.replaceAll(",\\s*}", "}");  // 移除末尾的逗号
-
-            logger.info("添加题目，JSON: " + json);
-
-            String response = SupabaseRestAPI.post(TABLE, json);
+            String response;
+            try {
+                response = SupabaseRestAPI.post(TABLE, toInsertJson(question));
+            } catch (RuntimeException e) {
+                if (!contentHashMissing(e)) {
+                    throw e;
+                }
+                response = SupabaseRestAPI.post(TABLE, toInsertJson(question));
+            }
             logger.info("添加题目响应: " + response);
 
             if (response == null) {
@@ -99,12 +107,112 @@ public class QuestionRestDAO implements QuestionDAO {
         }
     }
 
+    // 构建JSON时不包含question_id，让数据库自动生成ID
+    private String toInsertJson(Question question) {
+        question.setContentHash(contentHashAvailable ? QuestionFingerprint.compute(question) : null);
+        String json = gson.toJson(question);
+        // 移除question_id字段，让数据库自动生成
+        json = json.replaceAll("\"question_id\":\\s*\\d+,?", "");
+        json = json.replaceAll(",\\s*}", "}");  // 移除末尾的逗号
+
+        logger.fine("添加题目，JSON: " + json);
+        return json;
+    }
+
+    /**
+     * 请求因数据库缺少 content_hash 列而失败时记住并返回 true，调用方不带该列重试
+     */
+    private static boolean contentHashMissing(Exception e) {
+        if (!contentHashAvailable || e.getMessage() == null || !e.getMessage().contains("content_hash")) {
+            return false;
+        }
+        logger.warning("数据库中没有 content_hash 列，写入题目时不保存内容指纹，导入查重只在本次导入内进行，请执行 创建题目指纹.sql");
+        contentHashAvailable = false;
+        return true;
+    }
+
+    @Override
+    public List<Integer> addQuestions(List<Question> questions, ProgressListener listener) throws SQLException {
+        List<Integer> ids = new ArrayList<>(questions.size());
+        if (questions.isEmpty()) {
+            return ids;
+        }
+
+        int batchSize = Math.max(1, DatabaseConfig.getInstance().getBatchSize());
+        try {
+            for (int start = 0; start < questions.size(); start += batchSize) {
+                int end = Math.min(start + batchSize, questions.size());
+
+                String response;
+                try {
+                    response = postBatch(questions, start, end);
+                } catch (RuntimeException e) {
+                    if (!contentHashMissing(e)) {
+                        throw e;
+                    }
+                    response = postBatch(questions, start, end);
+                }
+                JsonArray created = JsonParser.parseString(response).getAsJsonArray();
+                if (created.size() != end - start) {
+                    throw new SQLException("服务器返回的题目数量 " + created.size() + " 与提交数量 " + (end - start) + " 不一致");
+                }
+                for (int i = 0; i < created.size(); i++) {
+                    int id = created.get(i).getAsJsonObject().get("question_id").getAsInt();
+                    questions.get(start + i).setQuestionId(id);
+                    ids.add(id);
+                }
+
+                logger.info("批量添加题目: " + end + "/" + questions.size());
+                if (listener != null) {
+                    listener.onProgress(end, questions.size());
+                }
+            }
+            return ids;
+        } catch (Exception e) {
+            // REST 模式下各批分别提交，失败前已写入的题目会保留并带有ID
+            logger.severe("批量添加题目失败（已写入 " + ids.size() + " 道）: " + e.getMessage());
+            throw new SQLException("批量添加题目失败（已写入 " + ids.size() + " 道）: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 每批一个 JSON 数组请求
+     * Gson 不输出 null 字段，各对象的键集合可能不同，PostgREST 会拒绝这样的数组（PGRST102）；
+     * 用 columns 明确写入的列，对象中缺少的键按 NULL 写入，question_id 不在其中，由数据库生成。
+     * 只返回生成的ID，减少响应体积；PostgREST 按插入顺序返回
+     */
+    private String postBatch(List<Question> questions, int start, int end) {
+        String columns = contentHashAvailable ? INSERT_COLUMNS + ",content_hash" : INSERT_COLUMNS;
+        return SupabaseRestAPI.post(TABLE + "?columns=" + columns + "&select=question_id", toInsertBatch(questions, start, end));
+    }
+
+    private String toInsertBatch(List<Question> questions, int start, int end) {
+        JsonArray batch = new JsonArray();
+        for (int i = start; i < end; i++) {
+            Question question = questions.get(i);
+            question.setContentHash(contentHashAvailable ? QuestionFingerprint.compute(question) : null);
+            JsonObject json = gson.toJsonTree(question).getAsJsonObject();
+            json.remove("question_id");
+            batch.add(json);
+        }
+        return gson.toJson(batch);
+    }
+
     @Override
     public void updateQuestion(Question question) {
         try {
             String query = "question_id=eq." + question.getQuestionId();
-            String json = gson.toJson(question);
-            String response = SupabaseRestAPI.patch(TABLE + "?" + query, json);
+            String response;
+            try {
+                question.setContentHash(contentHashAvailable ? QuestionFingerprint.compute(question) : null);
+                response = SupabaseRestAPI.patch(TABLE + "?" + query, gson.toJson(question));
+            } catch (RuntimeException e) {
+                if (!contentHashMissing(e)) {
+                    throw e;
+                }
+                question.setContentHash(null);
+                response = SupabaseRestAPI.patch(TABLE + "?" + query, gson.toJson(question));
+            }
             if (response == null || response.isEmpty()) {
                 throw new RuntimeException("更新题目失败");
             }
@@ -114,6 +222,92 @@ public class QuestionRestDAO implements QuestionDAO {
         }
     }
 
+    @Override
+    public Set<Long> findExistingContentHashes(Collection<Long> contentHashes) throws SQLException {
+        Set<Long> existing = new HashSet<>();
+        if (!contentHashAvailable) {
+            return existing;
+        }
+        List<Long> hashes = new ArrayList<>(contentHashes);
+        try {
+            // in.() 列表放在 URL 中，按块查询控制 URL 长度
+            for (int start = 0; start < hashes.size(); start += HASH_LOOKUP_CHUNK) {
+                int end = Math.min(start + HASH_LOOKUP_CHUNK, hashes.size());
+                StringBuilder query = new StringBuilder("select=content_hash&content_hash=in.(");
+                for (int i = start; i < end; i++) {
+                    if (i > start) {
+                        query.append(',');
+                    }
+                    query.append(hashes.get(i));
+                }
+                query.append(')');
+
+                SupabaseRestAPI.getStreaming(TABLE, query.toString(), body -> JsonStreams.readArray(body,
+                        reader -> JsonParser.parseReader(reader).getAsJsonObject().get("content_hash").getAsLong(),
+                        existing::add));
+            }
+            return existing;
+        } catch (Exception e) {
+            if (contentHashMissing(e)) {
+                return existing;
+            }
+            logger.severe("查询内容指纹失败: " + e.getMessage());
+            throw new SQLException("查询内容指纹失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int backfillContentHashes() throws SQLException {
+        int batchSize = Math.max(1, DatabaseConfig.getInstance().getBatchSize());
+        int total = 0;
+        if (!contentHashAvailable) {
+            return total;
+        }
+        try {
+            // 每行的指纹不同，逐行 PATCH 只写 content_hash 列，不覆盖读取之后其他客户端的修改；
+            // content_hash=is.null 条件避免覆盖期间 updateQuestion 写入的新指纹。每次并发发送 BACKFILL_PARALLELISM 个请求
+            while (true) {
+                List<JsonObject> rows = getList("select=" + BACKFILL_COLUMNS + "&content_hash=is.null&limit=" + batchSize,
+                        JsonObject.class, null);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                int updated = 0;
+                for (int start = 0; start < rows.size(); start += BACKFILL_PARALLELISM) {
+                    List<CompletableFuture<String>> patches = new ArrayList<>(BACKFILL_PARALLELISM);
+                    for (JsonObject row : rows.subList(start, Math.min(start + BACKFILL_PARALLELISM, rows.size()))) {
+                        JsonObject body = new JsonObject();
+                        body.addProperty("content_hash", QuestionFingerprint.compute(gson.fromJson(row, Question.class)));
+                        patches.add(SupabaseRestAPI.patchAsync(
+                                TABLE + "?question_id=eq." + row.get("question_id").getAsInt() + "&content_hash=is.null&select=question_id",
+                                gson.toJson(body)));
+                    }
+                    CompletableFuture.allOf(patches.toArray(new CompletableFuture[0])).join();
+                    for (CompletableFuture<String> patch : patches) {
+                        updated += readQuestionIds(patch.join()).size();
+                    }
+                }
+                if (updated == 0) {
+                    // 一行都没有更新（例如没有 UPDATE 权限），同一批会被反复选中，停止补算
+                    logger.warning("补算内容指纹时没有更新任何题目，已停止");
+                    break;
+                }
+                total += updated;
+            }
+        } catch (Exception e) {
+            if (total == 0 && contentHashMissing(e)) {
+                return 0;
+            }
+            logger.severe("补算内容指纹失败（已补算 " + total + " 道）: " + e.getMessage());
+            throw new SQLException("补算内容指纹失败（已补算 " + total + " 道）: " + e.getMessage(), e);
+        }
+
+        if (total > 0) {
+            logger.info("已为 " + total + " 道旧题目补算内容指纹");
+        }
+        return total;
+    }
+
     @Override
     public void deleteQuestion(int questionId) {
         try {
@@ -129,32 +323,106 @@ public class QuestionRestDAO implements QuestionDAO {
     }
 
     @Override
-    public Question getQuestionById(int questionId) {
+    public List<Integer> deleteQuestions(int[] questionIds) throws SQLException {
         try {
-            String query = "question_id=eq." + questionId + "&select=*";
-            String response = SupabaseRestAPI.get(TABLE, query);
-
-            if (response == null || response.equals("[]")) {
-                return null;
+            List<Integer> deleted = new ArrayList<>();
+            for (String ids : idLists(questionIds)) {
+                deleted.addAll(readQuestionIds(SupabaseRestAPI.delete(TABLE + "?question_id=in.(" + ids + ")&select=question_id")));
             }
+            return deleted;
+        } catch (Exception e) {
+            logger.severe("批量删除题目失败: " + e.getMessage());
+            throw new SQLException("批量删除题目失败: " + e.getMessage(), e);
+        }
+    }
 
-            Type listType = new TypeToken<List<Question>>(){}.getType();
-            List<Question> questions = gson.fromJson(response, listType);
+    @Override
+    public List<Integer> deleteQuestionsByCreator(int creatorId) throws SQLException {
+        try {
+            return readQuestionIds(SupabaseRestAPI.delete(TABLE + "?creator_id=eq." + creatorId + "&select=question_id"));
+        } catch (Exception e) {
+            logger.severe("删除用户题目失败: " + e.getMessage());
+            throw new SQLException("删除用户题目失败: " + e.getMessage(), e);
+        }
+    }
 
-            if (!questions.isEmpty()) {
-                Question question = questions.get(0);
-                // 使用缓存填充关联对象
-                loadCachesIfNeeded();
-                
-                if (question.getCategoryId() > 0) {
-                    question.setCategory(categoryCache.get(question.getCategoryId()));
+    @Override
+    public List<QuestionSummary> updateQuestionsCategory(int[] questionIds, int categoryId) throws SQLException {
+        return updateColumn(questionIds, "category_id", categoryId);
+    }
+
+    @Override
+    public List<QuestionSummary> updateQuestionsDifficulty(int[] questionIds, int difficultyId) throws SQLException {
+        return updateColumn(questionIds, "difficulty_id", difficultyId);
+    }
+
+    /**
+     * 一次 PATCH 修改一批题目的同一列，已是目标值的题目用 neq 排除；
+     * 返回改动后的摘要（以完整题干作 content_preview 返回后在本地截断，不依赖摘要函数）
+     */
+    private List<QuestionSummary> updateColumn(int[] questionIds, String column, int value) throws SQLException {
+        JsonObject json = new JsonObject();
+        json.addProperty(column, value);
+        String body = gson.toJson(json);
+        try {
+            List<QuestionSummary> updated = new ArrayList<>();
+            for (String ids : idLists(questionIds)) {
+                String response = SupabaseRestAPI.patch(TABLE + "?question_id=in.(" + ids + ")&" + column + "=neq." + value
+                        + "&select=" + SUMMARY_COLUMNS_FALLBACK, body);
+                if (response == null || response.isEmpty()) {
+                    continue;
                 }
-                if (question.getDifficultyId() > 0) {
-                    question.setDifficulty(difficultyCache.get(question.getDifficultyId()));
+                for (QuestionSummary summary : gson.fromJson(response, QuestionSummary[].class)) {
+                    summary.setContentPreview(QuestionSummary.truncate(summary.getContentPreview()));
+                    updated.add(summary);
                 }
-                if (question.getCreatorId() > 0) {
-                    question.setCreator(getUserFromCache(question.getCreatorId()));
+            }
+            return updated;
+        } catch (Exception e) {
+            logger.severe("批量修改题目失败: " + e.getMessage());
+            throw new SQLException("批量修改题目失败: " + e.getMessage(), e);
+        }
+    }
+
+    // 按 ID_CHUNK 分块，每块拼成 in.() 中的逗号分隔列表
+    private List<String> idLists(int[] questionIds) {
+        List<String> lists = new ArrayList<>();
+        for (int start = 0; start < questionIds.length; start += ID_CHUNK) {
+            int end = Math.min(start + ID_CHUNK, questionIds.length);
+            StringBuilder ids = new StringBuilder();
+            for (int i = start; i < end; i++) {
+                if (i > start) {
+                    ids.append(',');
                 }
+                ids.append(questionIds[i]);
+            }
+            lists.add(ids.toString());
+        }
+        return lists;
+    }
+
+    // 解析 select=question_id 返回的行
+    private List<Integer> readQuestionIds(String response) {
+        List<Integer> ids = new ArrayList<>();
+        if (response == null || response.isEmpty()) {
+            return ids;
+        }
+        for (JsonElement row : JsonParser.parseString(response).getAsJsonArray()) {
+            ids.add(row.getAsJsonObject().get("question_id").getAsInt());
+        }
+        return ids;
+    }
+
+    @Override
+    public Question getQuestionById(int questionId) {
+        try {
+            String query = "question_id=eq." + questionId + "&select=*";
+            List<Question> questions = getList(query, Question.class, null);
+
+            if (!questions.isEmpty()) {
+                Question question = questions.get(0);
+                // 使用共享缓存填充关联对象
+                populateCategoryAndDifficulty(question);
                 return question;
             }
             return null;
@@ -168,14 +436,7 @@ public class QuestionRestDAO implements QuestionDAO {
     public List<Question> getQuestionsByCreatorId(int creatorId) {
         try {
             String query = "creator_id=eq." + creatorId + "&select=*&order=created_at.desc";
-            String response = SupabaseRestAPI.get(TABLE, query);
-
-            if (response == null || response.equals("[]")) {
-                return List.of();
-            }
-
-            Type listType = new TypeToken<List<Question>>(){}.getType();
-            List<Question> questions = gson.fromJson(response, listType);
+            List<Question> questions = getList(query, Question.class, null);
             // 使用批量填充优化性能
             populateCategoriesAndDifficultiesBatch(questions);
             return questions;
@@ -202,15 +463,8 @@ public class QuestionRestDAO implements QuestionDAO {
     @Override
     public List<Question> getAllQuestions(int offset, int limit) throws SQLException {
         try {
-            String query = "select=*&order=created_at.desc&offset=" + offset + "&limit=" + limit;
-            String response = SupabaseRestAPI.get(TABLE, query);
-
-            if (response == null || response.equals("[]")) {
-                return List.of();
-            }
-
-            Type listType = new TypeToken<List<Question>>(){}.getType();
-            List<Question> questions = gson.fromJson(response, listType);
+            String query = "select=*&order=created_at.desc,question_id.desc&offset=" + offset + "&limit=" + limit;
+            List<Question> questions = getList(query, Question.class, null);
             // 使用批量填充优化性能
             populateCategoriesAndDifficultiesBatch(questions);
             return questions;
@@ -220,6 +474,22 @@ public class QuestionRestDAO implements QuestionDAO {
         }
     }
 
+    @Override
+    public List<Question> getQuestionsAfter(String createdAt, int questionId, int limit) throws SQLException {
+        try {
+            StringBuilder query = new StringBuilder("select=*");
+            appendCursor(query, createdAt, questionId, limit);
+
+            List<Question> questions = getList(query.toString(), Question.class, null);
+            // 使用批量填充优化性能
+            populateCategoriesAndDifficultiesBatch(questions);
+            return questions;
+        } catch (Exception e) {
+            logger.severe("获取题目分页失败: " + e.getMessage());
+            throw new SQLException("获取题目分页失败: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public List<Question> searchQuestions(String keyword, Integer categoryId, Integer difficultyId, String questionType) throws SQLException {
         return searchQuestions(keyword, categoryId, difficultyId, questionType, 100); // 默认限制100条记录
@@ -242,40 +512,14 @@ public class QuestionRestDAO implements QuestionDAO {
     public List<Question> searchQuestions(String keyword, Integer categoryId, Integer difficultyId, String questionType, int offset, int limit) throws SQLException {
         try {
             StringBuilder query = new StringBuilder("select=*");
+            appendFilters(query, keyword, categoryId, difficultyId, questionType);
 
-            if (keyword != null && !keyword.isEmpty()) {
-                // 对关键词进行 URL 编码
-                String encodedKeyword = URLEncoder.encode(keyword, StandardCharsets.UTF_8);
-                query.append("&or=(question_content.ilike.*").append(encodedKeyword).append("*)");
-            }
-
-            if (categoryId != null) {
-                query.append("&category_id=eq.").append(categoryId);
-            }
-
-            if (difficultyId != null) {
-                query.append("&difficulty_id=eq.").append(difficultyId);
-            }
-
-            if (questionType != null && !questionType.isEmpty()) {
-                // 对题目类型进行 URL 编码
-                String encodedQuestionType = URLEncoder.encode(questionType, StandardCharsets.UTF_8);
-                query.append("&question_type=eq.").append(encodedQuestionType);
-            }
-
-            query.append("&order=created_at.desc");
+            query.append("&order=created_at.desc,question_id.desc");
             query.append("&offset=").append(offset);
             query.append("&limit=").append(limit);
 
             logger.info("搜索题目查询参数: " + query.toString());
-            String response = SupabaseRestAPI.get(TABLE, query.toString());
-
-            if (response == null || response.equals("[]")) {
-                return List.of();
-            }
-
-            Type listType = new TypeToken<List<Question>>(){}.getType();
-            List<Question> questions = gson.fromJson(response, listType);
+            List<Question> questions = getList(query.toString(), Question.class, null);
             // 使用批量填充优化性能
             populateCategoriesAndDifficultiesBatch(questions);
             return questions;
@@ -286,138 +530,210 @@ public class QuestionRestDAO implements QuestionDAO {
         }
     }
 
-    /**
-     * 填充题目对象中的分类、难度和创建者对象
-     */
-    private void populateCategoryAndDifficulty(Question question) {
-        if (question == null) {
-            return;
+    @Override
+    public List<Question> searchQuestionsAfter(String keyword, Integer categoryId, Integer difficultyId, String questionType,
+                                               String createdAt, int questionId, int limit) throws SQLException {
+        try {
+            StringBuilder query = new StringBuilder("select=*");
+            appendFilters(query, keyword, categoryId, difficultyId, questionType);
+            appendCursor(query, createdAt, questionId, limit);
+
+            List<Question> questions = getList(query.toString(), Question.class, null);
+            // 使用批量填充优化性能
+            populateCategoriesAndDifficultiesBatch(questions);
+            return questions;
+        } catch (Exception e) {
+            logger.severe("搜索题目分页失败: " + e.getMessage());
+            throw new SQLException("搜索题目分页失败: " + e.getMessage(), e);
         }
+    }
 
+    @Override
+    public List<QuestionSummary> getQuestionSummariesAfter(String createdAt, int questionId, int limit) throws SQLException {
         try {
-            // 确保缓存已加载
-            loadCachesIfNeeded();
-            
-            // 填充分类对象（从缓存获取）
-            if (question.getCategoryId() > 0) {
-                QuestionCategory category = categoryCache.get(question.getCategoryId());
-                question.setCategory(category);
-            }
-
-            // 填充难度对象（从缓存获取）
-            if (question.getDifficultyId() > 0) {
-                QuestionDifficulty difficulty = difficultyCache.get(question.getDifficultyId());
-                question.setDifficulty(difficulty);
-            }
+            StringBuilder query = new StringBuilder();
+            appendCursor(query, createdAt, questionId, limit);
+            return getSummaries(query.toString());
+        } catch (Exception e) {
+            logger.severe("获取题目摘要分页失败: " + e.getMessage());
+            throw new SQLException("获取题目摘要分页失败: " + e.getMessage(), e);
+        }
+    }
 
-            // 填充创建者对象（使用缓存避免重复查询）
-            if (question.getCreatorId() > 0) {
-                User creator = getUserFromCache(question.getCreatorId());
-                question.setCreator(creator);
-            }
+    @Override
+    public List<QuestionSummary> searchQuestionSummaries(String keyword, Integer categoryId, Integer difficultyId, String questionType, int offset, int limit) throws SQLException {
+        try {
+            StringBuilder query = new StringBuilder();
+            appendFilters(query, keyword, categoryId, difficultyId, questionType);
+            query.append("&order=created_at.desc,question_id.desc");
+            query.append("&offset=").append(offset);
+            query.append("&limit=").append(limit);
+            return getSummaries(query.toString());
         } catch (Exception e) {
-            logger.warning("填充题目关联对象失败: " + e.getMessage());
+            logger.severe("搜索题目摘要失败: " + e.getMessage());
+            throw new SQLException("搜索题目摘要失败: " + e.getMessage(), e);
         }
     }
-    
+
     /**
-     * 批量填充题目对象中的分类、难度和创建者对象
+     * 按过滤条件读取摘要；数据库缺少 content_preview 函数时记住并改用完整题干
      */
-    private void populateCategoriesAndDifficultiesBatch(List<Question> questions) {
-        if (questions == null || questions.isEmpty()) {
-            return;
-        }
-        
+    private List<QuestionSummary> getSummaries(String filters) {
+        boolean serverSide = contentPreviewAvailable;
+        Set<Integer> creatorIds = new HashSet<>();
+        List<QuestionSummary> summaries;
         try {
-            // 确保缓存已加载
-            loadCachesIfNeeded();
-            
-            // 批量填充分类、难度和创建者对象
-            for (Question question : questions) {
-                // 填充分类对象（从缓存获取）
-                if (question.getCategoryId() > 0) {
-                    QuestionCategory category = categoryCache.get(question.getCategoryId());
-                    question.setCategory(category);
-                }
-                
-                // 填充难度对象（从缓存获取）
-                if (question.getDifficultyId() > 0) {
-                    QuestionDifficulty difficulty = difficultyCache.get(question.getDifficultyId());
-                    question.setDifficulty(difficulty);
-                }
-                
-                // 填充创建者对象（使用缓存避免重复查询）
-                if (question.getCreatorId() > 0) {
-                    User creator = getUserFromCache(question.getCreatorId());
-                    question.setCreator(creator);
-                }
+            summaries = getList("select=" + (serverSide ? SUMMARY_COLUMNS : SUMMARY_COLUMNS_FALLBACK) + filters,
+                    QuestionSummary.class, summaryCollector(serverSide, creatorIds));
+        } catch (RuntimeException e) {
+            if (!serverSide || e.getMessage() == null || !e.getMessage().contains("content_preview")) {
+                throw e;
             }
-        } catch (Exception e) {
-            logger.warning("批量填充题目关联对象失败: " + e.getMessage());
+            logger.warning("数据库中没有 content_preview 函数，题目列表改为读取完整题干，请执行 创建题目摘要函数.sql");
+            contentPreviewAvailable = false;
+            summaries = getList("select=" + SUMMARY_COLUMNS_FALLBACK + filters,
+                    QuestionSummary.class, summaryCollector(false, creatorIds));
         }
+
+        // 列表显示创建者名称，缓存中缺少的用户在这里一次取回，不在界面线程上逐个查询
+        ReferenceDataCache.prefetchUsers(creatorIds);
+        return summaries;
+    }
+
+    // 每解码一条摘要就截断题干（本地截断时完整题干随即可回收）并记录创建者
+    private Consumer<QuestionSummary> summaryCollector(boolean serverSide, Set<Integer> creatorIds) {
+        return summary -> {
+            if (!serverSide) {
+                summary.setContentPreview(QuestionSummary.truncate(summary.getContentPreview()));
+            }
+            creatorIds.add(summary.getCreatorId());
+        };
     }
 
     /**
-     * 加载分类和难度缓存（如果需要）
+     * 流式读取题目表的查询结果，不把整个响应读成字符串
+     * @param each 每解码出一条记录调用一次，可以为 null
      */
-    private void loadCachesIfNeeded() {
-        if (!cachesLoaded) {
-            try {
-                // 加载所有分类到缓存
-                List<QuestionCategory> allCategories = categoryDAO.getAllCategories();
-                for (QuestionCategory category : allCategories) {
-                    categoryCache.put(category.getCategoryId(), category);
-                }
-                
-                // 加载所有难度到缓存
-                List<QuestionDifficulty> allDifficulties = difficultyDAO.getAllDifficulties();
-                for (QuestionDifficulty difficulty : allDifficulties) {
-                    difficultyCache.put(difficulty.getDifficultyId(), difficulty);
-                }
-                
-                cachesLoaded = true;
-                logger.info("分类和难度缓存已加载，分类数: " + categoryCache.size() + ", 难度数: " + difficultyCache.size());
-            } catch (SQLException e) {
-                logger.warning("加载分类和难度缓存失败: " + e.getMessage());
-            }
+    private <T> List<T> getList(String query, Class<T> type, Consumer<? super T> each) {
+        return SupabaseRestAPI.getStreaming(TABLE, query, body -> JsonStreams.readArray(gson, body, type, each));
+    }
+
+    /**
+     * 追加游标分页条件：(created_at, question_id) < (游标时间, 游标ID)，按创建时间、题目ID倒序
+     */
+    private void appendCursor(StringBuilder query, String createdAt, int questionId, int limit) {
+        if (createdAt != null) {
+            // 时间值加双引号避免与 PostgREST 分隔符冲突
+            String quotedCreatedAt = URLEncoder.encode("\"" + createdAt + "\"", StandardCharsets.UTF_8);
+            query.append("&or=(created_at.lt.").append(quotedCreatedAt)
+                 .append(",and(created_at.eq.").append(quotedCreatedAt)
+                 .append(",question_id.lt.").append(questionId).append("))");
         }
+        query.append("&order=created_at.desc,question_id.desc");
+        query.append("&limit=").append(limit);
     }
-    
+
+    @Override
+    public boolean existsByCategory(int categoryId) throws SQLException {
+        return exists("category_id=eq." + categoryId);
+    }
+
+    @Override
+    public boolean existsByDifficulty(int difficultyId) throws SQLException {
+        return exists("difficulty_id=eq." + difficultyId);
+    }
+
+    @Override
+    public boolean existsByCreator(int creatorId) throws SQLException {
+        return exists("creator_id=eq." + creatorId);
+    }
+
     /**
-     * 从缓存获取用户，避免重复查询
+     * 只取一行的题目ID判断是否存在
+     * 不用 HEAD + count：精确计数要扫描全部匹配行，limit=1 在索引上找到第一行即返回
      */
-    private User getUserFromCache(int userId) {
-        // 检查缓存
-        if (userCache.containsKey(userId)) {
-            return userCache.get(userId);
+    private boolean exists(String filter) throws SQLException {
+        try {
+            String response = SupabaseRestAPI.get(TABLE, "select=question_id&" + filter + "&limit=1");
+            return !readQuestionIds(response).isEmpty();
+        } catch (Exception e) {
+            logger.severe("查询题目是否存在失败: " + e.getMessage());
+            throw new SQLException("查询题目是否存在失败: " + e.getMessage(), e);
         }
+    }
 
+    @Override
+    public long countQuestions(String keyword, Integer categoryId, Integer difficultyId, String questionType, boolean estimated) throws SQLException {
         try {
-            // 缓存未命中，从数据库查询
-            User user = userDAO.getUserById(userId);
-            userCache.put(userId, user);
-            return user;
+            // 只取主键列，计数结果由 PostgREST 通过 Content-Range 返回，不传输任何行
+            StringBuilder query = new StringBuilder("select=question_id");
+            appendFilters(query, keyword, categoryId, difficultyId, questionType);
+            return SupabaseRestAPI.count(TABLE, query.toString(), estimated);
         } catch (Exception e) {
-            logger.warning("获取用户失败: userId=" + userId + ", " + e.getMessage());
-            return null;
+            logger.severe("统计题目数量失败: " + e.getMessage());
+            throw new SQLException("统计题目数量失败: " + e.getMessage(), e);
         }
     }
 
     /**
-     * 清空用户缓存（用于刷新数据）
+     * 追加搜索过滤条件，搜索和计数共用，保证两者口径一致
      */
-    public void clearUserCache() {
-        userCache.clear();
+    private void appendFilters(StringBuilder query, String keyword, Integer categoryId, Integer difficultyId, String questionType) {
+        if (keyword != null && !keyword.isEmpty()) {
+            // 对关键词进行 URL 编码；不使用 or=()，游标分页条件占用了 or 参数
+            String encodedKeyword = URLEncoder.encode(keyword, StandardCharsets.UTF_8);
+            query.append("&question_content=ilike.*").append(encodedKeyword).append("*");
+        }
+
+        if (categoryId != null) {
+            query.append("&category_id=eq.").append(categoryId);
+        }
+
+        if (difficultyId != null) {
+            query.append("&difficulty_id=eq.").append(difficultyId);
+        }
+
+        if (questionType != null && !questionType.isEmpty()) {
+            // 对题目类型进行 URL 编码
+            String encodedQuestionType = URLEncoder.encode(questionType, StandardCharsets.UTF_8);
+            query.append("&question_type=eq.").append(encodedQuestionType);
+        }
     }
-    
+
+    /**
+     * 填充题目对象中的分类、难度和创建者对象（从共享的基础数据缓存读取）
+     */
+    private void populateCategoryAndDifficulty(Question question) {
+        if (question == null) {
+            return;
+        }
+        if (question.getCategoryId() > 0) {
+            question.setCategory(ReferenceDataCache.getCategory(question.getCategoryId()));
+        }
+        if (question.getDifficultyId() > 0) {
+            question.setDifficulty(ReferenceDataCache.getDifficulty(question.getDifficultyId()));
+        }
+        if (question.getCreatorId() > 0) {
+            question.setCreator(ReferenceDataCache.getUser(question.getCreatorId()));
+        }
+    }
+
     /**
-     * 清空所有缓存（用于刷新数据）
+     * 批量填充题目对象中的分类、难度和创建者对象
      */
-    public void clearAllCaches() {
-        userCache.clear();
-        categoryCache.clear();
-        difficultyCache.clear();
-        cachesLoaded = false;
-        logger.info("所有缓存已清空");
+    private void populateCategoriesAndDifficultiesBatch(List<Question> questions) {
+        if (questions == null) {
+            return;
+        }
+        // 缓存中缺少的创建者一次批量取回，整页只多一次请求
+        Set<Integer> creatorIds = new HashSet<>();
+        for (Question question : questions) {
+            creatorIds.add(question.getCreatorId());
+        }
+        ReferenceDataCache.prefetchUsers(creatorIds);
+
+        for (Question question : questions) {
+            populateCategoryAndDifficulty(question);
+        }
     }
 }
@@ -0,0 +1,77 @@
+package com.university.questionbank.dao;
+
+import com.university.questionbank.model.QuestionCategory;
+import com.university.questionbank.model.QuestionDifficulty;
+import com.university.questionbank.model.SystemStatistics;
+import com.university.questionbank.util.SupabaseRestAPI;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.sql.SQLException;
+import java.util.logging.Logger;
+
+/**
+ * 基于 REST API 的统计数据访问对象
+ * 优先调用数据库函数 get_system_statistics（见 创建统计函数.sql），一次请求取回全部统计；
+ * 函数尚未部署时退回到逐项 HEAD 计数，同样不传输任何数据行
+ */
+public class StatisticsRestDAO implements StatisticsDAO {
+    private static final Logger logger = Logger.getLogger(StatisticsRestDAO.class.getName());
+    private static final String RPC_ENDPOINT = "/rpc/get_system_statistics";
+
+    @Override
+    public SystemStatistics getSystemStatistics() throws SQLException {
+        try {
+            return getStatisticsByRpc();
+        } catch (Exception e) {
+            logger.warning("调用统计函数失败，改用逐项计数: " + e.getMessage());
+        }
+
+        try {
+            return getStatisticsByCount();
+        } catch (Exception e) {
+            logger.severe("获取统计数据失败: " + e.getMessage());
+            throw new SQLException("获取统计数据失败: " + e.getMessage(), e);
+        }
+    }
+
+    private SystemStatistics getStatisticsByRpc() {
+        String response = SupabaseRestAPI.post(RPC_ENDPOINT, "{}");
+        JsonObject json = JsonParser.parseString(response).getAsJsonObject();
+
+        SystemStatistics statistics = new SystemStatistics();
+        statistics.setTotalUsers(json.get("total_users").getAsLong());
+        statistics.setActiveUsers(json.get("active_users").getAsLong());
+        statistics.setTotalQuestions(json.get("total_questions").getAsLong());
+
+        // 数组在函数中已按ID排序，为空时函数返回 []
+        for (JsonElement element : json.getAsJsonArray("categories")) {
+            JsonObject item = element.getAsJsonObject();
+            statistics.putCategoryCount(item.get("name").getAsString(), item.get("count").getAsLong());
+        }
+        for (JsonElement element : json.getAsJsonArray("difficulties")) {
+            JsonObject item = element.getAsJsonObject();
+            statistics.putDifficultyCount(item.get("name").getAsString(), item.get("count").getAsLong());
+        }
+        return statistics;
+    }
+
+    private SystemStatistics getStatisticsByCount() throws SQLException {
+        SystemStatistics statistics = new SystemStatistics();
+        statistics.setTotalUsers(SupabaseRestAPI.count("/users", "select=user_id", false));
+        statistics.setActiveUsers(SupabaseRestAPI.count("/users", "select=user_id&status=eq.1", false));
+        statistics.setTotalQuestions(SupabaseRestAPI.count("/questions", "select=question_id", false));
+
+        // 分类和难度数量很少，逐个计数的请求数可控
+        for (QuestionCategory category : new QuestionCategoryRestDAO().getAllCategories()) {
+            long count = SupabaseRestAPI.count("/questions", "select=question_id&category_id=eq." + category.getCategoryId(), false);
+            statistics.putCategoryCount(category.getCategoryName(), count);
+        }
+        for (QuestionDifficulty difficulty : new QuestionDifficultyRestDAO().getAllDifficulties()) {
+            long count = SupabaseRestAPI.count("/questions", "select=question_id&difficulty_id=eq." + difficulty.getDifficultyId(), false);
+            statistics.putDifficultyCount(difficulty.getDifficultyLevel(), count);
+        }
+        return statistics;
+    }
+}
@@ -2,13 +2,25 @@ package com.university.questionbank.dao;
 
 import com.university.questionbank.model.User;
 import com.university.questionbank.model.Role;
+import com.university.questionbank.util.JsonStreams;
 import com.university.questionbank.util.SupabaseRestAPI;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 
 import java.lang.reflect.Type;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
 /**
@@ -17,6 +29,10 @@ import java.util.logging.Logger;
 public class UserRestDAO implements UserDAO {
     private static final Logger logger = Logger.getLogger(UserRestDAO.class.getName());
     private static final String TABLE = "/users";
+    private static final String ROLES_TABLE = "/roles";
+    // 每次按用户ID批量查询的数量，保持 URL 长度在常见限制以内
+    private static final int ID_LOOKUP_CHUNK = 200;
+    private static volatile boolean roleEmbeddingAvailable = true;
     private final Gson gson = new GsonBuilder()
             .serializeNulls()  // 显式序列化 null，可以控制不序列化
             .create();
@@ -27,18 +43,12 @@ public class UserRestDAO implements UserDAO {
     @Override
     public User getUserByUsername(String username) {
         try {
-            String query = "username=eq." + username + "&select=*";
-            String response = SupabaseRestAPI.get(TABLE, query);
-
-            if (response == null || response.equals("[]")) {
+            List<User> users = queryUsers("&username=eq." + username);
+            if (users.isEmpty()) {
                 logger.warning("用户不存在: " + username);
                 return null;
             }
-
-            Type listType = new TypeToken<List<User>>(){}.getType();
-            List<User> users = gson.fromJson(response, listType);
-
-            return users.isEmpty() ? null : users.get(0);
+            return users.get(0);
         } catch (Exception e) {
             logger.severe("获取用户失败: " + e.getMessage());
             return null;
@@ -48,27 +58,8 @@ public class UserRestDAO implements UserDAO {
     @Override
     public User getUserById(int userId) {
         try {
-            String query = "user_id=eq." + userId + "&select=*";
-            logger.info("从数据库获取用户 ID: " + userId + ", 查询: " + query);
-            String response = SupabaseRestAPI.get(TABLE, query);
-            logger.info("查询响应: " + (response != null && response.length() > 200 ? response.substring(0, 200) + "..." : response));
-
-            if (response == null || response.equals("[]")) {
-                return null;
-            }
-
-            Type listType = new TypeToken<List<User>>(){}.getType();
-            List<User> users = gson.fromJson(response, listType);
-
-            User user = users.isEmpty() ? null : users.get(0);
-            if (user != null) {
-                logger.info("用户数据加载成功:");
-                logger.info("  - userId: " + user.getUserId());
-                logger.info("  - username: " + user.getUsername());
-                logger.info("  - realName: " + user.getRealName());
-                logger.info("  - roleId: " + user.getRoleId());
-            }
-            return user;
+            List<User> users = queryUsers("&user_id=eq." + userId);
+            return users.isEmpty() ? null : users.get(0);
         } catch (Exception e) {
             logger.severe("获取用户失败: " + e.getMessage());
             e.printStackTrace();
@@ -79,34 +70,98 @@ public class UserRestDAO implements UserDAO {
     @Override
     public List<User> getAllUsers() {
         try {
-            String query = "select=*&order=created_at.desc";
-            String response = SupabaseRestAPI.get(TABLE, query);
+            return queryUsers("&order=created_at.desc");
+        } catch (Exception e) {
+            logger.severe("获取用户列表失败: " + e.getMessage());
+            return List.of();
+        }
+    }
 
-            if (response == null || response.equals("[]")) {
-                return List.of();
+    @Override
+    public List<User> getUsersByIds(Collection<Integer> userIds) throws SQLException {
+        List<User> users = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        try {
+            for (int start = 0; start < ids.size(); start += ID_LOOKUP_CHUNK) {
+                List<Integer> chunk = ids.subList(start, Math.min(start + ID_LOOKUP_CHUNK, ids.size()));
+                StringBuilder filter = new StringBuilder("&user_id=in.(");
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (i > 0) {
+                        filter.append(',');
+                    }
+                    filter.append(chunk.get(i));
+                }
+                users.addAll(queryUsers(filter.append(')').toString()));
             }
+            return users;
+        } catch (Exception e) {
+            logger.severe("批量获取用户失败: " + e.getMessage());
+            throw new SQLException("批量获取用户失败: " + e.getMessage(), e);
+        }
+    }
 
-            Type listType = new TypeToken<List<User>>(){}.getType();
-            List<User> users = gson.fromJson(response, listType);
+    /**
+     * 查询用户并一起取回角色：通过 users.role_id 外键嵌入 roles，一次请求完成
+     * 数据库中没有声明该外键时 PostgREST 无法嵌入，改为再用一次 in.() 批量查询角色
+     */
+    private List<User> queryUsers(String filters) {
+        if (roleEmbeddingAvailable) {
+            try {
+                return readUsers("select=*,role:roles(*)" + filters);
+            } catch (RuntimeException e) {
+                if (e.getMessage() == null || !e.getMessage().contains("PGRST200")) {
+                    throw e;
+                }
+                logger.warning("users 与 roles 之间没有外键关系，改为批量查询角色");
+                roleEmbeddingAvailable = false;
+            }
+        }
 
-            // 为每个用户加载对应的角色信息
+        List<User> users = readUsers("select=*" + filters);
+        Set<Integer> roleIds = new LinkedHashSet<>();
+        for (User user : users) {
+            if (user.getRole() == null && user.getRoleId() > 0) {
+                roleIds.add(user.getRoleId());
+            }
+        }
+        if (!roleIds.isEmpty()) {
+            StringBuilder query = new StringBuilder("select=*&role_id=in.(");
+            int i = 0;
+            for (int roleId : roleIds) {
+                if (i++ > 0) {
+                    query.append(',');
+                }
+                query.append(roleId);
+            }
+            Type roleListType = new TypeToken<List<Role>>(){}.getType();
+            List<Role> roles = gson.fromJson(SupabaseRestAPI.get(ROLES_TABLE, query.append(')').toString()), roleListType);
+            Map<Integer, Role> rolesById = new HashMap<>();
+            for (Role role : roles) {
+                rolesById.put(role.getRoleId(), role);
+            }
             for (User user : users) {
-                if (user.getRoleId() > 0) {
-                    try {
-                        RoleRestDAO roleDAO = new RoleRestDAO();
-                        Role role = roleDAO.getRoleById(user.getRoleId());
-                        user.setRole(role);
-                    } catch (Exception e) {
-                        logger.warning("加载用户 " + user.getUsername() + " 的角色失败: " + e.getMessage());
-                    }
+                if (user.getRole() == null) {
+                    user.setRole(rolesById.get(user.getRoleId()));
                 }
             }
+        }
+        return users;
+    }
 
-            return users;
-        } catch (Exception e) {
-            logger.severe("获取用户列表失败: " + e.getMessage());
-            return List.of();
+    // 流式读取用户数组
+    private List<User> readUsers(String query) {
+        return SupabaseRestAPI.getStreaming(TABLE, query, body -> JsonStreams.readArray(body, this::readUser, null));
+    }
+
+    // 解码一个用户，嵌入的 role 对象单独转换（User.role 不参与序列化）
+    private User readUser(JsonReader reader) {
+        JsonObject object = JsonParser.parseReader(reader).getAsJsonObject();
+        User user = gson.fromJson(object, User.class);
+        JsonElement role = object.get("role");
+        if (role != null && role.isJsonObject()) {
+            user.setRole(gson.fromJson(role, Role.class));
         }
+        return user;
     }
 
     @Override
@@ -0,0 +1,69 @@
+package com.university.questionbank.util;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JSON 数组的流式解码
+ * 直接从响应流中逐个读取数组元素，不先把整个响应读成字符串，
+ * 每解码出一个元素就可以交给回调处理（例如逐行填充表格）。
+ */
+public class JsonStreams {
+
+    /**
+     * 从读取器当前位置解码一个数组元素
+     */
+    public interface ElementReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
+    private JsonStreams() {
+    }
+
+    /**
+     * 按类型解码数组中的每个元素
+     * @param consumer 每解码出一个元素调用一次，可以为 null
+     * @return 全部元素；响应为空或 null 时返回空列表
+     */
+    public static <T> List<T> readArray(Gson gson, InputStream in, Class<T> type, Consumer<? super T> consumer) throws IOException {
+        return readArray(in, reader -> gson.fromJson(reader, type), consumer);
+    }
+
+    public static <T> List<T> readArray(InputStream in, ElementReader<T> elementReader, Consumer<? super T> consumer) throws IOException {
+        List<T> items = new ArrayList<>();
+        JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        JsonToken first;
+        try {
+            first = reader.peek();
+        } catch (EOFException e) {
+            return items;
+        }
+        if (first == JsonToken.NULL) {
+            return items;
+        }
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            T item = elementReader.read(reader);
+            if (item == null) {
+                continue;
+            }
+            items.add(item);
+            if (consumer != null) {
+                consumer.accept(item);
+            }
+        }
+        reader.endArray();
+        return items;
+    }
+}
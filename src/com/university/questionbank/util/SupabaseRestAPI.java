@@ -1,17 +1,27 @@
 package com.university.questionbank.util;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Supabase REST API 工具类
  * 通过 HTTPS 端口访问 Supabase 数据库
+ * 所有请求共用一个 HttpClient：优先协商 HTTP/2，连接保持复用，响应启用 gzip 压缩。
+ * get/post/patch/delete 另有返回 CompletableFuture 的异步版本，可以同时发出多个请求。
+ * 结果较大的查询使用 getStreaming，把响应流直接交给解码器，不在内存中保留整个响应字符串。
  */
 public class SupabaseRestAPI {
     private static final Logger logger = Logger.getLogger(SupabaseRestAPI.class.getName());
@@ -23,188 +33,244 @@ public class SupabaseRestAPI {
     private static final int CONNECT_TIMEOUT = 30000;
     private static final int READ_TIMEOUT = 30000;
 
+    // 服务端不支持 HTTP/2 时自动退回 HTTP/1.1，连接同样保持复用
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(CONNECT_TIMEOUT))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
     /**
      * 发送 HTTP GET 请求
      */
     public static String get(String endpoint, String query) {
         try {
-            String url = API_BASE + endpoint;
-            if (query != null && !query.isEmpty()) {
-                url += "?" + query;
-            }
+            return send(buildGet(endpoint, query));
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "GET 请求失败", e);
+            throw new RuntimeException("HTTP GET 请求失败: " + e.getMessage(), e);
+        }
+    }
 
-            logger.info("GET 请求: " + url);
-            HttpURLConnection conn = createConnection(url, "GET");
-            conn.setRequestProperty("apikey", SUPABASE_KEY);
-            conn.setRequestProperty("Authorization", "Bearer " + SUPABASE_KEY);
+    /**
+     * 读取响应流的解码器，流在解码器返回后关闭
+     */
+    public interface ResponseReader<T> {
+        T read(InputStream body) throws IOException;
+    }
 
-            return readResponse(conn);
+    /**
+     * 发送 HTTP GET 请求并流式读取响应
+     * 成功时把（已解压的）响应流交给 reader；失败时的异常消息与 get 相同
+     */
+    public static <T> T getStreaming(String endpoint, String query, ResponseReader<T> reader) {
+        try {
+            HttpResponse<InputStream> response = CLIENT.send(buildGet(endpoint, query), HttpResponse.BodyHandlers.ofInputStream());
+            int responseCode = response.statusCode();
+            logger.info("响应码: " + responseCode);
+            try (InputStream body = decode(response.body(), response.headers())) {
+                if (responseCode < 200 || responseCode >= 300) {
+                    throw new RuntimeException("HTTP " + responseCode + ": " + new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                }
+                return reader.read(body);
+            }
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             logger.log(Level.SEVERE, "GET 请求失败", e);
-            e.printStackTrace();
             throw new RuntimeException("HTTP GET 请求失败: " + e.getMessage(), e);
         }
     }
 
+    public static CompletableFuture<String> getAsync(String endpoint, String query) {
+        return sendAsync(buildGet(endpoint, query), "GET");
+    }
+
     /**
      * 发送 HTTP POST 请求
      */
     public static String post(String endpoint, String jsonBody) {
-        HttpURLConnection conn = null;
         try {
-            String url = API_BASE + endpoint;
-            logger.info("POST 请求: " + url);
-            logger.info("请求体: " + jsonBody);
-
-            conn = createConnection(url, "POST");
-            conn.setRequestProperty("apikey", SUPABASE_KEY);
-            conn.setRequestProperty("Authorization", "Bearer " + SUPABASE_KEY);
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("Prefer", "return=representation");
-
-            if (jsonBody != null && !jsonBody.isEmpty()) {
-                conn.setDoOutput(true);
-                try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = jsonBody.getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                    os.flush();
-                }
-            }
-
-            String response = readResponse(conn);
-            logger.info("POST 成功，响应: " + (response != null && response.length() > 200 ? response.substring(0, 200) + "..." : response));
+            String response = send(buildWithBody("POST", endpoint, jsonBody));
+            logger.info("POST 成功，响应: " + abbreviate(response));
             return response;
         } catch (Exception e) {
             logger.log(Level.SEVERE, "POST 请求失败", e);
-            e.printStackTrace();
             throw new RuntimeException("HTTP POST 请求失败: " + e.getMessage(), e);
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
         }
     }
 
+    public static CompletableFuture<String> postAsync(String endpoint, String jsonBody) {
+        return sendAsync(buildWithBody("POST", endpoint, jsonBody), "POST");
+    }
+
     /**
      * 发送 HTTP PATCH 请求
-     * 注意：由于 Java HttpURLConnection 不支持 PATCH 方法，我们使用 PUT 代替
+     * HttpClient 支持任意方法名，直接发送 PATCH，只更新请求体中的列
      */
     public static String patch(String endpoint, String jsonBody) {
-        HttpURLConnection conn = null;
         try {
-            String url = API_BASE + endpoint;
-            logger.info("PATCH 请求 (使用 PUT): " + url);
-            logger.info("请求体: " + jsonBody);
-
-            conn = createConnection(url, "PUT");
-            conn.setRequestProperty("apikey", SUPABASE_KEY);
-            conn.setRequestProperty("Authorization", "Bearer " + SUPABASE_KEY);
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("Prefer", "return=representation");
-
-            if (jsonBody != null && !jsonBody.isEmpty()) {
-                conn.setDoOutput(true);
-                try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = jsonBody.getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                    os.flush();
-                }
-            }
-
-            String response = readResponse(conn);
-            logger.info("PUT 成功，响应: " + (response != null && response.length() > 200 ? response.substring(0, 200) + "..." : response));
+            String response = send(buildWithBody("PATCH", endpoint, jsonBody));
+            logger.info("PATCH 成功，响应: " + abbreviate(response));
             return response;
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "PUT 请求失败", e);
-            e.printStackTrace();
+            logger.log(Level.SEVERE, "PATCH 请求失败", e);
             // 不要返回 null，应该重新抛出异常让调用方处理
-            throw new RuntimeException("HTTP PUT 请求失败: " + e.getMessage(), e);
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
+            throw new RuntimeException("HTTP PATCH 请求失败: " + e.getMessage(), e);
         }
     }
 
+    public static CompletableFuture<String> patchAsync(String endpoint, String jsonBody) {
+        return sendAsync(buildWithBody("PATCH", endpoint, jsonBody), "PATCH");
+    }
+
     /**
-     * 发送 HTTP DELETE 请求
+     * 发送 HTTP DELETE 请求，返回被删除的行（可在 endpoint 中用 select 限定返回的列）
      */
     public static String delete(String endpoint) {
         try {
-            String url = API_BASE + endpoint;
-            logger.info("DELETE 请求: " + url);
-
-            HttpURLConnection conn = createConnection(url, "DELETE");
-            conn.setRequestProperty("apikey", SUPABASE_KEY);
-            conn.setRequestProperty("Authorization", "Bearer " + SUPABASE_KEY);
-
-            return readResponse(conn);
+            return send(buildDelete(endpoint));
         } catch (Exception e) {
             logger.log(Level.SEVERE, "DELETE 请求失败", e);
-            e.printStackTrace();
             throw new RuntimeException("HTTP DELETE 请求失败: " + e.getMessage(), e);
         }
     }
 
+    public static CompletableFuture<String> deleteAsync(String endpoint) {
+        return sendAsync(buildDelete(endpoint), "DELETE");
+    }
+
     /**
-     * 创建 HTTP 连接
+     * 统计记录数
+     * 发送 HEAD 请求并携带 Prefer: count=exact/estimated，总数从 Content-Range 响应头读取，
+     * 不返回任何行数据。estimated 模式下 PostgREST 在结果较大时改用规划器估算值
      */
-    private static HttpURLConnection createConnection(String urlString, String method) throws Exception {
-        URL url = new URL(urlString);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+    public static long count(String endpoint, String query, boolean estimated) {
+        try {
+            String url = buildUrl(endpoint, query);
+            logger.info("COUNT 请求: " + url);
+            HttpRequest request = newRequest(url)
+                    .header("Prefer", estimated ? "count=estimated" : "count=exact")
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .build();
+
+            HttpResponse<Void> response = CLIENT.send(request, HttpResponse.BodyHandlers.discarding());
+            int responseCode = response.statusCode();
+            logger.info("响应码: " + responseCode);
+            if (responseCode < 200 || responseCode >= 300) {
+                throw new RuntimeException("HTTP " + responseCode);
+            }
 
-        conn.setRequestMethod(method);
-        conn.setConnectTimeout(CONNECT_TIMEOUT);
-        conn.setReadTimeout(READ_TIMEOUT);
-        return conn;
+            // 格式为 0-24/3573 或 */0
+            String contentRange = response.headers().firstValue("Content-Range").orElse(null);
+            int slash = contentRange != null ? contentRange.lastIndexOf('/') : -1;
+            if (slash < 0 || "*".equals(contentRange.substring(slash + 1))) {
+                throw new RuntimeException("响应缺少计数信息: Content-Range=" + contentRange);
+            }
+            return Long.parseLong(contentRange.substring(slash + 1).trim());
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "COUNT 请求失败", e);
+            throw new RuntimeException("HTTP COUNT 请求失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static HttpRequest buildGet(String endpoint, String query) {
+        String url = buildUrl(endpoint, query);
+        logger.info("GET 请求: " + url);
+        return newRequest(url).GET().build();
+    }
+
+    private static HttpRequest buildWithBody(String method, String endpoint, String jsonBody) {
+        String url = API_BASE + endpoint;
+        logger.info(method + " 请求: " + url);
+        // 请求体可能是整批题目或含密码哈希的用户信息，只在 FINE 级别记录开头部分
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("请求体: " + abbreviate(jsonBody));
+        }
+        HttpRequest.BodyPublisher body = jsonBody != null && !jsonBody.isEmpty()
+                ? HttpRequest.BodyPublishers.ofString(jsonBody, StandardCharsets.UTF_8)
+                : HttpRequest.BodyPublishers.noBody();
+        return newRequest(url)
+                .header("Content-Type", "application/json")
+                .header("Prefer", "return=representation")
+                .method(method, body)
+                .build();
+    }
+
+    private static HttpRequest buildDelete(String endpoint) {
+        String url = API_BASE + endpoint;
+        logger.info("DELETE 请求: " + url);
+        return newRequest(url)
+                .header("Prefer", "return=representation")
+                .DELETE()
+                .build();
+    }
+
+    private static String buildUrl(String endpoint, String query) {
+        String url = API_BASE + endpoint;
+        if (query != null && !query.isEmpty()) {
+            url += "?" + query;
+        }
+        return url;
     }
 
     /**
-     * 读取响应
+     * 创建带认证头的请求，READ_TIMEOUT 为等待响应的最长时间
      */
-    private static String readResponse(HttpURLConnection conn) throws Exception {
-        int responseCode = conn.getResponseCode();
-        logger.info("响应码: " + responseCode);
+    private static HttpRequest.Builder newRequest(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(READ_TIMEOUT))
+                .header("apikey", SUPABASE_KEY)
+                .header("Authorization", "Bearer " + SUPABASE_KEY)
+                .header("Accept-Encoding", "gzip");
+    }
 
-        BufferedReader reader = null;
+    private static String send(HttpRequest request) throws IOException, InterruptedException {
         try {
-            if (responseCode >= 200 && responseCode < 300) {
-                reader = new BufferedReader(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8));
-            } else {
-                reader = new BufferedReader(new InputStreamReader(conn.getErrorStream(), StandardCharsets.UTF_8));
-            }
-        } catch (Exception e) {
-            // 如果无法获取输入流，创建空响应
-            logger.warning("无法读取响应流: " + e.getMessage());
-            if (responseCode >= 200 && responseCode < 300) {
-                return "";
-            } else {
-                throw new RuntimeException("HTTP " + responseCode + ": 无法读取错误信息");
-            }
+            return readResponse(CLIENT.send(request, HttpResponse.BodyHandlers.ofByteArray()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
         }
+    }
 
-        StringBuilder response = new StringBuilder();
-        String line;
-        try {
-            if (reader != null) {
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-            }
-        } catch (Exception e) {
-            logger.warning("读取响应内容时出错: " + e.getMessage());
-        } finally {
-            try {
-                if (reader != null) {
-                    reader.close();
-                }
-            } catch (Exception e) {
-                logger.warning("关闭读取器时出错: " + e.getMessage());
+    // 失败时以 RuntimeException 异常完成，消息格式与同步版本相同
+    private static CompletableFuture<String> sendAsync(HttpRequest request, String method) {
+        return CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    try {
+                        return readResponse(response);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    logger.log(Level.SEVERE, method + " 请求失败", cause);
+                    throw new RuntimeException("HTTP " + method + " 请求失败: " + cause.getMessage(), cause);
+                });
+    }
+
+    /**
+     * 读取响应：按 Content-Encoding 解压，非 2xx 时抛出带响应内容的异常
+     */
+    private static String readResponse(HttpResponse<byte[]> response) throws IOException {
+        int responseCode = response.statusCode();
+        logger.info("响应码: " + responseCode);
+
+        byte[] body = response.body();
+        String responseStr;
+        if (body == null || body.length == 0) {
+            responseStr = "";
+        } else {
+            try (InputStream in = decode(new ByteArrayInputStream(body), response.headers())) {
+                responseStr = new String(in.readAllBytes(), StandardCharsets.UTF_8);
             }
         }
-
-        String responseStr = response.toString();
-        logger.info("响应内容: " + (responseStr.length() > 200 ? responseStr.substring(0, 200) + "..." : responseStr));
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("响应内容: " + abbreviate(responseStr));
+        }
 
         if (responseCode >= 200 && responseCode < 300) {
             return responseStr;
@@ -213,6 +279,18 @@ public class SupabaseRestAPI {
         }
     }
 
+    // 服务端返回 gzip 时解压
+    private static InputStream decode(InputStream body, HttpHeaders headers) throws IOException {
+        if ("gzip".equalsIgnoreCase(headers.firstValue("Content-Encoding").orElse(""))) {
+            return new GZIPInputStream(body);
+        }
+        return body;
+    }
+
+    private static String abbreviate(String response) {
+        return response != null && response.length() > 200 ? response.substring(0, 200) + "..." : response;
+    }
+
     /**
      * 测试连接
      */
@@ -0,0 +1,154 @@
+package com.university.questionbank;
+
+import com.google.gson.Gson;
+import com.university.questionbank.model.Question;
+import com.university.questionbank.util.DatabaseUtil;
+import com.university.questionbank.util.DocxQuestionParser;
+import com.university.questionbank.util.QuestionBulkLoader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 题目批量装载命令行入口（无界面运行，直接连接数据库）
+ *
+ * 用法：
+ *   java -cp ... com.university.questionbank.BulkImportMain <文件> [分类ID 难度ID 创建者ID]
+ *
+ * 支持的文件：
+ *   .jsonl  每行一个题目 JSON（字段名与 questions 表一致），逐行读取，适合数十万道题目
+ *   .docx   按 DocxQuestionParser 的格式解析，必须同时指定分类ID、难度ID和创建者ID
+ * 指定的分类ID、难度ID、创建者ID会覆盖 .jsonl 中为 0 的对应字段。
+ * 使用 -Ddb.type=sqlite 时写入本地 SQLite 数据库。
+ */
+public class BulkImportMain {
+
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 4) {
+            System.err.println("用法: BulkImportMain <文件.jsonl|文件.docx> [分类ID 难度ID 创建者ID]");
+            System.exit(2);
+        }
+
+        String filePath = args[0];
+        int categoryId = args.length == 4 ? Integer.parseInt(args[1]) : 0;
+        int difficultyId = args.length == 4 ? Integer.parseInt(args[2]) : 0;
+        int creatorId = args.length == 4 ? Integer.parseInt(args[3]) : 0;
+
+        long startTime = System.currentTimeMillis();
+        int exitCode = 0;
+        try {
+            long count;
+            if (filePath.toLowerCase().endsWith(".docx")) {
+                if (args.length != 4) {
+                    System.err.println("导入 .docx 文件时必须指定分类ID、难度ID和创建者ID");
+                    System.exit(2);
+                }
+                Iterator<Question> questions = DocxQuestionParser
+                        .parseAndPrepareQuestions(filePath, categoryId, difficultyId, creatorId)
+                        .iterator();
+                count = QuestionBulkLoader.load(questions, BulkImportMain::printProgress);
+            } else {
+                try (JsonLinesIterator questions = new JsonLinesIterator(filePath, categoryId, difficultyId, creatorId)) {
+                    count = QuestionBulkLoader.load(questions, BulkImportMain::printProgress);
+                }
+            }
+
+            long elapsed = System.currentTimeMillis() - startTime;
+            System.out.println("导入完成：共 " + count + " 道题目，耗时 " + elapsed + "ms");
+        } catch (Exception e) {
+            System.err.println("导入失败: " + e.getMessage());
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            DatabaseUtil.closeConnection();
+        }
+        System.exit(exitCode);
+    }
+
+    private static void printProgress(int completed, int total) {
+        if (total < 0) {
+            System.out.println("已写入 " + completed + " 道题目...");
+        }
+    }
+
+    /**
+     * 逐行读取 JSON Lines 文件的题目迭代器，任意时刻只持有一行
+     */
+    private static class JsonLinesIterator implements Iterator<Question>, AutoCloseable {
+        private final Gson gson = new Gson();
+        private final BufferedReader reader;
+        private final int categoryId;
+        private final int difficultyId;
+        private final int creatorId;
+        private Question next;
+        private long lineNumber;
+
+        JsonLinesIterator(String filePath, int categoryId, int difficultyId, int creatorId) throws IOException {
+            this.reader = Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8);
+            this.categoryId = categoryId;
+            this.difficultyId = difficultyId;
+            this.creatorId = creatorId;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    next = parseLine(line);
+                    return true;
+                }
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException("读取第 " + lineNumber + " 行失败", e);
+            }
+        }
+
+        @Override
+        public Question next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Question question = next;
+            next = null;
+            return question;
+        }
+
+        private Question parseLine(String line) {
+            Question question;
+            try {
+                question = gson.fromJson(line, Question.class);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("第 " + lineNumber + " 行不是有效的题目 JSON: " + e.getMessage(), e);
+            }
+            if (question.getCategoryId() == 0) {
+                question.setCategoryId(categoryId);
+            }
+            if (question.getDifficultyId() == 0) {
+                question.setDifficultyId(difficultyId);
+            }
+            if (question.getCreatorId() == 0) {
+                question.setCreatorId(creatorId);
+            }
+            return question;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
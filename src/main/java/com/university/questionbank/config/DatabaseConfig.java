@@ -26,6 +26,14 @@ public class DatabaseConfig {
     private static final String KEY_SSL_MODE = "db.sslmode";
     private static final String KEY_TIMEOUT = "db.timeout";
     private static final String KEY_AUTO_TEST = "db.autoTest";
+    private static final String KEY_POOL_MIN_SIZE = "db.pool.minSize";
+    private static final String KEY_POOL_MAX_SIZE = "db.pool.maxSize";
+    private static final String KEY_POOL_IDLE_TIMEOUT = "db.pool.idleTimeout";
+    private static final String KEY_POOL_BORROW_TIMEOUT = "db.pool.borrowTimeout";
+    private static final String KEY_POOL_VALIDATION_TIMEOUT = "db.pool.validationTimeout";
+    private static final String KEY_POOL_STATEMENT_CACHE_SIZE = "db.pool.statementCacheSize";
+    private static final String KEY_PREPARE_THRESHOLD = "db.prepareThreshold";
+    private static final String KEY_BATCH_SIZE = "db.batchSize";
 
     // 默认配置值
     private static final String DEFAULT_HOST = "tjvwymicbizzfibfjvej.supabase.co";
@@ -36,12 +44,18 @@ public class DatabaseConfig {
     private static final String DEFAULT_SSL_MODE = "require";
     private static final int DEFAULT_TIMEOUT = 30000;
     private static final boolean DEFAULT_AUTO_TEST = true;
-
-    private static DatabaseConfig instance;
-
-    private Properties properties;
-    private int currentPort;
-    private String currentJdbcUrl;
+    private static final int DEFAULT_POOL_MIN_SIZE = 1;
+    private static final int DEFAULT_POOL_MAX_SIZE = 10;
+    private static final long DEFAULT_POOL_IDLE_TIMEOUT = 600000L;
+    private static final long DEFAULT_POOL_BORROW_TIMEOUT = 10000L;
+    private static final int DEFAULT_POOL_VALIDATION_TIMEOUT = 3;
+    private static final int DEFAULT_POOL_STATEMENT_CACHE_SIZE = 32;
+    private static final int DEFAULT_PREPARE_THRESHOLD = 5;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final Properties properties;
+    private volatile int currentPort;
+    private volatile String currentJdbcUrl;
 
     public DatabaseConfig() {
         properties = new Properties();
@@ -58,11 +72,13 @@ public class DatabaseConfig {
         }
     }
 
+    // 静态内部类持有单例，由类加载机制保证线程安全的延迟初始化
+    private static class Holder {
+        private static final DatabaseConfig INSTANCE = new DatabaseConfig();
+    }
+
     public static DatabaseConfig getInstance() {
-        if (instance == null) {
-            instance = new DatabaseConfig();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     public boolean isSQLite() {
@@ -101,6 +117,46 @@ public class DatabaseConfig {
         return Boolean.parseBoolean(properties.getProperty(KEY_AUTO_TEST, String.valueOf(DEFAULT_AUTO_TEST)));
     }
 
+    // 连接池最小空闲连接数
+    public int getPoolMinSize() {
+        return Integer.parseInt(properties.getProperty(KEY_POOL_MIN_SIZE, String.valueOf(DEFAULT_POOL_MIN_SIZE)));
+    }
+
+    // 连接池最大连接数
+    public int getPoolMaxSize() {
+        return Integer.parseInt(properties.getProperty(KEY_POOL_MAX_SIZE, String.valueOf(DEFAULT_POOL_MAX_SIZE)));
+    }
+
+    // 空闲连接回收时间（毫秒）
+    public long getPoolIdleTimeout() {
+        return Long.parseLong(properties.getProperty(KEY_POOL_IDLE_TIMEOUT, String.valueOf(DEFAULT_POOL_IDLE_TIMEOUT)));
+    }
+
+    // 借用连接的最长等待时间（毫秒）
+    public long getPoolBorrowTimeout() {
+        return Long.parseLong(properties.getProperty(KEY_POOL_BORROW_TIMEOUT, String.valueOf(DEFAULT_POOL_BORROW_TIMEOUT)));
+    }
+
+    // 借出前校验连接的超时时间（秒）
+    public int getPoolValidationTimeout() {
+        return Integer.parseInt(properties.getProperty(KEY_POOL_VALIDATION_TIMEOUT, String.valueOf(DEFAULT_POOL_VALIDATION_TIMEOUT)));
+    }
+
+    // 每个连接缓存的预编译语句数，0 表示不缓存
+    public int getPoolStatementCacheSize() {
+        return Integer.parseInt(properties.getProperty(KEY_POOL_STATEMENT_CACHE_SIZE, String.valueOf(DEFAULT_POOL_STATEMENT_CACHE_SIZE)));
+    }
+
+    // 同一语句执行多少次后改用服务端预编译；经 PgBouncer 事务模式连接时应设为 0
+    public int getPrepareThreshold() {
+        return Integer.parseInt(properties.getProperty(KEY_PREPARE_THRESHOLD, String.valueOf(DEFAULT_PREPARE_THRESHOLD)));
+    }
+
+    // 批量写入时每批（每个 REST 请求）的行数
+    public int getBatchSize() {
+        return Integer.parseInt(properties.getProperty(KEY_BATCH_SIZE, String.valueOf(DEFAULT_BATCH_SIZE)));
+    }
+
     public String getJdbcUrl() {
         return currentJdbcUrl;
     }
@@ -130,11 +186,20 @@ public class DatabaseConfig {
         properties.setProperty(KEY_SSL_MODE, DEFAULT_SSL_MODE);
         properties.setProperty(KEY_TIMEOUT, String.valueOf(DEFAULT_TIMEOUT));
         properties.setProperty(KEY_AUTO_TEST, String.valueOf(DEFAULT_AUTO_TEST));
+        properties.setProperty(KEY_POOL_MIN_SIZE, String.valueOf(DEFAULT_POOL_MIN_SIZE));
+        properties.setProperty(KEY_POOL_MAX_SIZE, String.valueOf(DEFAULT_POOL_MAX_SIZE));
+        properties.setProperty(KEY_POOL_IDLE_TIMEOUT, String.valueOf(DEFAULT_POOL_IDLE_TIMEOUT));
+        properties.setProperty(KEY_POOL_BORROW_TIMEOUT, String.valueOf(DEFAULT_POOL_BORROW_TIMEOUT));
+        properties.setProperty(KEY_POOL_VALIDATION_TIMEOUT, String.valueOf(DEFAULT_POOL_VALIDATION_TIMEOUT));
+        properties.setProperty(KEY_POOL_STATEMENT_CACHE_SIZE, String.valueOf(DEFAULT_POOL_STATEMENT_CACHE_SIZE));
+        properties.setProperty(KEY_PREPARE_THRESHOLD, String.valueOf(DEFAULT_PREPARE_THRESHOLD));
+        properties.setProperty(KEY_BATCH_SIZE, String.valueOf(DEFAULT_BATCH_SIZE));
     }
 
     private String buildJdbcUrl(int port) {
-        return String.format("jdbc:postgresql://%s:%d/%s?sslmode=require",
-            getHost(), port, getDatabase());
+        // reWriteBatchedInserts 让驱动把批量 INSERT 合并为多值 INSERT，减少往返次数
+        return String.format("jdbc:postgresql://%s:%d/%s?sslmode=require&prepareThreshold=%d&reWriteBatchedInserts=true",
+            getHost(), port, getDatabase(), getPrepareThreshold());
     }
 
     public void setPort(int port) {
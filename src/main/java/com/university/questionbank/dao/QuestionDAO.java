@@ -1,20 +1,44 @@
 package com.university.questionbank.dao;
 
 import com.university.questionbank.model.Question;
+import com.university.questionbank.model.QuestionSummary;
+import com.university.questionbank.util.ProgressListener;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface QuestionDAO {
     // 添加题目
     void addQuestion(Question question) throws SQLException;
 
+    // 批量添加题目，按批写入并在每批完成后回报进度；返回与输入顺序一致的新题目ID，并回写到各题目对象
+    List<Integer> addQuestions(List<Question> questions, ProgressListener listener) throws SQLException;
+
+    // 批量添加题目（不回报进度）
+    default List<Integer> addQuestions(List<Question> questions) throws SQLException {
+        return addQuestions(questions, null);
+    }
+
     // 更新题目
     void updateQuestion(Question question) throws SQLException;
 
     // 删除题目
     void deleteQuestion(int questionId) throws SQLException;
 
+    // 批量删除题目，一条语句（一次请求）完成，返回实际删除的题目ID（不存在的ID不在其中）
+    List<Integer> deleteQuestions(int[] questionIds) throws SQLException;
+
+    // 删除某个用户创建的全部题目，返回被删除的题目ID
+    List<Integer> deleteQuestionsByCreator(int creatorId) throws SQLException;
+
+    // 把一批题目改到指定分类，返回实际修改的题目修改后的摘要（原本就在该分类的题目不修改）
+    List<QuestionSummary> updateQuestionsCategory(int[] questionIds, int categoryId) throws SQLException;
+
+    // 把一批题目改到指定难度，返回实际修改的题目修改后的摘要（原本就是该难度的题目不修改）
+    List<QuestionSummary> updateQuestionsDifficulty(int[] questionIds, int difficultyId) throws SQLException;
+
     // 根据题目ID获取题目
     Question getQuestionById(int questionId) throws SQLException;
 
@@ -27,9 +51,42 @@ public interface QuestionDAO {
     // 获取所有题目（分页）
     List<Question> getAllQuestions(int offset, int limit) throws SQLException;
 
+    // 游标分页：获取排在 (createdAt, questionId) 之后的一页题目，按创建时间、题目ID倒序
+    // createdAt 为 null 时返回第一页；深翻页性能不随页码增加而下降
+    List<Question> getQuestionsAfter(String createdAt, int questionId, int limit) throws SQLException;
+
     // 根据条件搜索题目
     List<Question> searchQuestions(String keyword, Integer categoryId, Integer difficultyId, String questionType) throws SQLException;
     
     // 根据条件搜索题目（分页）
     List<Question> searchQuestions(String keyword, Integer categoryId, Integer difficultyId, String questionType, int offset, int limit) throws SQLException;
-}
\ No newline at end of file
+
+    // 带过滤条件的游标分页，过滤条件与 searchQuestions 相同，游标与 getQuestionsAfter 相同
+    // 导出等需要完整遍历结果的场景使用，created_at 相同的题目不会重复或遗漏
+    List<Question> searchQuestionsAfter(String keyword, Integer categoryId, Integer difficultyId, String questionType,
+                                        String createdAt, int questionId, int limit) throws SQLException;
+
+    // 题目列表摘要（只取表格显示的列，题干截断到 QuestionSummary.PREVIEW_LENGTH 个字符），游标与 getQuestionsAfter 相同
+    List<QuestionSummary> getQuestionSummariesAfter(String createdAt, int questionId, int limit) throws SQLException;
+
+    // 按条件搜索题目摘要（分页），过滤条件与 searchQuestions 相同
+    List<QuestionSummary> searchQuestionSummaries(String keyword, Integer categoryId, Integer difficultyId, String questionType, int offset, int limit) throws SQLException;
+
+    // 是否存在使用该分类的题目（按索引只探测一行，耗时与题库规模无关）
+    boolean existsByCategory(int categoryId) throws SQLException;
+
+    // 是否存在使用该难度的题目
+    boolean existsByDifficulty(int difficultyId) throws SQLException;
+
+    // 该用户是否创建过题目
+    boolean existsByCreator(int creatorId) throws SQLException;
+
+    // 统计符合条件的题目数量，estimated 为 true 时返回数据库的快速估算值而不是精确计数
+    long countQuestions(String keyword, Integer categoryId, Integer difficultyId, String questionType, boolean estimated) throws SQLException;
+
+    // 返回给定内容指纹中题库里已经存在的部分（content_hash 列有索引）
+    Set<Long> findExistingContentHashes(Collection<Long> contentHashes) throws SQLException;
+
+    // 为还没有内容指纹的旧题目补算并写入指纹，返回补算的数量
+    int backfillContentHashes() throws SQLException;
+}
@@ -0,0 +1,457 @@
+package com.university.questionbank.dao;
+
+import com.university.questionbank.model.QuestionCategory;
+import com.university.questionbank.model.QuestionDifficulty;
+import com.university.questionbank.model.Role;
+import com.university.questionbank.model.User;
+import com.university.questionbank.util.DataChangeBus;
+import com.university.questionbank.util.DataChangeEvent;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+import java.util.logging.Logger;
+
+/**
+ * 全局共享的基础数据缓存（分类、难度、角色、用户）
+ * 每类数据整表读入一个 ConcurrentHashMap，按ID查名称只是一次内存读取。
+ * 数据超过 REFRESH_AHEAD_MILLIS 后继续返回旧数据，同时在后台刷新；超过 EXPIRE_MILLIS 才同步重新加载。
+ * EDT 上使用 peek 开头的方法，只读取已有快照，从不访问数据库。
+ * 本进程内的新增、修改、删除通过 DataChangeBus 通知，只重新读取或移除变更的那一条；
+ * 其他客户端的修改最迟在过期后生效。
+ */
+public class ReferenceDataCache {
+    private static final Logger logger = Logger.getLogger(ReferenceDataCache.class.getName());
+
+    private static final long REFRESH_AHEAD_MILLIS = 4 * 60_000L;
+    private static final long EXPIRE_MILLIS = 5 * 60_000L;
+
+    // 后台刷新线程，守护线程不阻止程序退出
+    private static final ExecutorService REFRESHER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reference-data-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Table<QuestionCategory> CATEGORIES = new Table<>("分类",
+            () -> DAOFactory.createQuestionCategoryDAO().getAllCategories(),
+            id -> DAOFactory.createQuestionCategoryDAO().getCategoryById(id), QuestionCategory::getCategoryId);
+    private static final Table<QuestionDifficulty> DIFFICULTIES = new Table<>("难度",
+            () -> DAOFactory.createQuestionDifficultyDAO().getAllDifficulties(),
+            id -> DAOFactory.createQuestionDifficultyDAO().getDifficultyById(id), QuestionDifficulty::getDifficultyId);
+    private static final Table<Role> ROLES = new Table<>("角色",
+            () -> DAOFactory.createRoleDAO().getAllRoles(),
+            id -> DAOFactory.createRoleDAO().getRoleById(id), Role::getRoleId);
+    private static final Table<User> USERS = new Table<>("用户",
+            () -> DAOFactory.createUserDAO().getAllUsers(),
+            id -> DAOFactory.createUserDAO().getUserById(id), User::getUserId);
+
+    // 最近一次预取，进行中时后来的调用共用它
+    private static CompletableFuture<Void> prefetching;
+
+    static {
+        DataChangeBus.subscribe(ReferenceDataCache::onDataChanged);
+    }
+
+    private ReferenceDataCache() {
+    }
+
+    private static void onDataChanged(DataChangeEvent event) {
+        switch (event.getEntityType()) {
+            case CATEGORY:
+                CATEGORIES.apply(event);
+                break;
+            case DIFFICULTY:
+                DIFFICULTIES.apply(event);
+                break;
+            case ROLE:
+                ROLES.apply(event);
+                break;
+            case USER:
+                USERS.apply(event);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // 分类
+    public static QuestionCategory getCategory(int categoryId) {
+        return CATEGORIES.get(categoryId);
+    }
+
+    // 分类名称，不存在时返回 null
+    public static String getCategoryName(int categoryId) {
+        QuestionCategory category = getCategory(categoryId);
+        return category != null ? category.getCategoryName() : null;
+    }
+
+    // 分类名称，只读已有快照（见 Table.peek）
+    public static String peekCategoryName(int categoryId) {
+        QuestionCategory category = CATEGORIES.peek(categoryId);
+        return category != null ? category.getCategoryName() : null;
+    }
+
+    public static List<QuestionCategory> getAllCategories() throws SQLException {
+        return CATEGORIES.values();
+    }
+
+    // 难度
+    public static QuestionDifficulty getDifficulty(int difficultyId) {
+        return DIFFICULTIES.get(difficultyId);
+    }
+
+    // 难度名称，不存在时返回 null
+    public static String getDifficultyLevel(int difficultyId) {
+        QuestionDifficulty difficulty = getDifficulty(difficultyId);
+        return difficulty != null ? difficulty.getDifficultyLevel() : null;
+    }
+
+    // 难度名称，只读已有快照（见 Table.peek）
+    public static String peekDifficultyLevel(int difficultyId) {
+        QuestionDifficulty difficulty = DIFFICULTIES.peek(difficultyId);
+        return difficulty != null ? difficulty.getDifficultyLevel() : null;
+    }
+
+    public static List<QuestionDifficulty> getAllDifficulties() throws SQLException {
+        return DIFFICULTIES.values();
+    }
+
+    // 角色
+    public static Role getRole(int roleId) {
+        return ROLES.get(roleId);
+    }
+
+    public static List<Role> getAllRoles() throws SQLException {
+        return ROLES.values();
+    }
+
+    /**
+     * 用户；整表快照中没有时（其他客户端新建的用户）单独查询一次并补入缓存，
+     * 查不到的ID记为不存在，在下次整表加载前不再查询
+     */
+    public static User getUser(int userId) {
+        User user = USERS.get(userId);
+        if (user != null || userId <= 0 || USERS.isMissing(userId)) {
+            return user;
+        }
+        try {
+            user = DAOFactory.createUserDAO().getUserById(userId);
+            if (user != null) {
+                USERS.putIfLoaded(user);
+            } else {
+                USERS.markMissing(userId);
+            }
+            return user;
+        } catch (Exception e) {
+            logger.warning("获取用户失败: userId=" + userId + ", " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 确保这些用户都在缓存中：快照中缺少的用一次批量查询补齐，
+     * 列表填充创建者前调用，避免逐个 getUser 时每个缺失的用户各查询一次
+     */
+    public static void prefetchUsers(Collection<Integer> userIds) {
+        Set<Integer> missing = new HashSet<>();
+        for (Integer userId : userIds) {
+            if (userId != null && userId > 0 && USERS.get(userId) == null && !USERS.isMissing(userId)) {
+                missing.add(userId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try {
+            for (User user : DAOFactory.createUserDAO().getUsersByIds(missing)) {
+                USERS.putIfLoaded(user);
+                missing.remove(user.getUserId());
+            }
+            // 已删除的创建者等查不到的ID，之后不再逐次查询
+            for (Integer userId : missing) {
+                USERS.markMissing(userId);
+            }
+        } catch (Exception e) {
+            logger.warning("批量获取用户失败: " + e.getMessage());
+        }
+    }
+
+    // 用户真实姓名，不存在时返回 null
+    public static String getUserRealName(int userId) {
+        User user = getUser(userId);
+        return user != null ? user.getRealName() : null;
+    }
+
+    // 用户真实姓名，只读已有快照，不单独查询缺少的用户（见 Table.peek）；需要时先在后台调用 prefetchUsers
+    public static String peekUserRealName(int userId) {
+        User user = USERS.peek(userId);
+        return user != null ? user.getRealName() : null;
+    }
+
+    public static List<User> getAllUsers() throws SQLException {
+        return USERS.values();
+    }
+
+    /**
+     * 加载尚未加载的数据，供后台线程在界面显示前调用，避免首次查找在 EDT 上访问数据库
+     */
+    public static void warmUp() {
+        CATEGORIES.get(0);
+        DIFFICULTIES.get(0);
+        USERS.get(0);
+    }
+
+    /**
+     * 在给定执行器上同时加载分类、难度、角色和用户（已加载且未过期的直接跳过），登录成功后调用
+     * 预取进行中时返回同一个 future，不重复查询；四类数据各自独立加载，总耗时约等于最慢的一类
+     */
+    public static synchronized CompletableFuture<Void> prefetch(Executor executor) {
+        if (prefetching != null && !prefetching.isDone()) {
+            return prefetching;
+        }
+        long startTime = System.currentTimeMillis();
+        prefetching = CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> CATEGORIES.get(0), executor),
+                CompletableFuture.runAsync(() -> DIFFICULTIES.get(0), executor),
+                CompletableFuture.runAsync(() -> ROLES.get(0), executor),
+                CompletableFuture.runAsync(() -> USERS.get(0), executor));
+        prefetching.thenRun(() -> logger.fine("基础数据预取完成，耗时 " + (System.currentTimeMillis() - startTime) + "ms"));
+        return prefetching;
+    }
+
+    public static void invalidateCategories() {
+        CATEGORIES.invalidate();
+    }
+
+    public static void invalidateDifficulties() {
+        DIFFICULTIES.invalidate();
+    }
+
+    public static void invalidateRoles() {
+        ROLES.invalidate();
+    }
+
+    public static void invalidateUsers() {
+        USERS.invalidate();
+    }
+
+    public static void invalidateAll() {
+        CATEGORIES.invalidate();
+        DIFFICULTIES.invalidate();
+        ROLES.invalidate();
+        USERS.invalidate();
+        logger.info("基础数据缓存已清空");
+    }
+
+    private interface Loader<T> {
+        List<T> load() throws SQLException;
+    }
+
+    private interface RowLoader<T> {
+        T load(int id) throws SQLException;
+    }
+
+    /**
+     * 一类基础数据的快照
+     * 快照整体替换，读取不加锁；同步加载在 loadLock 上串行，同一时刻只查询一次。
+     * generation 在失效或单条更新时递增，之前开始的后台刷新结果不会覆盖它们。
+     * missing 记录单独查询过但不存在的ID，随快照一起替换或清空。
+     */
+    private static class Table<T> {
+        private final String name;
+        private final Loader<T> loader;
+        private final RowLoader<T> rowLoader;
+        private final ToIntFunction<T> idOf;
+
+        private final Object loadLock = new Object();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private final AtomicInteger generation = new AtomicInteger();
+        private volatile Map<Integer, T> snapshot;
+        private volatile Set<Integer> missing = ConcurrentHashMap.newKeySet();
+        private volatile long loadedAt;
+
+        Table(String name, Loader<T> loader, RowLoader<T> rowLoader, ToIntFunction<T> idOf) {
+            this.name = name;
+            this.loader = loader;
+            this.rowLoader = rowLoader;
+            this.idOf = idOf;
+        }
+
+        // 按ID读取，加载失败时记录日志并返回 null
+        T get(int id) {
+            try {
+                return current().get(id);
+            } catch (SQLException e) {
+                logger.warning("加载" + name + "缓存失败: " + e.getMessage());
+                return null;
+            }
+        }
+
+        /**
+         * 按ID读取已有快照，不访问数据库：快照已加载时即使过期也直接返回旧数据；
+         * 未加载或需要刷新时在后台加载，本次返回 null 或旧数据
+         */
+        T peek(int id) {
+            Map<Integer, T> map = snapshot;
+            if (map == null || System.currentTimeMillis() - loadedAt >= REFRESH_AHEAD_MILLIS) {
+                refreshAsync();
+            }
+            return map != null ? map.get(id) : null;
+        }
+
+        boolean isMissing(int id) {
+            return missing.contains(id);
+        }
+
+        void markMissing(int id) {
+            if (snapshot != null) {
+                missing.add(id);
+            }
+        }
+
+        List<T> values() throws SQLException {
+            return Collections.unmodifiableList(new ArrayList<>(current().values()));
+        }
+
+        void putIfLoaded(T value) {
+            Map<Integer, T> map = snapshot;
+            if (map != null) {
+                map.putIfAbsent(idOf.applyAsInt(value), value);
+                missing.remove(idOf.applyAsInt(value));
+            }
+        }
+
+        /**
+         * 按变更事件更新快照：删除时移除该条，新增或修改时重新读取该条；
+         * 不知道ID或读取失败时整表失效
+         */
+        void apply(DataChangeEvent event) {
+            int id = event.getEntityId();
+            if (snapshot == null) {
+                return;
+            }
+            if (id <= 0) {
+                invalidate();
+                return;
+            }
+            if (event.getAction() == DataChangeEvent.Action.DELETED) {
+                synchronized (loadLock) {
+                    generation.incrementAndGet();
+                    Map<Integer, T> map = snapshot;
+                    if (map != null) {
+                        map.remove(id);
+                    }
+                }
+                return;
+            }
+
+            try {
+                T value = rowLoader.load(id);
+                synchronized (loadLock) {
+                    generation.incrementAndGet();
+                    Map<Integer, T> map = snapshot;
+                    if (map != null) {
+                        if (value != null) {
+                            map.put(id, value);
+                            missing.remove(id);
+                        } else {
+                            map.remove(id);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                logger.warning("重新读取" + name + "失败: id=" + id + ", " + e.getMessage());
+                invalidate();
+            }
+        }
+
+        void invalidate() {
+            synchronized (loadLock) {
+                generation.incrementAndGet();
+                snapshot = null;
+                missing = ConcurrentHashMap.newKeySet();
+            }
+        }
+
+        private Map<Integer, T> current() throws SQLException {
+            Map<Integer, T> map = snapshot;
+            long age = System.currentTimeMillis() - loadedAt;
+            if (map != null && age < EXPIRE_MILLIS) {
+                if (age >= REFRESH_AHEAD_MILLIS) {
+                    refreshAsync();
+                }
+                return map;
+            }
+
+            synchronized (loadLock) {
+                map = snapshot;
+                if (map != null && System.currentTimeMillis() - loadedAt < EXPIRE_MILLIS) {
+                    return map;
+                }
+                map = load();
+                install(map, generation.get());
+                return map;
+            }
+        }
+
+        private void refreshAsync() {
+            if (!refreshing.compareAndSet(false, true)) {
+                return;
+            }
+            int startGeneration = generation.get();
+            try {
+                REFRESHER.execute(() -> {
+                    try {
+                        Map<Integer, T> map = load();
+                        synchronized (loadLock) {
+                            install(map, startGeneration);
+                        }
+                    } catch (Exception e) {
+                        // 刷新失败时保留旧数据，过期后再同步加载
+                        logger.warning("后台刷新" + name + "缓存失败: " + e.getMessage());
+                    } finally {
+                        refreshing.set(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                refreshing.set(false);
+                throw e;
+            }
+        }
+
+        private Map<Integer, T> load() throws SQLException {
+            List<T> values = loader.load();
+            Map<Integer, T> map = new ConcurrentHashMap<>(Math.max(16, values.size() * 2));
+            for (T value : values) {
+                if (value != null) {
+                    map.put(idOf.applyAsInt(value), value);
+                }
+            }
+            return map;
+        }
+
+        // 调用方持有 loadLock
+        private void install(Map<Integer, T> map, int expectedGeneration) {
+            if (generation.get() == expectedGeneration) {
+                snapshot = map;
+                missing = ConcurrentHashMap.newKeySet();
+                loadedAt = System.currentTimeMillis();
+                logger.fine(name + "缓存已加载，共 " + map.size() + " 条");
+            }
+        }
+    }
+}
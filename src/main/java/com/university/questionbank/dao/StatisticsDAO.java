@@ -0,0 +1,10 @@
+package com.university.questionbank.dao;
+
+import com.university.questionbank.model.SystemStatistics;
+
+import java.sql.SQLException;
+
+public interface StatisticsDAO {
+    // 一次性获取统计面板需要的全部统计数据（含按分类、按难度的题目数）
+    SystemStatistics getSystemStatistics() throws SQLException;
+}
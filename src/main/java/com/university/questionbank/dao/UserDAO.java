@@ -3,6 +3,7 @@ package com.university.questionbank.dao;
 import com.university.questionbank.model.User;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 
 public interface UserDAO {
@@ -15,6 +16,9 @@ public interface UserDAO {
     // 获取所有用户
     List<User> getAllUsers() throws SQLException;
 
+    // 按ID批量获取用户（含角色），不存在的ID忽略
+    List<User> getUsersByIds(Collection<Integer> userIds) throws SQLException;
+
     // 添加用户
     void addUser(User user) throws SQLException;
 
@@ -1,48 +1,286 @@
 package com.university.questionbank.dao.impl;
 
+import com.university.questionbank.config.DatabaseConfig;
 import com.university.questionbank.dao.QuestionDAO;
 import com.university.questionbank.model.*;
+import com.university.questionbank.util.DatabaseOptimizer;
 import com.university.questionbank.util.DatabaseUtil;
+import com.university.questionbank.util.ProgressListener;
+import com.university.questionbank.util.QuestionFingerprint;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class QuestionDAOImpl implements QuestionDAO {
+    private static final Logger logger = Logger.getLogger(QuestionDAOImpl.class.getName());
+
+    // 题目及其分类、难度、创建者、角色的四表连接查询（所有读取方法共用）
+    private static final String SELECT_QUESTION_WITH_JOINS = "" +
+            "SELECT q.*, " +
+            "  c.category_id, c.category_name, c.description AS category_desc, " +
+            "  d.difficulty_id, d.difficulty_level, d.description AS difficulty_desc, " +
+            "  u.user_id, u.username, u.real_name, u.email, u.phone, u.status, u.created_at AS user_created_at, " +
+            "  r.role_id, r.role_name, r.description AS role_desc " +
+            "FROM questions q " +
+            "JOIN question_categories c ON q.category_id = c.category_id " +
+            "JOIN question_difficulties d ON q.difficulty_id = d.difficulty_id " +
+            "JOIN users u ON q.creator_id = u.user_id " +
+            "JOIN roles r ON u.role_id = r.role_id ";
+
+    private static final String SQL_GET_BY_ID =
+            SELECT_QUESTION_WITH_JOINS + "WHERE q.question_id = ?;";
+
+    private static final String SQL_GET_BY_CREATOR =
+            SELECT_QUESTION_WITH_JOINS + "WHERE q.creator_id = ? ORDER BY q.created_at DESC;";
+
+    // created_at 不唯一（同一批导入的题目时间相同），以 question_id 作为第二排序键保证分页顺序确定
+    private static final String SQL_GET_PAGE =
+            SELECT_QUESTION_WITH_JOINS + "ORDER BY q.created_at DESC, q.question_id DESC LIMIT ? OFFSET ?;";
+
+    // 游标分页，依赖 (created_at DESC, question_id DESC) 复合索引
+    private static final String SQL_GET_FIRST_KEYSET_PAGE =
+            SELECT_QUESTION_WITH_JOINS + "ORDER BY q.created_at DESC, q.question_id DESC LIMIT ?;";
+
+    private static final String SQL_GET_KEYSET_PAGE_AFTER =
+            SELECT_QUESTION_WITH_JOINS + "WHERE (q.created_at, q.question_id) < (?, ?) " +
+            "ORDER BY q.created_at DESC, q.question_id DESC LIMIT ?;";
+
+    // 列表摘要只取表格显示的列，不连接其他表，题干在数据库端截断（SQLite 和 PostgreSQL 都支持 SUBSTR）
+    private static final String SELECT_QUESTION_SUMMARY = "" +
+            "SELECT q.question_id, SUBSTR(q.question_content, 1, " + QuestionSummary.PREVIEW_LENGTH + ") AS content_preview, " +
+            "  q.question_type, q.category_id, q.difficulty_id, q.creator_id, q.created_at " +
+            "FROM questions q ";
+
+    private static final String SQL_GET_FIRST_SUMMARY_PAGE =
+            SELECT_QUESTION_SUMMARY + "ORDER BY q.created_at DESC, q.question_id DESC LIMIT ?;";
+
+    private static final String SQL_GET_SUMMARY_PAGE_AFTER =
+            SELECT_QUESTION_SUMMARY + "WHERE (q.created_at, q.question_id) < (?, ?) " +
+            "ORDER BY q.created_at DESC, q.question_id DESC LIMIT ?;";
+
+    // 搜索条件标志位，每种组合对应一个固定的 SQL 形状
+    private static final int FILTER_KEYWORD = 1;
+    private static final int FILTER_CATEGORY = 1 << 1;
+    private static final int FILTER_DIFFICULTY = 1 << 2;
+    private static final int FILTER_TYPE = 1 << 3;
+
+    // 预先生成全部 16 种搜索 SQL，保证同一组合的 SQL 文本完全相同，
+    // 连接池语句缓存和 PostgreSQL 服务端预编译都能按 SQL 文本复用执行计划
+    private static final String[] SEARCH_SQL_SHAPES = new String[16];
+    private static final String[] SUMMARY_SEARCH_SQL_SHAPES = new String[16];
+    // 带过滤条件的游标分页：第一页和游标之后的页
+    private static final String[] KEYSET_SEARCH_SQL_SHAPES = new String[16];
+    private static final String[] KEYSET_SEARCH_AFTER_SQL_SHAPES = new String[16];
+    // 精确计数，只扫描 questions 表本身
+    private static final String[] COUNT_SQL_SHAPES = new String[16];
+    // 估算计数，读取规划器的行数估计而不执行查询
+    private static final String[] ESTIMATE_SQL_SHAPES = new String[16];
+
+    static {
+        for (int flags = 0; flags < 16; flags++) {
+            String where = buildWhereClause(flags);
+            SEARCH_SQL_SHAPES[flags] = SELECT_QUESTION_WITH_JOINS + where + " ORDER BY q.created_at DESC, q.question_id DESC LIMIT ? OFFSET ?;";
+            SUMMARY_SEARCH_SQL_SHAPES[flags] = SELECT_QUESTION_SUMMARY + where + " ORDER BY q.created_at DESC, q.question_id DESC LIMIT ? OFFSET ?;";
+            KEYSET_SEARCH_SQL_SHAPES[flags] = SELECT_QUESTION_WITH_JOINS + where +
+                    " ORDER BY q.created_at DESC, q.question_id DESC LIMIT ?;";
+            KEYSET_SEARCH_AFTER_SQL_SHAPES[flags] = SELECT_QUESTION_WITH_JOINS + where +
+                    " AND (q.created_at, q.question_id) < (?, ?) ORDER BY q.created_at DESC, q.question_id DESC LIMIT ?;";
+            COUNT_SQL_SHAPES[flags] = "SELECT COUNT(*) FROM questions q " + where + ";";
+            ESTIMATE_SQL_SHAPES[flags] = "EXPLAIN SELECT 1 FROM questions q " + where + ";";
+        }
+    }
+
+    /**
+     * 给定过滤条件时 searchQuestions 使用的 SQL 文本，参数依次为过滤条件、LIMIT、OFFSET
+     * 供 DatabaseOptimizer 等诊断工具测量与实际搜索完全相同的语句
+     */
+    public static String getSearchSql(String keyword, Integer categoryId, Integer difficultyId, String questionType) {
+        return SEARCH_SQL_SHAPES[collectFilterParams(keyword, categoryId, difficultyId, questionType, new ArrayList<>())];
+    }
+
+    // 表级估算行数（ANALYZE/VACUUM 后维护），无过滤条件时直接读取
+    private static final String SQL_ESTIMATE_TOTAL =
+            "SELECT reltuples::bigint FROM pg_class WHERE oid = 'questions'::regclass;";
+
+    // EXPLAIN 首行中的 rows=N
+    private static final Pattern PLAN_ROWS_PATTERN = Pattern.compile("rows=(\\d+)");
+
+    private static String buildWhereClause(int flags) {
+        StringBuilder where = new StringBuilder("WHERE 1=1");
+        if ((flags & FILTER_KEYWORD) != 0) {
+            // 使用全文索引替代LIKE查询，性能提升100倍
+            where.append(" AND to_tsvector('simple', q.question_content) @@ to_tsquery(?)");
+        }
+        if ((flags & FILTER_CATEGORY) != 0) {
+            where.append(" AND q.category_id = ?");
+        }
+        if ((flags & FILTER_DIFFICULTY) != 0) {
+            where.append(" AND q.difficulty_id = ?");
+        }
+        if ((flags & FILTER_TYPE) != 0) {
+            where.append(" AND q.question_type = ?");
+        }
+        return where.toString();
+    }
+
+    // 按固定顺序收集过滤参数，返回对应的 SQL 形状标志位
+    private static int collectFilterParams(String keyword, Integer categoryId, Integer difficultyId, String questionType, List<Object> params) {
+        int flags = 0;
+        if (keyword != null && !keyword.isEmpty()) {
+            flags |= FILTER_KEYWORD;
+            // 将用户输入的关键词转换为tsquery格式：将空格替换为&（AND操作）
+            String tsquery = keyword.trim().replaceAll("\\s+", " & ");
+            params.add(tsquery);
+        }
+        if (categoryId != null) {
+            flags |= FILTER_CATEGORY;
+            params.add(categoryId);
+        }
+        if (difficultyId != null) {
+            flags |= FILTER_DIFFICULTY;
+            params.add(difficultyId);
+        }
+        if (questionType != null && !questionType.isEmpty()) {
+            flags |= FILTER_TYPE;
+            params.add(questionType);
+        }
+        return flags;
+    }
+
+    // SQLite 单条语句的参数个数上限较低，IN 列表按此大小分块
+    private static final int SQLITE_MAX_IN_PARAMS = 500;
+
+    // 不带结尾分号，驱动才能在 reWriteBatchedInserts 下把批量 INSERT 改写为多值 INSERT
+    private static final String SQL_INSERT = "" +
+            "INSERT INTO questions (" +
+            "  question_content, question_type, option_a, option_b, option_c, option_d, " +
+            "  correct_answer, explanation, category_id, difficulty_id, creator_id, content_hash" +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // 数据库缺少 content_hash 列时使用
+    private static final String SQL_INSERT_WITHOUT_HASH = "" +
+            "INSERT INTO questions (" +
+            "  question_content, question_type, option_a, option_b, option_c, option_d, " +
+            "  correct_answer, explanation, category_id, difficulty_id, creator_id" +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
 
     @Override
     public void addQuestion(Question question) throws SQLException {
-        String sql = "" +
-                "INSERT INTO questions (" +
-                "  question_content, question_type, option_a, option_b, option_c, option_d, " +
-                "  correct_answer, explanation, category_id, difficulty_id, creator_id" +
-                ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);";
+        boolean withHash = DatabaseOptimizer.isContentHashColumnAvailable();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(withHash ? SQL_INSERT : SQL_INSERT_WITHOUT_HASH, new String[]{"question_id"})) {
+
+            bindInsertParameters(pstmt, question, withHash);
+            pstmt.executeUpdate();
+
+            // 与 REST 实现一致，把生成的ID写回题目对象
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    question.setQuestionId(keys.getInt(1));
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<Integer> addQuestions(List<Question> questions, ProgressListener listener) throws SQLException {
+        List<Integer> ids = new ArrayList<>(questions.size());
+        if (questions.isEmpty()) {
+            return ids;
+        }
+
+        DatabaseConfig config = DatabaseConfig.getInstance();
+        int batchSize = Math.max(1, config.getBatchSize());
+        // SQLite 驱动在 executeBatch 后不返回生成的主键，只能逐行插入（仍在同一事务内）
+        boolean perRow = config.isSQLite();
+        boolean withHash = DatabaseOptimizer.isContentHashColumnAvailable();
 
         try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(withHash ? SQL_INSERT : SQL_INSERT_WITHOUT_HASH, new String[]{"question_id"})) {
+
+            // 全部题目在一个事务中写入，任何一批失败都整体回滚，不会留下半个题库
+            conn.setAutoCommit(false);
+            try {
+                for (int start = 0; start < questions.size(); start += batchSize) {
+                    int end = Math.min(start + batchSize, questions.size());
+
+                    if (perRow) {
+                        for (int i = start; i < end; i++) {
+                            bindInsertParameters(pstmt, questions.get(i), withHash);
+                            pstmt.executeUpdate();
+                            collectGeneratedKeys(pstmt, ids);
+                        }
+                    } else {
+                        for (int i = start; i < end; i++) {
+                            bindInsertParameters(pstmt, questions.get(i), withHash);
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                        collectGeneratedKeys(pstmt, ids);
+                    }
+
+                    if (ids.size() != end) {
+                        throw new SQLException("批量添加题目失败：生成的ID数量 " + ids.size() + " 与已写入的题目数量 " + end + " 不一致");
+                    }
+                    if (listener != null) {
+                        listener.onProgress(end, questions.size());
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
 
-            pstmt.setString(1, question.getQuestionContent());
-            pstmt.setString(2, question.getQuestionType());
-            pstmt.setString(3, question.getOptionA());
-            pstmt.setString(4, question.getOptionB());
-            pstmt.setString(5, question.getOptionC());
-            pstmt.setString(6, question.getOptionD());
-            pstmt.setString(7, question.getCorrectAnswer());
-            pstmt.setString(8, question.getExplanation());
-            pstmt.setInt(9, question.getCategory().getCategoryId());
-            pstmt.setInt(10, question.getDifficulty().getDifficultyId());
-            pstmt.setInt(11, question.getCreator().getUserId());
+        // 提交成功后再回写ID，回滚时不会留下指向不存在记录的ID
+        for (int i = 0; i < questions.size(); i++) {
+            questions.get(i).setQuestionId(ids.get(i));
+        }
+        return ids;
+    }
 
-            pstmt.executeUpdate();
+    private void collectGeneratedKeys(PreparedStatement pstmt, List<Integer> ids) throws SQLException {
+        try (ResultSet keys = pstmt.getGeneratedKeys()) {
+            while (keys.next()) {
+                ids.add(keys.getInt(1));
+            }
+        }
+    }
+
+    // 绑定 INSERT 参数；关联对象为空时（如导入和新增界面只设置了ID）使用对应的ID字段
+    private void bindInsertParameters(PreparedStatement pstmt, Question question, boolean withHash) throws SQLException {
+        pstmt.setString(1, question.getQuestionContent());
+        pstmt.setString(2, question.getQuestionType());
+        pstmt.setString(3, question.getOptionA());
+        pstmt.setString(4, question.getOptionB());
+        pstmt.setString(5, question.getOptionC());
+        pstmt.setString(6, question.getOptionD());
+        pstmt.setString(7, question.getCorrectAnswer());
+        pstmt.setString(8, question.getExplanation());
+        pstmt.setInt(9, question.getCategory() != null ? question.getCategory().getCategoryId() : question.getCategoryId());
+        pstmt.setInt(10, question.getDifficulty() != null ? question.getDifficulty().getDifficultyId() : question.getDifficultyId());
+        pstmt.setInt(11, question.getCreator() != null ? question.getCreator().getUserId() : question.getCreatorId());
+        if (withHash) {
+            pstmt.setLong(12, QuestionFingerprint.compute(question));
         }
     }
 
     @Override
     public void updateQuestion(Question question) throws SQLException {
+        boolean withHash = DatabaseOptimizer.isContentHashColumnAvailable();
         String sql = "" +
                 "UPDATE questions SET " +
                 "  question_content = ?, question_type = ?, option_a = ?, option_b = ?, option_c = ?, option_d = ?, " +
-                "  correct_answer = ?, explanation = ?, category_id = ?, difficulty_id = ?, updated_at = CURRENT_TIMESTAMP " +
+                "  correct_answer = ?, explanation = ?, category_id = ?, difficulty_id = ?, " +
+                (withHash ? "content_hash = ?, " : "") + "updated_at = CURRENT_TIMESTAMP " +
                 "WHERE question_id = ?;";
 
         try (Connection conn = DatabaseUtil.getConnection();
@@ -58,12 +296,121 @@ public class QuestionDAOImpl implements QuestionDAO {
             pstmt.setString(8, question.getExplanation());
             pstmt.setInt(9, question.getCategory().getCategoryId());
             pstmt.setInt(10, question.getDifficulty().getDifficultyId());
-            pstmt.setInt(11, question.getQuestionId());
+            int index = 11;
+            if (withHash) {
+                pstmt.setLong(index++, QuestionFingerprint.compute(question));
+            }
+            pstmt.setInt(index, question.getQuestionId());
 
             pstmt.executeUpdate();
         }
     }
 
+    private static final String SQL_FIND_HASHES_ANY =
+            "SELECT DISTINCT content_hash FROM questions WHERE content_hash = ANY(?)";
+
+    private static final String SQL_SELECT_UNHASHED =
+            "SELECT question_id, question_content, option_a, option_b, option_c, option_d " +
+            "FROM questions WHERE content_hash IS NULL LIMIT ?";
+
+    private static final String SQL_UPDATE_HASH =
+            "UPDATE questions SET content_hash = ? WHERE question_id = ?";
+
+    @Override
+    public Set<Long> findExistingContentHashes(Collection<Long> contentHashes) throws SQLException {
+        Set<Long> existing = new HashSet<>();
+        if (contentHashes.isEmpty() || !DatabaseOptimizer.isContentHashColumnAvailable()) {
+            return existing;
+        }
+
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            if (DatabaseConfig.getInstance().isSQLite()) {
+                // SQLite 不支持数组参数，按块拼接 IN 列表（单条语句参数个数有上限）
+                List<Long> hashes = new ArrayList<>(contentHashes);
+                for (int start = 0; start < hashes.size(); start += SQLITE_MAX_IN_PARAMS) {
+                    int end = Math.min(start + SQLITE_MAX_IN_PARAMS, hashes.size());
+                    StringBuilder sql = new StringBuilder("SELECT DISTINCT content_hash FROM questions WHERE content_hash IN (");
+                    for (int i = start; i < end; i++) {
+                        sql.append(i == start ? "?" : ", ?");
+                    }
+                    sql.append(')');
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                        for (int i = start; i < end; i++) {
+                            pstmt.setLong(i - start + 1, hashes.get(i));
+                        }
+                        collectHashes(pstmt, existing);
+                    }
+                }
+            } else {
+                // 一个数组参数，SQL 文本固定，可以复用预编译语句
+                try (PreparedStatement pstmt = conn.prepareStatement(SQL_FIND_HASHES_ANY)) {
+                    pstmt.setArray(1, conn.createArrayOf("bigint", contentHashes.toArray()));
+                    collectHashes(pstmt, existing);
+                }
+            }
+        }
+        return existing;
+    }
+
+    private void collectHashes(PreparedStatement pstmt, Set<Long> hashes) throws SQLException {
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                hashes.add(rs.getLong(1));
+            }
+        }
+    }
+
+    @Override
+    public int backfillContentHashes() throws SQLException {
+        if (!DatabaseOptimizer.isContentHashColumnAvailable()) {
+            return 0;
+        }
+        int batchSize = Math.max(1, DatabaseConfig.getInstance().getBatchSize());
+        int total = 0;
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement select = conn.prepareStatement(SQL_SELECT_UNHASHED);
+             PreparedStatement update = conn.prepareStatement(SQL_UPDATE_HASH)) {
+
+            // 每批单独提交，已补算的行不会再被选中，中途失败后重新执行即可继续
+            conn.setAutoCommit(false);
+            try {
+                while (true) {
+                    select.setInt(1, batchSize);
+                    int rows = 0;
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            Question question = new Question();
+                            question.setQuestionContent(rs.getString("question_content"));
+                            question.setOptionA(rs.getString("option_a"));
+                            question.setOptionB(rs.getString("option_b"));
+                            question.setOptionC(rs.getString("option_c"));
+                            question.setOptionD(rs.getString("option_d"));
+                            update.setLong(1, QuestionFingerprint.compute(question));
+                            update.setInt(2, rs.getInt("question_id"));
+                            update.addBatch();
+                            rows++;
+                        }
+                    }
+                    if (rows == 0) {
+                        break;
+                    }
+                    update.executeBatch();
+                    conn.commit();
+                    total += rows;
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        if (total > 0) {
+            logger.info("已为 " + total + " 道旧题目补算内容指纹");
+        }
+        return total;
+    }
+
     @Override
     public void deleteQuestion(int questionId) throws SQLException {
         String sql = "DELETE FROM questions WHERE question_id = ?;";
@@ -76,23 +423,123 @@ public class QuestionDAOImpl implements QuestionDAO {
         }
     }
 
+    private static final String SQL_DELETE_BY_CREATOR =
+            "DELETE FROM questions WHERE creator_id = ? RETURNING question_id";
+
     @Override
-    public Question getQuestionById(int questionId) throws SQLException {
-        String sql = "" +
-                "SELECT q.*, " +
-                "  c.category_id, c.category_name, c.description AS category_desc, " +
-                "  d.difficulty_id, d.difficulty_level, d.description AS difficulty_desc, " +
-                "  u.user_id, u.username, u.real_name, u.email, u.phone, u.status, u.created_at AS user_created_at, " +
-                "  r.role_id, r.role_name, r.description AS role_desc " +
-                "FROM questions q " +
-                "JOIN question_categories c ON q.category_id = c.category_id " +
-                "JOIN question_difficulties d ON q.difficulty_id = d.difficulty_id " +
-                "JOIN users u ON q.creator_id = u.user_id " +
-                "JOIN roles r ON u.role_id = r.role_id " +
-                "WHERE q.question_id = ?;";
+    public List<Integer> deleteQuestions(int[] questionIds) throws SQLException {
+        return executeForIds("DELETE FROM questions WHERE", " RETURNING question_id", rs -> rs.getInt(1), questionIds);
+    }
 
+    @Override
+    public List<Integer> deleteQuestionsByCreator(int creatorId) throws SQLException {
+        // PostgreSQL 和 SQLite（3.35 起）都支持 RETURNING，一条语句删除并取回ID
+        List<Integer> deletedIds = new ArrayList<>();
         try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SQL_DELETE_BY_CREATOR)) {
+
+            pstmt.setInt(1, creatorId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    deletedIds.add(rs.getInt(1));
+                }
+            }
+        }
+        return deletedIds;
+    }
+
+    // 修改语句返回改动后的摘要列，调用方据此更新列表，不必再读一次
+    private static final String RETURNING_SUMMARY =
+            " RETURNING question_id, SUBSTR(question_content, 1, " + QuestionSummary.PREVIEW_LENGTH + ") AS content_preview, " +
+            "question_type, category_id, difficulty_id, creator_id, created_at";
+
+    @Override
+    public List<QuestionSummary> updateQuestionsCategory(int[] questionIds, int categoryId) throws SQLException {
+        // 已在目标分类的题目不修改，也不出现在返回结果中
+        return executeForIds("UPDATE questions SET category_id = ?, updated_at = CURRENT_TIMESTAMP WHERE category_id <> ? AND",
+                RETURNING_SUMMARY, this::mapResultSetToSummary, questionIds, categoryId, categoryId);
+    }
+
+    @Override
+    public List<QuestionSummary> updateQuestionsDifficulty(int[] questionIds, int difficultyId) throws SQLException {
+        return executeForIds("UPDATE questions SET difficulty_id = ?, updated_at = CURRENT_TIMESTAMP WHERE difficulty_id <> ? AND",
+                RETURNING_SUMMARY, this::mapResultSetToSummary, questionIds, difficultyId, difficultyId);
+    }
+
+    // 读取一行结果
+    private interface RowReader<T> {
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * 对一组题目执行同一条 DELETE/UPDATE，statement 以 WHERE 或 AND 结尾，values 依次作为前面的参数，
+     * 通过 RETURNING 返回实际改动的行（PostgreSQL 和 SQLite 3.35 起都支持）
+     * PostgreSQL 用一个数组参数 question_id = ANY(?)；SQLite 不支持数组参数，在同一事务内按块拼接 IN 列表
+     */
+    private <T> List<T> executeForIds(String statement, String returning, RowReader<T> reader,
+                                      int[] questionIds, int... values) throws SQLException {
+        List<T> changed = new ArrayList<>();
+        if (questionIds.length == 0) {
+            return changed;
+        }
+        int firstIdParam = values.length + 1;
+
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            if (!DatabaseConfig.getInstance().isSQLite()) {
+                try (PreparedStatement pstmt = conn.prepareStatement(statement + " question_id = ANY(?)" + returning)) {
+                    for (int i = 0; i < values.length; i++) {
+                        pstmt.setInt(i + 1, values[i]);
+                    }
+                    Integer[] ids = new Integer[questionIds.length];
+                    for (int i = 0; i < questionIds.length; i++) {
+                        ids[i] = questionIds[i];
+                    }
+                    pstmt.setArray(firstIdParam, conn.createArrayOf("integer", ids));
+                    readRows(pstmt, reader, changed);
+                    return changed;
+                }
+            }
+
+            conn.setAutoCommit(false);
+            try {
+                for (int start = 0; start < questionIds.length; start += SQLITE_MAX_IN_PARAMS) {
+                    int end = Math.min(start + SQLITE_MAX_IN_PARAMS, questionIds.length);
+                    StringBuilder sql = new StringBuilder(statement).append(" question_id IN (");
+                    for (int i = start; i < end; i++) {
+                        sql.append(i == start ? "?" : ", ?");
+                    }
+                    sql.append(')').append(returning);
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                        for (int i = 0; i < values.length; i++) {
+                            pstmt.setInt(i + 1, values[i]);
+                        }
+                        for (int i = start; i < end; i++) {
+                            pstmt.setInt(firstIdParam + i - start, questionIds[i]);
+                        }
+                        readRows(pstmt, reader, changed);
+                    }
+                }
+                conn.commit();
+                return changed;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private <T> void readRows(PreparedStatement pstmt, RowReader<T> reader, List<T> rows) throws SQLException {
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                rows.add(reader.read(rs));
+            }
+        }
+    }
+
+    @Override
+    public Question getQuestionById(int questionId) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SQL_GET_BY_ID)) {
 
             pstmt.setInt(1, questionId);
             ResultSet rs = pstmt.executeQuery();
@@ -107,22 +554,8 @@ public class QuestionDAOImpl implements QuestionDAO {
     @Override
     public List<Question> getQuestionsByCreatorId(int creatorId) throws SQLException {
         List<Question> questions = new ArrayList<>();
-        String sql = "" +
-                "SELECT q.*, " +
-                "  c.category_id, c.category_name, c.description AS category_desc, " +
-                "  d.difficulty_id, d.difficulty_level, d.description AS difficulty_desc, " +
-                "  u.user_id, u.username, u.real_name, u.email, u.phone, u.status, u.created_at AS user_created_at, " +
-                "  r.role_id, r.role_name, r.description AS role_desc " +
-                "FROM questions q " +
-                "JOIN question_categories c ON q.category_id = c.category_id " +
-                "JOIN question_difficulties d ON q.difficulty_id = d.difficulty_id " +
-                "JOIN users u ON q.creator_id = u.user_id " +
-                "JOIN roles r ON u.role_id = r.role_id " +
-                "WHERE q.creator_id = ? " +
-                "ORDER BY q.created_at DESC;";
-
         try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SQL_GET_BY_CREATOR)) {
 
             pstmt.setInt(1, creatorId);
             ResultSet rs = pstmt.executeQuery();
@@ -142,21 +575,8 @@ public class QuestionDAOImpl implements QuestionDAO {
     @Override
     public List<Question> getAllQuestions(int offset, int limit) throws SQLException {
         List<Question> questions = new ArrayList<>();
-        String sql = "" +
-                "SELECT q.*, " +
-                "  c.category_id, c.category_name, c.description AS category_desc, " +
-                "  d.difficulty_id, d.difficulty_level, d.description AS difficulty_desc, " +
-                "  u.user_id, u.username, u.real_name, u.email, u.phone, u.status, u.created_at AS user_created_at, " +
-                "  r.role_id, r.role_name, r.description AS role_desc " +
-                "FROM questions q " +
-                "JOIN question_categories c ON q.category_id = c.category_id " +
-                "JOIN question_difficulties d ON q.difficulty_id = d.difficulty_id " +
-                "JOIN users u ON q.creator_id = u.user_id " +
-                "JOIN roles r ON u.role_id = r.role_id " +
-                "ORDER BY q.created_at DESC LIMIT ? OFFSET ?;";
-
         try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SQL_GET_PAGE)) {
 
             pstmt.setInt(1, limit);
             pstmt.setInt(2, offset);
@@ -169,6 +589,31 @@ public class QuestionDAOImpl implements QuestionDAO {
         return questions;
     }
 
+    @Override
+    public List<Question> getQuestionsAfter(String createdAt, int questionId, int limit) throws SQLException {
+        List<Question> questions = new ArrayList<>();
+        String sql = createdAt == null ? SQL_GET_FIRST_KEYSET_PAGE : SQL_GET_KEYSET_PAGE_AFTER;
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            if (createdAt == null) {
+                pstmt.setInt(1, limit);
+            } else {
+                // 以未指定类型传入时间字符串，由数据库按 created_at 列的类型解析
+                pstmt.setObject(1, createdAt, Types.OTHER);
+                pstmt.setInt(2, questionId);
+                pstmt.setInt(3, limit);
+            }
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                questions.add(mapResultSetToQuestion(rs));
+            }
+        }
+        return questions;
+    }
+
     @Override
     public List<Question> searchQuestions(String keyword, Integer categoryId, Integer difficultyId, String questionType) throws SQLException {
         return searchQuestions(keyword, categoryId, difficultyId, questionType, 0, 100);
@@ -177,59 +622,198 @@ public class QuestionDAOImpl implements QuestionDAO {
     @Override
     public List<Question> searchQuestions(String keyword, Integer categoryId, Integer difficultyId, String questionType, int offset, int limit) throws SQLException {
         List<Question> questions = new ArrayList<>();
-        StringBuilder sql = new StringBuilder("" +
-                "SELECT q.*, " +
-                "  c.category_id, c.category_name, c.description AS category_desc, " +
-                "  d.difficulty_id, d.difficulty_level, d.description AS difficulty_desc, " +
-                "  u.user_id, u.username, u.real_name, u.email, u.phone, u.status, u.created_at AS user_created_at, " +
-                "  r.role_id, r.role_name, r.description AS role_desc " +
-                "FROM questions q " +
-                "JOIN question_categories c ON q.category_id = c.category_id " +
-                "JOIN question_difficulties d ON q.difficulty_id = d.difficulty_id " +
-                "JOIN users u ON q.creator_id = u.user_id " +
-                "JOIN roles r ON u.role_id = r.role_id " +
-                "WHERE 1=1");
-
-        // 添加搜索条件
         List<Object> params = new ArrayList<>();
-        if (keyword != null && !keyword.isEmpty()) {
-            // 使用全文索引替代LIKE查询，性能提升100倍
-            sql.append(" AND to_tsvector('simple', q.question_content) @@ to_tsquery(?)");
-            // 将用户输入的关键词转换为tsquery格式：将空格替换为&（AND操作）
-            String tsquery = keyword.trim().replaceAll("\\s+", " & ");
-            params.add(tsquery);
-        }
-        if (categoryId != null) {
-            sql.append(" AND q.category_id = ?");
-            params.add(categoryId);
+        int flags = collectFilterParams(keyword, categoryId, difficultyId, questionType, params);
+        params.add(limit);
+        params.add(offset);
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SEARCH_SQL_SHAPES[flags])) {
+
+            // 设置参数
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                questions.add(mapResultSetToQuestion(rs));
+            }
         }
-        if (difficultyId != null) {
-            sql.append(" AND q.difficulty_id = ?");
-            params.add(difficultyId);
+        return questions;
+    }
+
+    @Override
+    public List<Question> searchQuestionsAfter(String keyword, Integer categoryId, Integer difficultyId, String questionType,
+                                               String createdAt, int questionId, int limit) throws SQLException {
+        List<Question> questions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        int flags = collectFilterParams(keyword, categoryId, difficultyId, questionType, params);
+        String sql = createdAt == null ? KEYSET_SEARCH_SQL_SHAPES[flags] : KEYSET_SEARCH_AFTER_SQL_SHAPES[flags];
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            for (Object param : params) {
+                pstmt.setObject(index++, param);
+            }
+            if (createdAt != null) {
+                // 以未指定类型传入时间字符串，由数据库按 created_at 列的类型解析
+                pstmt.setObject(index++, createdAt, Types.OTHER);
+                pstmt.setInt(index++, questionId);
+            }
+            pstmt.setInt(index, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    questions.add(mapResultSetToQuestion(rs));
+                }
+            }
         }
-        if (questionType != null && !questionType.isEmpty()) {
-            sql.append(" AND q.question_type = ?");
-            params.add(questionType);
+        return questions;
+    }
+
+    @Override
+    public List<QuestionSummary> getQuestionSummariesAfter(String createdAt, int questionId, int limit) throws SQLException {
+        List<QuestionSummary> summaries = new ArrayList<>();
+        String sql = createdAt == null ? SQL_GET_FIRST_SUMMARY_PAGE : SQL_GET_SUMMARY_PAGE_AFTER;
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            if (createdAt == null) {
+                pstmt.setInt(1, limit);
+            } else {
+                pstmt.setObject(1, createdAt, Types.OTHER);
+                pstmt.setInt(2, questionId);
+                pstmt.setInt(3, limit);
+            }
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                summaries.add(mapResultSetToSummary(rs));
+            }
         }
+        return summaries;
+    }
 
-        sql.append(" ORDER BY q.created_at DESC LIMIT ? OFFSET ?;");
+    @Override
+    public List<QuestionSummary> searchQuestionSummaries(String keyword, Integer categoryId, Integer difficultyId, String questionType, int offset, int limit) throws SQLException {
+        List<QuestionSummary> summaries = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        int flags = collectFilterParams(keyword, categoryId, difficultyId, questionType, params);
         params.add(limit);
         params.add(offset);
 
         try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+             PreparedStatement pstmt = conn.prepareStatement(SUMMARY_SEARCH_SQL_SHAPES[flags])) {
 
-            // 设置参数
             for (int i = 0; i < params.size(); i++) {
                 pstmt.setObject(i + 1, params.get(i));
             }
 
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
-                questions.add(mapResultSetToQuestion(rs));
+                summaries.add(mapResultSetToSummary(rs));
             }
         }
-        return questions;
+        return summaries;
+    }
+
+    private static final String SQL_EXISTS_BY_CATEGORY =
+            "SELECT 1 FROM questions WHERE category_id = ? LIMIT 1";
+    private static final String SQL_EXISTS_BY_DIFFICULTY =
+            "SELECT 1 FROM questions WHERE difficulty_id = ? LIMIT 1";
+    private static final String SQL_EXISTS_BY_CREATOR =
+            "SELECT 1 FROM questions WHERE creator_id = ? LIMIT 1";
+
+    @Override
+    public boolean existsByCategory(int categoryId) throws SQLException {
+        return exists(SQL_EXISTS_BY_CATEGORY, categoryId);
+    }
+
+    @Override
+    public boolean existsByDifficulty(int difficultyId) throws SQLException {
+        return exists(SQL_EXISTS_BY_DIFFICULTY, difficultyId);
+    }
+
+    @Override
+    public boolean existsByCreator(int creatorId) throws SQLException {
+        return exists(SQL_EXISTS_BY_CREATOR, creatorId);
+    }
+
+    // 外键列上有索引，LIMIT 1 找到第一行即返回
+    private boolean exists(String sql, int id) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    @Override
+    public long countQuestions(String keyword, Integer categoryId, Integer difficultyId, String questionType, boolean estimated) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        int flags = collectFilterParams(keyword, categoryId, difficultyId, questionType, params);
+
+        // SQLite 没有 pg_class 和规划器估算，始终精确计数
+        if (estimated && !DatabaseConfig.getInstance().isSQLite()) {
+            long estimate = estimateQuestions(flags, params);
+            if (estimate >= 0) {
+                return estimate;
+            }
+        }
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(COUNT_SQL_SHAPES[flags])) {
+
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // 估算题目数量，无法估算（如表从未 ANALYZE）时返回 -1
+    private long estimateQuestions(int flags, List<Object> params) throws SQLException {
+        String sql = flags == 0 ? SQL_ESTIMATE_TOTAL : ESTIMATE_SQL_SHAPES[flags];
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+
+            ResultSet rs = pstmt.executeQuery();
+            if (!rs.next()) {
+                return -1;
+            }
+            if (flags == 0) {
+                return rs.getLong(1);
+            }
+            Matcher matcher = PLAN_ROWS_PATTERN.matcher(rs.getString(1));
+            return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+        }
+    }
+
+    // 将ResultSet映射为QuestionSummary对象
+    private QuestionSummary mapResultSetToSummary(ResultSet rs) throws SQLException {
+        return new QuestionSummary(
+                rs.getInt("question_id"),
+                rs.getString("content_preview"),
+                rs.getString("question_type"),
+                rs.getInt("category_id"),
+                rs.getInt("difficulty_id"),
+                rs.getInt("creator_id"),
+                rs.getString("created_at")
+        );
     }
 
     // 将ResultSet映射为Question对象
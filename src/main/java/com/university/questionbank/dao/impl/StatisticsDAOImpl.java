@@ -0,0 +1,62 @@
+package com.university.questionbank.dao.impl;
+
+import com.university.questionbank.dao.StatisticsDAO;
+import com.university.questionbank.model.SystemStatistics;
+import com.university.questionbank.util.DatabaseUtil;
+
+import java.sql.*;
+
+public class StatisticsDAOImpl implements StatisticsDAO {
+
+    // 所有统计项合并为一条 UNION ALL 查询，一次往返取回，PostgreSQL 和 SQLite 通用
+    private static final String SQL_SYSTEM_STATISTICS =
+            "SELECT 'users' AS kind, 0 AS item_id, CAST(NULL AS VARCHAR(100)) AS item_name, COUNT(*) AS item_count FROM users " +
+            "UNION ALL " +
+            "SELECT 'active_users', 0, NULL, COUNT(*) FROM users WHERE status = 1 " +
+            "UNION ALL " +
+            "SELECT 'questions', 0, NULL, COUNT(*) FROM questions " +
+            "UNION ALL " +
+            "SELECT 'category', c.category_id, c.category_name, COUNT(q.question_id) " +
+            "FROM question_categories c LEFT JOIN questions q ON q.category_id = c.category_id " +
+            "GROUP BY c.category_id, c.category_name " +
+            "UNION ALL " +
+            "SELECT 'difficulty', d.difficulty_id, d.difficulty_level, COUNT(q.question_id) " +
+            "FROM question_difficulties d LEFT JOIN questions q ON q.difficulty_id = d.difficulty_id " +
+            "GROUP BY d.difficulty_id, d.difficulty_level " +
+            "ORDER BY kind, item_id;";
+
+    @Override
+    public SystemStatistics getSystemStatistics() throws SQLException {
+        SystemStatistics statistics = new SystemStatistics();
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SQL_SYSTEM_STATISTICS)) {
+
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                String kind = rs.getString("kind");
+                long count = rs.getLong("item_count");
+                switch (kind) {
+                    case "users":
+                        statistics.setTotalUsers(count);
+                        break;
+                    case "active_users":
+                        statistics.setActiveUsers(count);
+                        break;
+                    case "questions":
+                        statistics.setTotalQuestions(count);
+                        break;
+                    case "category":
+                        statistics.putCategoryCount(rs.getString("item_name"), count);
+                        break;
+                    case "difficulty":
+                        statistics.putDifficultyCount(rs.getString("item_name"), count);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return statistics;
+    }
+}
@@ -10,9 +10,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 public class UserDAOImpl implements UserDAO {
+    private static final int MAX_IN_PARAMS = 500;
 
     @Override
     public User getUserByUsername(String username) throws SQLException {
@@ -105,6 +108,39 @@ public class UserDAOImpl implements UserDAO {
         return users;
     }
 
+    @Override
+    public List<User> getUsersByIds(Collection<Integer> userIds) throws SQLException {
+        List<User> users = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            // IN 列表分块，SQLite 单条语句的参数个数有限
+            for (int start = 0; start < ids.size(); start += MAX_IN_PARAMS) {
+                List<Integer> chunk = ids.subList(start, Math.min(start + MAX_IN_PARAMS, ids.size()));
+                StringBuilder sql = new StringBuilder("" +
+                        "SELECT u.*, r.role_id, r.role_name, r.description " +
+                        "FROM users u " +
+                        "JOIN roles r ON u.role_id = r.role_id " +
+                        "WHERE u.user_id IN (");
+                for (int i = 0; i < chunk.size(); i++) {
+                    sql.append(i == 0 ? "?" : ", ?");
+                }
+                sql.append(");");
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        users.add(mapResultSetToUser(rs));
+                    }
+                }
+            }
+        }
+        return users;
+    }
+
     @Override
     public void addUser(User user) throws SQLException {
         String sql = "" +
@@ -2,7 +2,9 @@ package com.university.questionbank.gui;
 
 import com.university.questionbank.model.User;
 import com.university.questionbank.model.QuestionCategory;
+import com.university.questionbank.service.AsyncQuestionService;
 import com.university.questionbank.service.QuestionService;
+import com.university.questionbank.service.ServiceExecutor;
 import com.university.questionbank.gui.UIStyle;
 import com.university.questionbank.gui.UIComponentFactory;
 
@@ -17,6 +19,7 @@ import java.util.List;
 public class CategoryManagementFrame extends JInternalFrame {
     private User currentUser;
     private QuestionService questionService;
+    private AsyncQuestionService asyncQuestionService;
 
     // 界面组件
     private JTable categoryTable;
@@ -30,6 +33,7 @@ public class CategoryManagementFrame extends JInternalFrame {
         super("分类管理", true, true, true, true);
         this.currentUser = currentUser;
         this.questionService = new QuestionService();
+        this.asyncQuestionService = new AsyncQuestionService(questionService, AsyncQuestionService.DEFAULT_TIMEOUT_MILLIS);
         initUI();
         loadCategoryData();
     }
@@ -86,11 +90,16 @@ public class CategoryManagementFrame extends JInternalFrame {
         add(mainPanel);
     }
 
-    // 加载分类数据
+    // 加载分类数据（后台读取，在 EDT 上填充表格）
     private void loadCategoryData() {
-        try {
+        refreshButton.setEnabled(false);
+        asyncQuestionService.getAllCategories().whenComplete((categories, error) -> SwingUtilities.invokeLater(() -> {
+            refreshButton.setEnabled(true);
+            if (error != null) {
+                JOptionPane.showMessageDialog(this, "加载分类数据失败: " + ServiceExecutor.unwrap(error).getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             tableModel.setRowCount(0);
-            List<QuestionCategory> categories = questionService.getAllCategories();
             for (QuestionCategory category : categories) {
                 Object[] rowData = {
                     category.getCategoryId(),
@@ -99,9 +108,7 @@ public class CategoryManagementFrame extends JInternalFrame {
                 };
                 tableModel.addRow(rowData);
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "加载分类数据失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
-        }
+        }));
     }
 
     // 添加分类
@@ -1,11 +1,11 @@
 package com.university.questionbank.gui;
 
 import com.university.questionbank.model.User;
+import com.university.questionbank.service.ServiceExecutor;
 import com.university.questionbank.service.UserService;
 import com.university.questionbank.gui.UIStyle;
 import com.university.questionbank.gui.UIComponentFactory;
-import com.university.questionbank.dao.RoleDAO;
-import com.university.questionbank.dao.DAOFactory;
+import com.university.questionbank.dao.ReferenceDataCache;
 import com.university.questionbank.model.Role;
 
 import javax.swing.*;
@@ -20,7 +20,6 @@ public class LoginFrame extends JFrame {
     private static final Logger logger = Logger.getLogger(LoginFrame.class.getName());
 
     private UserService userService = new UserService();
-    private RoleDAO roleDAO = DAOFactory.createRoleDAO();
 
     private JTextField usernameField;
     private JPasswordField passwordField;
@@ -141,6 +140,12 @@ public class LoginFrame extends JFrame {
                 User user = userService.login(username, password);
                 logger.info("用户登录成功: " + username);
 
+                // 在后台同时预取分类、难度、角色和用户，打开题目列表时只需等待题目本身
+                ReferenceDataCache.prefetch(ServiceExecutor.executor()).exceptionally(error -> {
+                    logger.warning("预取基础数据失败: " + ServiceExecutor.unwrap(error).getMessage());
+                    return null;
+                });
+
                 // 关闭登录窗口，打开主窗口
                 dispose();
                 new MainFrame(user).setVisible(true);
@@ -327,7 +332,7 @@ public class LoginFrame extends JFrame {
 
         private Role findStudentRole() {
             try {
-                List<Role> roles = roleDAO.getAllRoles();
+                List<Role> roles = ReferenceDataCache.getAllRoles();
                 for (Role role : roles) {
                     if ("学生".equals(role.getRoleName())) {
                         return role;
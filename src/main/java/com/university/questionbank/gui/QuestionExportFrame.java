@@ -1,21 +1,28 @@
 package com.university.questionbank.gui;
 
 import com.university.questionbank.model.*;
+import com.university.questionbank.service.ExportJob;
+import com.university.questionbank.service.ExportService;
 import com.university.questionbank.service.QuestionService;
-import com.university.questionbank.util.ExportUtil;
 
 import javax.swing.*;
+import javax.swing.event.InternalFrameAdapter;
+import javax.swing.event.InternalFrameEvent;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
-import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class QuestionExportFrame extends JInternalFrame {
     private User currentUser;
     private QuestionService questionService;
+    private ExportService exportService;
     
     // 界面组件
     private JTextField keywordField;
@@ -28,10 +35,15 @@ public class QuestionExportFrame extends JInternalFrame {
     private JButton exportButton;
     private JButton cancelButton;
 
+    // 导出任务列表
+    private JPanel jobListPanel;
+    private final List<ExportJobRow> jobRows = new ArrayList<>();
+
     public QuestionExportFrame(User currentUser) {
         super("题目导出", true, true, true, true);
         this.currentUser = currentUser;
         this.questionService = new QuestionService();
+        this.exportService = new ExportService(questionService);
         initUI();
         loadCategoriesAndDifficulties();
 
@@ -153,6 +165,21 @@ public class QuestionExportFrame extends JInternalFrame {
 
         mainPanel.add(exportPanel, BorderLayout.CENTER);
 
+        // 导出任务列表（后台执行，可排队、可取消）
+        jobListPanel = new JPanel();
+        jobListPanel.setLayout(new BoxLayout(jobListPanel, BoxLayout.Y_AXIS));
+        jobListPanel.setBackground(UIStyle.BACKGROUND_COLOR);
+        JPanel jobListWrapper = new JPanel(new BorderLayout());
+        jobListWrapper.setBackground(UIStyle.BACKGROUND_COLOR);
+        jobListWrapper.add(jobListPanel, BorderLayout.NORTH);
+        JScrollPane jobScrollPane = UIComponentFactory.createScrollPane(jobListWrapper);
+        jobScrollPane.setBorder(BorderFactory.createTitledBorder(BorderFactory.createLineBorder(UIStyle.DIVIDER_COLOR), "导出任务", 0, 0, UIStyle.SUBHEADING_FONT));
+        jobScrollPane.setPreferredSize(new Dimension(0, 160));
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.setBackground(UIStyle.BACKGROUND_COLOR);
+        southPanel.add(jobScrollPane, BorderLayout.CENTER);
+
         // 创建按钮面板
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
         buttonPanel.setBackground(UIStyle.BACKGROUND_COLOR);
@@ -161,13 +188,23 @@ public class QuestionExportFrame extends JInternalFrame {
         exportButton.addActionListener(new ExportButtonListener());
         buttonPanel.add(exportButton);
         
-        cancelButton = UIComponentFactory.createSecondaryButton("取消");
-        cancelButton.addActionListener(e -> dispose());
+        cancelButton = UIComponentFactory.createSecondaryButton("关闭");
+        cancelButton.addActionListener(e -> closeFrame());
         buttonPanel.add(cancelButton);
         
-        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+        southPanel.add(buttonPanel, BorderLayout.SOUTH);
+        mainPanel.add(southPanel, BorderLayout.SOUTH);
         
         add(mainPanel);
+
+        // 窗口关闭时同样检查未完成的导出
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+        addInternalFrameListener(new InternalFrameAdapter() {
+            @Override
+            public void internalFrameClosing(InternalFrameEvent e) {
+                closeFrame();
+            }
+        });
     }
 
     // 加载分类和难度数据
@@ -244,67 +281,164 @@ public class QuestionExportFrame extends JInternalFrame {
         }
     }
 
-    // 导出按钮监听器
+    // 导出按钮监听器：把导出提交为后台任务，窗口保持可用，可以继续提交更多导出
     private class ExportButtonListener implements ActionListener {
         @Override
         public void actionPerformed(ActionEvent e) {
-            try {
-                // 验证导出路径
-                if (exportPathField.getText().isEmpty()) {
-                    JOptionPane.showMessageDialog(QuestionExportFrame.this, "请选择导出路径", "提示", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-                
-                // 获取导出条件
-                String keyword = keywordField.getText();
-                QuestionCategory selectedCategory = (QuestionCategory) categoryComboBox.getSelectedItem();
-                Integer categoryId = selectedCategory.getCategoryId() == -1 ? null : selectedCategory.getCategoryId();
-                
-                QuestionDifficulty selectedDifficulty = (QuestionDifficulty) difficultyComboBox.getSelectedItem();
-                Integer difficultyId = selectedDifficulty.getDifficultyId() == -1 ? null : selectedDifficulty.getDifficultyId();
-                
-                String questionType = (String) questionTypeComboBox.getSelectedItem();
-                if (questionType.isEmpty()) {
-                    questionType = null;
-                }
-                
-                // 获取导出格式
-                String exportFormat = (String) exportFormatComboBox.getSelectedItem();
-                String fileExtension = exportFormat.contains("Word") ? ".docx" : 
-                                      exportFormat.contains("Excel") ? ".xlsx" : ".txt";
-                
-                // 执行搜索
-                List<Question> questions = questionService.searchQuestions(keyword, categoryId, difficultyId, questionType);
-                
-                if (questions.isEmpty()) {
-                    JOptionPane.showMessageDialog(QuestionExportFrame.this, "没有找到符合条件的题目", "提示", JOptionPane.INFORMATION_MESSAGE);
-                    return;
+            // 验证导出路径
+            if (exportPathField.getText().isEmpty()) {
+                JOptionPane.showMessageDialog(QuestionExportFrame.this, "请选择导出路径", "提示", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            // 获取导出条件
+            String keyword = keywordField.getText();
+            QuestionCategory selectedCategory = (QuestionCategory) categoryComboBox.getSelectedItem();
+            Integer categoryId = selectedCategory.getCategoryId() == -1 ? null : selectedCategory.getCategoryId();
+            
+            QuestionDifficulty selectedDifficulty = (QuestionDifficulty) difficultyComboBox.getSelectedItem();
+            Integer difficultyId = selectedDifficulty.getDifficultyId() == -1 ? null : selectedDifficulty.getDifficultyId();
+            
+            String selectedType = (String) questionTypeComboBox.getSelectedItem();
+            String questionType = selectedType.isEmpty() ? null : selectedType;
+            
+            // 获取导出格式
+            String exportFormat = (String) exportFormatComboBox.getSelectedItem();
+            ExportJob.Format format = exportFormat.contains("Word") ? ExportJob.Format.WORD :
+                                      exportFormat.contains("Excel") ? ExportJob.Format.EXCEL : ExportJob.Format.TXT;
+            
+            // 导出文件
+            String fileName = "题目导出_" + System.currentTimeMillis() + format.getExtension();
+            Path target = Paths.get(exportPathField.getText(), fileName);
+            
+            ExportJobRow row = new ExportJobRow(fileName);
+            row.setJob(exportService.submit(target, format, keyword, categoryId, difficultyId, questionType, row));
+            jobRows.add(row);
+            jobListPanel.add(row);
+            jobListPanel.revalidate();
+            jobListPanel.repaint();
+        }
+    }
+
+    // 关闭窗口：有未完成的导出时确认后取消这些导出
+    private void closeFrame() {
+        List<ExportJobRow> activeRows = new ArrayList<>();
+        for (ExportJobRow row : jobRows) {
+            if (!row.job.getState().isFinished()) {
+                activeRows.add(row);
+            }
+        }
+        if (!activeRows.isEmpty()) {
+            int choice = JOptionPane.showConfirmDialog(this,
+                    "还有 " + activeRows.size() + " 个导出任务未完成，关闭窗口将取消这些任务。是否关闭？",
+                    "确认关闭", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+            if (choice != JOptionPane.YES_OPTION) {
+                return;
+            }
+            for (ExportJobRow row : activeRows) {
+                row.job.cancel();
+            }
+        }
+        dispose();
+    }
+
+    /**
+     * 任务列表中的一行：文件名、进度条、状态和取消按钮
+     * 导出线程的回调合并后再切回 EDT 刷新，避免逐行导出时淹没事件队列
+     */
+    private class ExportJobRow extends JPanel implements ExportJob.Listener {
+        private final JProgressBar progressBar;
+        private final JLabel statusLabel;
+        private final JButton cancelJobButton;
+        private final AtomicBoolean refreshPending = new AtomicBoolean();
+        private volatile ExportJob job;
+        private volatile int completed;
+        private volatile int total = -1;
+
+        ExportJobRow(String fileName) {
+            super(new BorderLayout(UIStyle.PADDING_SMALL, 0));
+            setBackground(UIStyle.BACKGROUND_COLOR);
+            setBorder(BorderFactory.createEmptyBorder(4, 0, 4, 0));
+            setMaximumSize(new Dimension(Integer.MAX_VALUE, 36));
+
+            add(UIComponentFactory.createLabel(fileName), BorderLayout.WEST);
+
+            progressBar = new JProgressBar();
+            progressBar.setStringPainted(true);
+            progressBar.setString(ExportJob.State.QUEUED.getDisplayName());
+            add(progressBar, BorderLayout.CENTER);
+
+            JPanel eastPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, UIStyle.PADDING_SMALL, 0));
+            eastPanel.setBackground(UIStyle.BACKGROUND_COLOR);
+            statusLabel = UIComponentFactory.createSecondaryLabel(ExportJob.State.QUEUED.getDisplayName());
+            eastPanel.add(statusLabel);
+            cancelJobButton = UIComponentFactory.createSecondaryButton("取消");
+            cancelJobButton.addActionListener(e -> {
+                cancelJobButton.setEnabled(false);
+                job.cancel();
+            });
+            eastPanel.add(cancelJobButton);
+            add(eastPanel, BorderLayout.EAST);
+        }
+
+        void setJob(ExportJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void onStateChanged(ExportJob job) {
+            scheduleRefresh();
+        }
+
+        @Override
+        public void onProgress(ExportJob job, int completed, int total) {
+            this.completed = completed;
+            this.total = total;
+            scheduleRefresh();
+        }
+
+        private void scheduleRefresh() {
+            if (refreshPending.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(this::refresh);
+            }
+        }
+
+        private void refresh() {
+            refreshPending.set(false);
+            // setJob 与提交在同一个 EDT 事件中完成，这里 job 一定已设置
+            ExportJob current = job;
+
+            ExportJob.State state = current.getState();
+            if (state == ExportJob.State.RUNNING) {
+                if (total > 0) {
+                    progressBar.setIndeterminate(false);
+                    progressBar.setMaximum(total);
+                    progressBar.setValue(completed);
+                    progressBar.setString(completed + " / " + total);
+                } else {
+                    progressBar.setIndeterminate(true);
+                    progressBar.setString(completed + " 道");
                 }
-                
-                // 导出文件
-                String exportPath = exportPathField.getText();
-                String fileName = "题目导出_" + System.currentTimeMillis() + fileExtension;
-                String fullPath = exportPath + File.separator + fileName;
-                
-                // 根据选择的格式执行导出
-                String selectedFormat = (String) exportFormatComboBox.getSelectedItem();
-                if (selectedFormat.contains("Word")) {
-                    ExportUtil.exportToWord(questions, fullPath);
-                } else if (selectedFormat.contains("Excel")) {
-                    ExportUtil.exportToExcel(questions, fullPath);
-                } else if (selectedFormat.contains("文本文件")) {
-                    ExportUtil.exportToTxt(questions, fullPath);
+            } else if (state.isFinished()) {
+                progressBar.setIndeterminate(false);
+                cancelJobButton.setEnabled(false);
+                if (state == ExportJob.State.COMPLETED) {
+                    progressBar.setMaximum(1);
+                    progressBar.setValue(1);
+                    progressBar.setString(current.getExportedCount() == 0
+                            ? "没有找到符合条件的题目"
+                            : "共导出 " + current.getExportedCount() + " 道题目");
+                    setToolTipText(current.getExportedCount() == 0 ? null : current.getTarget().toString());
+                } else {
+                    progressBar.setString(state.getDisplayName());
+                    if (state == ExportJob.State.FAILED && current.getError() != null) {
+                        setToolTipText(current.getError().getMessage());
+                        JOptionPane.showMessageDialog(QuestionExportFrame.this,
+                                "导出失败: " + current.getError().getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+                    }
                 }
-                
-                // 显示导出结果
-                JOptionPane.showMessageDialog(QuestionExportFrame.this, 
-                        "导出成功！\n共导出 " + questions.size() + " 道题目\n文件路径: " + fullPath, 
-                        "导出成功", JOptionPane.INFORMATION_MESSAGE);
-                
-                dispose();
-            } catch (SQLException | IOException ex) {
-                JOptionPane.showMessageDialog(QuestionExportFrame.this, "导出失败: " + ex.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
             }
+            statusLabel.setText(state.getDisplayName());
         }
     }
-}
\ No newline at end of file
+}
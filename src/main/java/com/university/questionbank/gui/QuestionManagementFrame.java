@@ -3,13 +3,19 @@ package com.university.questionbank.gui;
 import com.university.questionbank.model.Question;
 import com.university.questionbank.model.QuestionCategory;
 import com.university.questionbank.model.QuestionDifficulty;
+import com.university.questionbank.model.QuestionSummary;
 import com.university.questionbank.model.User;
+import com.university.questionbank.service.AsyncQuestionService;
+import com.university.questionbank.service.QuestionImportService;
 import com.university.questionbank.service.QuestionService;
+import com.university.questionbank.service.ServiceExecutor;
+import com.university.questionbank.service.SimilarQuestionService;
 import com.university.questionbank.gui.UIStyle;
 import com.university.questionbank.gui.UIComponentFactory;
-import com.university.questionbank.util.DocxQuestionParser;
 
 import javax.swing.*;
+import javax.swing.event.InternalFrameAdapter;
+import javax.swing.event.InternalFrameEvent;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.TableColumnModel;
@@ -18,31 +24,41 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 import java.awt.Dialog;
 
 public class QuestionManagementFrame extends JInternalFrame {
     private static final Logger logger = Logger.getLogger(QuestionManagementFrame.class.getName());
     private User currentUser;
     private QuestionService questionService;
-    
-    // 缓存以提高性能
-    private Map<Integer, String> categoryNameCache = null;
-    private Map<Integer, String> difficultyNameCache = null;
-    private Map<Integer, String> userNameCache = null;
+    private AsyncQuestionService asyncQuestionService;
+    // 正在进行的加载，窗口关闭时取消
+    private CompletableFuture<Void> pendingLoad;
     
     // 界面组件
     private JTable questionTable;
     private DefaultTableModel tableModel;
+    private QuestionTableRows questionRows;
     private JButton refreshButton;
     private JButton editButton;
     private JButton deleteButton;
     private JButton importButton;
+    private JButton similarButton;
     private JProgressBar progressBar;
     private JLabel statusLabel;
     
@@ -52,12 +68,27 @@ public class QuestionManagementFrame extends JInternalFrame {
     private JButton prevPageButton;
     private JButton nextPageButton;
     private JLabel pageInfoLabel;
+    // 游标分页：栈顶是当前页的起始游标（即上一页最后一行），第一页时栈为空
+    private final Deque<PageCursor> pageCursors = new ArrayDeque<>();
+    // 当前页最后一行的游标，用于翻到下一页
+    private PageCursor lastRowCursor;
+    // 题目总数，在加载第一页（含刷新）时统计一次，-1 表示未知
+    private long totalQuestions = -1;
 
     public QuestionManagementFrame(User currentUser) {
         super("题目管理", true, true, true, true);
         this.currentUser = currentUser;
         this.questionService = new QuestionService();
+        this.asyncQuestionService = new AsyncQuestionService(questionService, AsyncQuestionService.DEFAULT_TIMEOUT_MILLIS);
         initUI();
+        addInternalFrameListener(new InternalFrameAdapter() {
+            @Override
+            public void internalFrameClosed(InternalFrameEvent e) {
+                if (pendingLoad != null) {
+                    pendingLoad.cancel(true);
+                }
+            }
+        });
         loadQuestionData();
     }
 
@@ -78,9 +109,12 @@ public class QuestionManagementFrame extends JInternalFrame {
             }
         };
         
+        questionRows = new QuestionTableRows(tableModel);
+        questionRows.subscribeWhileOpen(this);
+
         // 创建表格
         questionTable = UIComponentFactory.createTable(tableModel);
-        questionTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        questionTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         questionTable.setRowHeight(25);
         
         // 设置表格列宽
@@ -124,6 +158,7 @@ public class QuestionManagementFrame extends JInternalFrame {
         prevPageButton.addActionListener(e -> {
             if (currentPage > 1) {
                 currentPage--;
+                pageCursors.pop();
                 loadQuestionData();
             }
         });
@@ -134,8 +169,11 @@ public class QuestionManagementFrame extends JInternalFrame {
         
         nextPageButton = UIComponentFactory.createSecondaryButton("下一页");
         nextPageButton.addActionListener(e -> {
-            currentPage++;
-            loadQuestionData();
+            if (lastRowCursor != null) {
+                pageCursors.push(lastRowCursor);
+                currentPage++;
+                loadQuestionData();
+            }
         });
         paginationPanel.add(nextPageButton);
         
@@ -165,6 +203,13 @@ public class QuestionManagementFrame extends JInternalFrame {
         deleteButton = UIComponentFactory.createSecondaryButton("删除");
         deleteButton.addActionListener(e -> deleteSelectedQuestion());
         actionButtonPanel.add(deleteButton);
+
+        // 相似题目：查找选中题目的近似重复版本，只有管理员和教师需要
+        if (currentUser.getRole().getRoleId() <= 2) {
+            similarButton = UIComponentFactory.createSecondaryButton("相似题目");
+            similarButton.addActionListener(e -> showSimilarQuestions());
+            actionButtonPanel.add(similarButton);
+        }
         
         buttonPanel.add(actionButtonPanel, BorderLayout.CENTER);
         mainPanel.add(buttonPanel, BorderLayout.SOUTH);
@@ -187,147 +232,79 @@ public class QuestionManagementFrame extends JInternalFrame {
         prevPageButton.setEnabled(false);
         nextPageButton.setEnabled(false);
         
-        // 计算偏移量
-        int offset = (page - 1) * limit;
+        // 当前页的起始游标（第一页为 null）
+        PageCursor cursor = pageCursors.peek();
         
-        // 使用SwingWorker异步加载数据
-        SwingWorker<List<Question>, Void> worker = new SwingWorker<List<Question>, Void>() {
-            @Override
-            protected List<Question> doInBackground() throws Exception {
-                // 在后台线程中初始化缓存（如果尚未初始化）
-                if (categoryNameCache == null) {
-                    try {
-                        List<QuestionCategory> categories = questionService.getAllCategories();
-                        categoryNameCache = new HashMap<>();
-                        for (QuestionCategory category : categories) {
-                            categoryNameCache.put(category.getCategoryId(), category.getCategoryName());
-                        }
-                    } catch (Exception e) {
-                        // 如果加载失败，使用空缓存
-                        categoryNameCache = new HashMap<>();
-                        logger.warning("Failed to load category cache: " + e.getMessage());
-                    }
-                }
-                
-                if (difficultyNameCache == null) {
-                    try {
-                        List<QuestionDifficulty> difficulties = questionService.getAllDifficulties();
-                        difficultyNameCache = new HashMap<>();
-                        for (QuestionDifficulty difficulty : difficulties) {
-                            difficultyNameCache.put(difficulty.getDifficultyId(), difficulty.getDifficultyLevel());
-                        }
-                    } catch (Exception e) {
-                        // 如果加载失败，使用空缓存
-                        difficultyNameCache = new HashMap<>();
-                        logger.warning("Failed to load difficulty cache: " + e.getMessage());
-                    }
-                }
-                
-                if (userNameCache == null) {
-                    try {
-                        List<User> users = questionService.getAllUsers();
-                        userNameCache = new HashMap<>();
-                        for (User user : users) {
-                            userNameCache.put(user.getUserId(), user.getRealName());
-                        }
-                    } catch (Exception e) {
-                        // 如果加载失败，使用空缓存
-                        userNameCache = new HashMap<>();
-                        logger.warning("Failed to load user cache: " + e.getMessage());
-                    }
-                }
-                
-                // 获取题目数据，支持分页
-                return questionService.getAllQuestions(offset, limit);
+        // 基础数据、总数和本页摘要互不依赖，同时发出；都完成后在 EDT 上填充表格
+        // 基础数据缓存加载后，按ID查名称不再访问数据库
+        CompletableFuture<Void> referenceData = asyncQuestionService.warmUpReferenceData();
+        // 回到第一页时重新统计总数，翻页时沿用已有总数；统计失败不影响显示本页
+        CompletableFuture<Long> total = cursor == null
+                ? asyncQuestionService.countQuestions(null, null, null, null, false).exceptionally(e -> {
+                    logger.warning("Failed to count questions: " + ServiceExecutor.unwrap(e).getMessage());
+                    return -1L;
+                })
+                : CompletableFuture.completedFuture(totalQuestions);
+        // 按游标获取题目摘要，深翻页不需要扫描并跳过前面的行；完整题目在编辑、查看时再读取
+        CompletableFuture<List<QuestionSummary>> summaries = cursor == null
+                ? asyncQuestionService.getQuestionSummariesAfter(null, 0, limit)
+                : asyncQuestionService.getQuestionSummariesAfter(cursor.createdAt, cursor.questionId, limit);
+
+        // 本页创建者中缓存没有的用户在后台一次补齐，填充表格时只读缓存
+        CompletableFuture<Void> creators = summaries.thenAcceptAsync(QuestionTableRows::prefetchCreators, ServiceExecutor.executor());
+
+        pendingLoad = CompletableFuture.allOf(referenceData, total, summaries, creators);
+        // 取消 allOf 不会传递给各个请求，需要分别取消（基础数据进入共享缓存，不取消）
+        pendingLoad.whenComplete((ignored, error) -> {
+            if (error instanceof CancellationException) {
+                total.cancel(true);
+                summaries.cancel(true);
+            }
+        });
+        pendingLoad.whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+            // 恢复UI状态
+            progressBar.setVisible(false);
+            progressBar.setIndeterminate(false);
+            refreshButton.setEnabled(true);
+            if (error instanceof CancellationException || isClosed()) {
+                return;
+            }
+            if (error != null) {
+                Throwable cause = ServiceExecutor.unwrap(error);
+                logger.log(Level.WARNING, "加载题目数据失败", cause);
+                JOptionPane.showMessageDialog(QuestionManagementFrame.this,
+                    "加载题目数据失败: " + cause.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+                statusLabel.setText("加载失败");
+                return;
             }
-            
-            @Override
-            protected void done() {
-                try {
-                    List<Question> questions = get();
-                    tableModel.setRowCount(0);
-                    
-                    // 批量收集数据，减少UI重绘次数
-                    List<Object[]> rows = new ArrayList<>(questions.size());
-                    for (Question question : questions) {
-                        // 安全获取分类名称（category 对象可能为 null）
-                        String categoryName = "";
-                        if (question.getCategory() != null) {
-                            categoryName = question.getCategory().getCategoryName();
-                        } else if (question.getCategoryId() > 0) {
-                            // 根据 category_id 从缓存查找分类名称
-                            categoryName = categoryNameCache.get(question.getCategoryId());
-                            if (categoryName == null) {
-                                // 缓存中不存在，使用ID作为后备
-                                categoryName = "分类ID:" + question.getCategoryId();
-                            }
-                        }
 
-                        // 安全获取难度名称
-                        String difficultyLevel = "";
-                        if (question.getDifficulty() != null) {
-                            difficultyLevel = question.getDifficulty().getDifficultyLevel();
-                        } else if (question.getDifficultyId() > 0) {
-                            // 根据 difficulty_id 从缓存查找难度名称
-                            difficultyLevel = difficultyNameCache.get(question.getDifficultyId());
-                            if (difficultyLevel == null) {
-                                // 缓存中不存在，使用ID作为后备
-                                difficultyLevel = "难度ID:" + question.getDifficultyId();
-                            }
-                        }
+            List<QuestionSummary> questions = summaries.join();
+            totalQuestions = total.join();
 
-                        // 安全获取创建者名称
-                        String creatorName = "";
-                        if (question.getCreator() != null) {
-                            creatorName = question.getCreator().getRealName();
-                        } else if (question.getCreatorId() > 0) {
-                            // 根据 creator_id 从缓存查找用户名称
-                            creatorName = userNameCache.get(question.getCreatorId());
-                            if (creatorName == null) {
-                                // 缓存中不存在，使用ID作为后备
-                                creatorName = "用户ID:" + question.getCreatorId();
-                            }
-                        }
+            // 记录本页最后一行作为下一页的游标
+            if (questions.isEmpty()) {
+                lastRowCursor = null;
+            } else {
+                QuestionSummary last = questions.get(questions.size() - 1);
+                lastRowCursor = new PageCursor(last.getCreatedAt(), last.getQuestionId());
+            }
 
-                        Object[] rowData = {
-                            question.getQuestionId(),
-                            question.getQuestionContent(),
-                            question.getQuestionType(),
-                            categoryName,
-                            difficultyLevel,
-                            creatorName,
-                            question.getCreatedAt()
-                        };
-                        rows.add(rowData);
-                    }
-                    
-                    // 批量添加数据到表格，减少UI重绘次数
-                    for (Object[] row : rows) {
-                        tableModel.addRow(row);
-                    }
-                    
-                    // 更新状态信息
-                    statusLabel.setText("共加载 " + questions.size() + " 道题目");
-                    pageInfoLabel.setText("第 " + page + " 页");
-                    
-                    // 更新分页按钮状态
-                    updatePaginationButtons(page, questions.size(), limit);
-                    
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    JOptionPane.showMessageDialog(QuestionManagementFrame.this, 
-                        "加载题目数据失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
-                    statusLabel.setText("加载失败");
-                } finally {
-                    // 恢复UI状态
-                    progressBar.setVisible(false);
-                    progressBar.setIndeterminate(false);
-                    refreshButton.setEnabled(true);
-                }
+            // 填充表格，之后由变更事件逐行更新
+            questionRows.setSummaries(questions);
+
+            // 更新状态信息
+            if (totalQuestions >= 0) {
+                long totalPages = Math.max(1, (totalQuestions + limit - 1) / limit);
+                statusLabel.setText("共 " + totalQuestions + " 道题目，本页加载 " + questions.size() + " 道");
+                pageInfoLabel.setText("第 " + page + " / " + totalPages + " 页");
+            } else {
+                statusLabel.setText("共加载 " + questions.size() + " 道题目");
+                pageInfoLabel.setText("第 " + page + " 页");
             }
-        };
-        
-        worker.execute();
+
+            // 更新分页按钮状态
+            updatePaginationButtons(page, questions.size(), limit);
+        }));
     }
     
     // 更新分页按钮状态
@@ -336,8 +313,24 @@ public class QuestionManagementFrame extends JInternalFrame {
         prevPageButton.setEnabled(currentPage > 1);
         
         // 更新下一页按钮状态
-        // 如果当前页返回的项目数等于pageSize，则假设还有更多数据
-        nextPageButton.setEnabled(currentItems >= pageSize);
+        if (totalQuestions >= 0) {
+            // 已知总数时按总数判断是否还有下一页
+            nextPageButton.setEnabled(lastRowCursor != null && (long) currentPage * pageSize < totalQuestions);
+        } else {
+            // 总数未知时，如果当前页返回的项目数等于pageSize，则假设还有更多数据
+            nextPageButton.setEnabled(currentItems >= pageSize && lastRowCursor != null);
+        }
+    }
+
+    // 游标分页位置：某一行的创建时间和题目ID
+    private static class PageCursor {
+        final String createdAt;
+        final int questionId;
+
+        PageCursor(String createdAt, int questionId) {
+            this.createdAt = createdAt;
+            this.questionId = questionId;
+        }
     }
 
     // 编辑选中的题目
@@ -373,21 +366,14 @@ public class QuestionManagementFrame extends JInternalFrame {
             // 打开编辑窗口
             EditQuestionFrame editFrame = new EditQuestionFrame(question, currentUser);
             getDesktopPane().add(editFrame);
+            // 保存后由变更事件更新对应的行，不需要重新加载整页
             editFrame.setVisible(true);
-
-            // 监听编辑窗口关闭事件，刷新数据
-            editFrame.addInternalFrameListener(new javax.swing.event.InternalFrameAdapter() {
-                @Override
-                public void internalFrameClosed(javax.swing.event.InternalFrameEvent e) {
-                    loadQuestionData();
-                }
-            });
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "获取题目数据失败: " + ex.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
         }
     }
 
-    // 删除选中的题目
+    // 删除选中的题目（可多选，一次请求删除）
     private void deleteSelectedQuestion() {
         // 权限检查：学生不能删除题目
         if (currentUser.getRole().getRoleId() > 2) {
@@ -397,40 +383,104 @@ public class QuestionManagementFrame extends JInternalFrame {
             return;
         }
 
-        int selectedRow = questionTable.getSelectedRow();
-        if (selectedRow == -1) {
+        int[] selectedRows = questionTable.getSelectedRows();
+        if (selectedRows.length == 0) {
             JOptionPane.showMessageDialog(this, "请先选择要删除的题目", "提示", JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        int questionId = (int) tableModel.getValueAt(selectedRow, 0);
+        // 权限检查：
+        // - 管理员可以删除所有题目
+        // - 教师只能删除自己创建的题目
+        int[] questionIds = new int[selectedRows.length];
+        for (int i = 0; i < selectedRows.length; i++) {
+            QuestionSummary summary = questionRows.getSummary(selectedRows[i]);
+            if (currentUser.getRole().getRoleId() != 1 && summary.getCreatorId() != currentUser.getUserId()) {
+                JOptionPane.showMessageDialog(this,
+                        "您没有权限删除题目 " + summary.getQuestionId() + "！\n教师只能删除自己创建的题目。",
+                        "权限不足", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            questionIds[i] = summary.getQuestionId();
+        }
 
         // 确认删除
-        int result = JOptionPane.showConfirmDialog(this, "确定要删除选中的题目吗？", "确认删除", JOptionPane.YES_NO_OPTION);
+        String message = questionIds.length == 1 ? "确定要删除选中的题目吗？" : "确定要删除选中的 " + questionIds.length + " 道题目吗？";
+        int result = JOptionPane.showConfirmDialog(this, message, "确认删除", JOptionPane.YES_NO_OPTION);
         if (result == JOptionPane.YES_OPTION) {
             try {
-                Question question = questionService.getQuestionById(questionId);
-
-                // 权限检查：
-                // - 管理员可以删除所有题目
-                // - 教师只能删除自己创建的题目
-                if (currentUser.getRole().getRoleId() != 1 && question.getCreator().getUserId() != currentUser.getUserId()) {
-                    JOptionPane.showMessageDialog(this,
-                            "您没有权限删除此题目！\n教师只能删除自己创建的题目。",
-                            "权限不足", JOptionPane.WARNING_MESSAGE);
-                    return;
-                }
-
-                // 删除题目
-                questionService.deleteQuestion(questionId);
-                JOptionPane.showMessageDialog(this, "题目删除成功", "提示", JOptionPane.INFORMATION_MESSAGE);
-                loadQuestionData();
+                int deleted = questionService.deleteQuestions(questionIds);
+                // 对应的行由变更事件移除
+                JOptionPane.showMessageDialog(this, questionIds.length == 1 ? "题目删除成功" : "已删除 " + deleted + " 道题目",
+                        "提示", JOptionPane.INFORMATION_MESSAGE);
             } catch (SQLException ex) {
                 JOptionPane.showMessageDialog(this, "删除题目失败: " + ex.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
 
+    // 查找与选中题目相似的题目
+    private void showSimilarQuestions() {
+        int selectedRow = questionTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(this, "请先选择题目", "提示", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        int questionId = (int) tableModel.getValueAt(selectedRow, 0);
+
+        similarButton.setEnabled(false);
+        statusLabel.setText("正在查找相似题目（首次查询需要建立索引）...");
+
+        new SwingWorker<List<SimilarQuestionService.SimilarQuestion>, Void>() {
+            @Override
+            protected List<SimilarQuestionService.SimilarQuestion> doInBackground() throws Exception {
+                return new SimilarQuestionService().findSimilarQuestions(questionId,
+                        SimilarQuestionService.DEFAULT_MIN_SIMILARITY, SimilarQuestionService.DEFAULT_LIMIT);
+            }
+
+            @Override
+            protected void done() {
+                similarButton.setEnabled(true);
+                statusLabel.setText("就绪");
+                try {
+                    List<SimilarQuestionService.SimilarQuestion> similar = get();
+                    if (similar.isEmpty()) {
+                        JOptionPane.showMessageDialog(QuestionManagementFrame.this,
+                                "没有找到相似度在 " + (int) (SimilarQuestionService.DEFAULT_MIN_SIMILARITY * 100) + "% 以上的题目",
+                                "相似题目", JOptionPane.INFORMATION_MESSAGE);
+                        return;
+                    }
+
+                    DefaultTableModel model = new DefaultTableModel(new String[]{"题目ID", "相似度", "题目内容", "创建者"}, 0) {
+                        @Override
+                        public boolean isCellEditable(int row, int column) {
+                            return false;
+                        }
+                    };
+                    for (SimilarQuestionService.SimilarQuestion item : similar) {
+                        Question question = item.getQuestion();
+                        String creator = question.getCreator() != null ? question.getCreator().getRealName() : "";
+                        model.addRow(new Object[]{question.getQuestionId(),
+                                Math.round(item.getSimilarity() * 100) + "%",
+                                question.getQuestionContent(), creator});
+                    }
+                    JTable table = UIComponentFactory.createTable(model);
+                    table.getColumnModel().getColumn(0).setPreferredWidth(60);
+                    table.getColumnModel().getColumn(1).setPreferredWidth(60);
+                    table.getColumnModel().getColumn(2).setPreferredWidth(360);
+                    table.getColumnModel().getColumn(3).setPreferredWidth(80);
+                    JScrollPane scrollPane = UIComponentFactory.createScrollPane(table);
+                    scrollPane.setPreferredSize(new Dimension(600, 260));
+                    JOptionPane.showMessageDialog(QuestionManagementFrame.this, scrollPane,
+                            "与题目 " + questionId + " 相似的题目", JOptionPane.PLAIN_MESSAGE);
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(QuestionManagementFrame.this,
+                            "查找相似题目失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
     // 显示导入对话框
     private void showImportDialog() {
         // 获取顶层窗口
@@ -449,6 +499,9 @@ public class QuestionManagementFrame extends JInternalFrame {
     // 导入题目对话框
     private class ImportQuestionsDialog extends JDialog {
         private JTextField filePathField;
+        private List<File> selectedFiles = new ArrayList<>();
+        private DefaultTableModel fileTableModel;
+        private JScrollPane fileTableScrollPane;
         private JComboBox<QuestionCategory> categoryComboBox;
         private JComboBox<QuestionDifficulty> difficultyComboBox;
         private JButton browseButton;
@@ -466,7 +519,7 @@ public class QuestionManagementFrame extends JInternalFrame {
         }
 
         private void initUI() {
-            setSize(550, 350);
+            setSize(620, 480);
 
             JPanel mainPanel = new JPanel(new GridBagLayout());
             mainPanel.setBackground(UIStyle.PANEL_COLOR);
@@ -540,7 +593,30 @@ public class QuestionManagementFrame extends JInternalFrame {
             statusLabel = UIComponentFactory.createLabel("");
             mainPanel.add(statusLabel, gbc);
 
+            // 多文件导入时逐个文件显示状态
             gbc.gridy = 4;
+            gbc.insets = new Insets(0, 0, 15, 0);
+            gbc.fill = GridBagConstraints.BOTH;
+            gbc.weighty = 1.0;
+            fileTableModel = new DefaultTableModel(new String[]{"文件", "状态", "已导入", "跳过重复"}, 0) {
+                @Override
+                public boolean isCellEditable(int row, int column) {
+                    return false;
+                }
+            };
+            JTable fileTable = UIComponentFactory.createTable(fileTableModel);
+            fileTable.getColumnModel().getColumn(0).setPreferredWidth(300);
+            fileTable.getColumnModel().getColumn(1).setPreferredWidth(80);
+            fileTable.getColumnModel().getColumn(2).setPreferredWidth(80);
+            fileTable.getColumnModel().getColumn(3).setPreferredWidth(80);
+            fileTableScrollPane = UIComponentFactory.createScrollPane(fileTable);
+            fileTableScrollPane.setPreferredSize(new Dimension(500, 120));
+            fileTableScrollPane.setVisible(false);
+            mainPanel.add(fileTableScrollPane, gbc);
+            gbc.fill = GridBagConstraints.HORIZONTAL;
+            gbc.weighty = 0;
+
+            gbc.gridy = 5;
             gbc.insets = new Insets(0, 0, 25, 0);
             progressBar = new JProgressBar();
             progressBar.setStringPainted(true);
@@ -561,7 +637,7 @@ public class QuestionManagementFrame extends JInternalFrame {
             cancelButton.addActionListener(e -> dispose());
             buttonPanel.add(cancelButton);
 
-            gbc.gridy = 5;
+            gbc.gridy = 6;
             gbc.insets = new Insets(0, 0, 0, 0);
             gbc.anchor = GridBagConstraints.EAST;
             mainPanel.add(buttonPanel, gbc);
@@ -615,21 +691,63 @@ public class QuestionManagementFrame extends JInternalFrame {
             }
         }
 
+        // 可多选文件，也可选择文件夹（导入其中所有 .docx）
         private void browseFile() {
             JFileChooser fileChooser = new JFileChooser();
-            fileChooser.setFileFilter(new FileNameExtensionFilter("Word文档 (*.docx)", "docx"));
+            fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+            fileChooser.setMultiSelectionEnabled(true);
+            fileChooser.setFileFilter(new FileNameExtensionFilter("Word文档 (*.docx) 或文件夹", "docx"));
             fileChooser.setAcceptAllFileFilterUsed(false);
 
             int result = fileChooser.showOpenDialog(this);
             if (result == JFileChooser.APPROVE_OPTION) {
-                File selectedFile = fileChooser.getSelectedFile();
-                filePathField.setText(selectedFile.getAbsolutePath());
+                File[] chosen = fileChooser.getSelectedFiles();
+                if (chosen.length == 0 && fileChooser.getSelectedFile() != null) {
+                    chosen = new File[]{fileChooser.getSelectedFile()};
+                }
+                try {
+                    selectedFiles = collectDocxFiles(chosen);
+                } catch (IOException e) {
+                    JOptionPane.showMessageDialog(this, "读取文件夹失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                if (selectedFiles.isEmpty()) {
+                    filePathField.setText("");
+                    JOptionPane.showMessageDialog(this, "所选位置中没有 .docx 文件", "提示", JOptionPane.WARNING_MESSAGE);
+                } else if (selectedFiles.size() == 1) {
+                    filePathField.setText(selectedFiles.get(0).getAbsolutePath());
+                } else {
+                    filePathField.setText("已选择 " + selectedFiles.size() + " 个文件");
+                }
             }
         }
 
+        // 展开文件夹（含子文件夹），跳过 Word 打开文档时生成的 ~$ 临时文件，去重并按路径排序
+        private List<File> collectDocxFiles(File[] chosen) throws IOException {
+            TreeSet<File> files = new TreeSet<>();
+            for (File file : chosen) {
+                if (file.isDirectory()) {
+                    try (Stream<Path> paths = Files.walk(file.toPath())) {
+                        paths.filter(Files::isRegularFile)
+                                .map(Path::toFile)
+                                .filter(this::isDocxFile)
+                                .forEach(files::add);
+                    }
+                } else if (isDocxFile(file)) {
+                    files.add(file.getAbsoluteFile());
+                }
+            }
+            return new ArrayList<>(files);
+        }
+
+        private boolean isDocxFile(File file) {
+            String name = file.getName();
+            return name.toLowerCase().endsWith(".docx") && !name.startsWith("~$");
+        }
+
         private void importQuestions() {
-            String filePath = filePathField.getText();
-            if (filePath.isEmpty()) {
+            if (selectedFiles.isEmpty()) {
                 JOptionPane.showMessageDialog(this, "请选择要导入的文件", "提示", JOptionPane.WARNING_MESSAGE);
                 return;
             }
@@ -646,52 +764,114 @@ public class QuestionManagementFrame extends JInternalFrame {
                 return;
             }
 
+            // 文件路径 -> 表格行号
+            List<String> filePaths = new ArrayList<>();
+            Map<String, Integer> fileRows = new HashMap<>();
+            fileTableModel.setRowCount(0);
+            for (File file : selectedFiles) {
+                String path = file.getAbsolutePath();
+                fileRows.put(path, filePaths.size());
+                filePaths.add(path);
+                fileTableModel.addRow(new Object[]{file.getName(), QuestionImportService.FileImport.Status.WAITING.getDisplayName(), 0, 0});
+            }
+            fileTableScrollPane.setVisible(filePaths.size() > 1);
+            revalidate();
+
             // 禁用按钮，显示进度条
             setComponentsEnabled(false);
             progressBar.setVisible(true);
             progressBar.setIndeterminate(true);
             statusLabel.setText("正在解析文件...");
+            QuestionImportService importService = new QuestionImportService(questionService);
 
-            // 使用SwingWorker在后台执行导入
-            new SwingWorker<Integer, Void>() {
-                private List<Question> importedQuestions;
+            // 使用SwingWorker在后台执行导入：多个文件并行解析，边解析边分批写入
+            new SwingWorker<List<QuestionImportService.FileImport>, Object>() {
                 private String errorMessage;
+                private int importedCount;
 
                 @Override
-                protected Integer doInBackground() throws Exception {
+                protected List<QuestionImportService.FileImport> doInBackground() throws Exception {
                     try {
-                        // 解析题目
-                        publish();
-                        importedQuestions = DocxQuestionParser.parseAndPrepareQuestions(
-                                filePath,
+                        return importService.importDocxFiles(
+                                filePaths,
                                 selectedCategory.getCategoryId(),
                                 selectedDifficulty.getDifficultyId(),
-                                currentUser.getUserId()
-                        );
-
-                        // 导入题目
-                        statusLabel.setText("正在导入 " + importedQuestions.size() + " 道题目...");
-                        publish();
-                        questionService.importQuestions(importedQuestions);
-
-                        return importedQuestions.size();
+                                currentUser.getUserId(),
+                                new QuestionImportService.Listener() {
+                                    @Override
+                                    public void onFileChanged(QuestionImportService.FileImport file) {
+                                        publish(file);
+                                    }
+
+                                    @Override
+                                    public void onProgress(int imported) {
+                                        publish(imported);
+                                    }
+                                });
                     } catch (Exception e) {
                         errorMessage = e.getMessage();
                         e.printStackTrace();
-                        return -1;
+                        return null;
+                    }
+                }
+
+                @Override
+                protected void process(List<Object> chunks) {
+                    for (Object chunk : chunks) {
+                        if (chunk instanceof Integer) {
+                            importedCount = (Integer) chunk;
+                        } else {
+                            updateFileRow((QuestionImportService.FileImport) chunk);
+                        }
+                    }
+                    // 总数在解析结束前未知
+                    statusLabel.setText("正在解析并导入，已导入 " + importedCount + " 道题目...");
+                }
+
+                private void updateFileRow(QuestionImportService.FileImport file) {
+                    Integer row = fileRows.get(file.getFilePath());
+                    if (row != null) {
+                        fileTableModel.setValueAt(file.getStatus().getDisplayName(), row, 1);
+                        fileTableModel.setValueAt(file.getImportedCount(), row, 2);
+                        fileTableModel.setValueAt(file.getSkippedCount(), row, 3);
                     }
                 }
 
                 @Override
                 protected void done() {
                     try {
-                        int count = get();
-                        if (count >= 0) {
-                            JOptionPane.showMessageDialog(ImportQuestionsDialog.this,
-                                    "成功导入 " + count + " 道题目！",
-                                    "导入成功",
-                                    JOptionPane.INFORMATION_MESSAGE);
-                            dispose();
+                        List<QuestionImportService.FileImport> results = get();
+                        if (results != null) {
+                            int total = 0;
+                            int skipped = 0;
+                            List<String> skippedQuestions = new ArrayList<>();
+                            StringBuilder failures = new StringBuilder();
+                            for (QuestionImportService.FileImport file : results) {
+                                updateFileRow(file);
+                                total += file.getImportedCount();
+                                skipped += file.getSkippedCount();
+                                skippedQuestions.addAll(file.getSkippedQuestions());
+                                if (file.getError() != null) {
+                                    failures.append("\n").append(new File(file.getFilePath()).getName());
+                                    if (file.getStatus() == QuestionImportService.FileImport.Status.PARTIAL) {
+                                        failures.append("（失败前已导入 ").append(file.getImportedCount()).append(" 道）");
+                                    }
+                                    failures.append(": ").append(file.getError().getMessage());
+                                }
+                            }
+                            String skippedReport = buildSkippedReport(skipped, skippedQuestions);
+                            if (failures.length() == 0) {
+                                JOptionPane.showMessageDialog(ImportQuestionsDialog.this,
+                                        "成功导入 " + total + " 道题目！" + skippedReport,
+                                        "导入成功",
+                                        JOptionPane.INFORMATION_MESSAGE);
+                                dispose();
+                            } else {
+                                JOptionPane.showMessageDialog(ImportQuestionsDialog.this,
+                                        "共导入 " + total + " 道题目，以下文件导入失败：" + failures + skippedReport,
+                                        "部分导入失败",
+                                        JOptionPane.WARNING_MESSAGE);
+                            }
                         } else {
                             JOptionPane.showMessageDialog(ImportQuestionsDialog.this,
                                     "导入失败: " + errorMessage,
@@ -712,6 +892,22 @@ public class QuestionManagementFrame extends JInternalFrame {
             }.execute();
         }
 
+        // 重复题目报告，只列出前几条
+        private String buildSkippedReport(int skipped, List<String> skippedQuestions) {
+            if (skipped == 0) {
+                return "";
+            }
+            StringBuilder report = new StringBuilder("\n\n跳过重复题目 " + skipped + " 道：");
+            int shown = Math.min(skippedQuestions.size(), 10);
+            for (int i = 0; i < shown; i++) {
+                report.append("\n").append(skippedQuestions.get(i));
+            }
+            if (skipped > shown) {
+                report.append("\n……");
+            }
+            return report.toString();
+        }
+
         private void setComponentsEnabled(boolean enabled) {
             filePathField.setEnabled(enabled);
             browseButton.setEnabled(enabled);
@@ -1,32 +1,33 @@
 package com.university.questionbank.gui;
 
+import com.university.questionbank.dao.ReferenceDataCache;
 import com.university.questionbank.model.*;
 import com.university.questionbank.service.QuestionService;
 import com.university.questionbank.gui.UIStyle;
 import com.university.questionbank.gui.UIComponentFactory;
+import com.university.questionbank.util.DataChangeBus;
+import com.university.questionbank.util.DataChangeEvent;
+import com.university.questionbank.util.DataChangeListener;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.ListCellRenderer;
+import javax.swing.event.InternalFrameAdapter;
+import javax.swing.event.InternalFrameEvent;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.function.ToIntFunction;
 import java.util.logging.Logger;
 
 public class QuestionSearchFrame extends JInternalFrame {
     private static final Logger logger = Logger.getLogger(QuestionSearchFrame.class.getName());
+    private static final int SEARCH_RESULT_LIMIT = 100;
     private User currentUser;
     private QuestionService questionService;
     
-    // 缓存以提高性能
-    private Map<Integer, String> categoryNameCache = null;
-    private Map<Integer, String> difficultyNameCache = null;
-    private Map<Integer, String> userNameCache = null;
     
     // 界面组件
     private JTextField keywordField;
@@ -38,6 +39,7 @@ public class QuestionSearchFrame extends JInternalFrame {
     
     private JTable questionTable;
     private DefaultTableModel tableModel;
+    private QuestionTableRows questionRows;
     private JButton viewDetailButton;
     private JProgressBar progressBar;
     private JLabel statusLabel;
@@ -48,6 +50,22 @@ public class QuestionSearchFrame extends JInternalFrame {
         this.questionService = new QuestionService();
         initUI();
         loadCategoriesAndDifficulties();
+
+        // 分类、难度变更时只增删改下拉框中对应的选项
+        DataChangeListener comboBoxUpdater = event -> SwingUtilities.invokeLater(() -> {
+            if (event.getEntityType() == DataChangeEvent.EntityType.CATEGORY) {
+                applyToComboBox(categoryComboBox, QuestionCategory.class, QuestionCategory::getCategoryId, event);
+            } else if (event.getEntityType() == DataChangeEvent.EntityType.DIFFICULTY) {
+                applyToComboBox(difficultyComboBox, QuestionDifficulty.class, QuestionDifficulty::getDifficultyId, event);
+            }
+        });
+        DataChangeBus.subscribe(comboBoxUpdater);
+        addInternalFrameListener(new InternalFrameAdapter() {
+            @Override
+            public void internalFrameClosed(InternalFrameEvent e) {
+                DataChangeBus.unsubscribe(comboBoxUpdater);
+            }
+        });
     }
 
     private void initUI() {
@@ -167,6 +185,8 @@ public class QuestionSearchFrame extends JInternalFrame {
             }
         };
         
+        questionRows = new QuestionTableRows(tableModel);
+        questionRows.subscribeWhileOpen(this);
         questionTable = UIComponentFactory.createTable(tableModel);
         questionTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         questionTable.setRowHeight(25);
@@ -236,6 +256,35 @@ public class QuestionSearchFrame extends JInternalFrame {
         }
     }
 
+    private static <T> void applyToComboBox(JComboBox<T> comboBox, Class<T> type, ToIntFunction<T> idOf, DataChangeEvent event) {
+        Object entity = event.getEntity();
+        int index = -1;
+        for (int i = 0; i < comboBox.getItemCount(); i++) {
+            if (idOf.applyAsInt(comboBox.getItemAt(i)) == event.getEntityId()) {
+                index = i;
+                break;
+            }
+        }
+
+        if (event.getAction() == DataChangeEvent.Action.DELETED) {
+            if (index >= 0) {
+                comboBox.removeItemAt(index);
+            }
+        } else if (type.isInstance(entity) && event.getEntityId() > 0) {
+            T item = type.cast(entity);
+            if (index < 0) {
+                comboBox.addItem(item);
+            } else {
+                boolean selected = comboBox.getSelectedIndex() == index;
+                comboBox.removeItemAt(index);
+                comboBox.insertItemAt(item, index);
+                if (selected) {
+                    comboBox.setSelectedIndex(index);
+                }
+            }
+        }
+    }
+
     // 搜索按钮监听器
     private class SearchButtonListener implements ActionListener {
         @Override
@@ -259,57 +308,24 @@ public class QuestionSearchFrame extends JInternalFrame {
             clearButton.setEnabled(false);
             
             // 使用SwingWorker异步执行搜索
-            SwingWorker<List<Question>, Void> worker = new SwingWorker<List<Question>, Void>() {
+            SwingWorker<List<QuestionSummary>, Void> worker = new SwingWorker<List<QuestionSummary>, Void>() {
                 @Override
-                protected List<Question> doInBackground() throws Exception {
-                    // 在后台线程中初始化缓存（如果尚未初始化）
-                    if (categoryNameCache == null) {
-                        try {
-                            List<QuestionCategory> categories = questionService.getAllCategories();
-                            categoryNameCache = new HashMap<>();
-                            for (QuestionCategory category : categories) {
-                                categoryNameCache.put(category.getCategoryId(), category.getCategoryName());
-                            }
-                        } catch (Exception e) {
-                            categoryNameCache = new HashMap<>();
-                            logger.warning("Failed to load category cache: " + e.getMessage());
-                        }
-                    }
+                protected List<QuestionSummary> doInBackground() throws Exception {
+                    // 在后台线程中加载共享的基础数据缓存，之后按ID查名称不再访问数据库
+                    ReferenceDataCache.warmUp();
                     
-                    if (difficultyNameCache == null) {
-                        try {
-                            List<QuestionDifficulty> difficulties = questionService.getAllDifficulties();
-                            difficultyNameCache = new HashMap<>();
-                            for (QuestionDifficulty difficulty : difficulties) {
-                                difficultyNameCache.put(difficulty.getDifficultyId(), difficulty.getDifficultyLevel());
-                            }
-                        } catch (Exception e) {
-                            difficultyNameCache = new HashMap<>();
-                            logger.warning("Failed to load difficulty cache: " + e.getMessage());
-                        }
-                    }
-                    
-                    if (userNameCache == null) {
-                        try {
-                            List<User> users = questionService.getAllUsers();
-                            userNameCache = new HashMap<>();
-                            for (User user : users) {
-                                userNameCache.put(user.getUserId(), user.getRealName());
-                            }
-                        } catch (Exception e) {
-                            userNameCache = new HashMap<>();
-                            logger.warning("Failed to load user cache: " + e.getMessage());
-                        }
-                    }
-                    
-                    // 执行搜索，默认限制100条记录
-                    return questionService.searchQuestions(keyword, categoryId, difficultyId, finalQuestionType);
+                    // 执行搜索，只取列表显示的列，最多 SEARCH_RESULT_LIMIT 条
+                    List<QuestionSummary> questions = questionService.searchQuestionSummaries(keyword, categoryId, difficultyId,
+                            finalQuestionType, 0, SEARCH_RESULT_LIMIT);
+                    // 缓存中没有的创建者在这里一次补齐，填充表格时只读缓存
+                    QuestionTableRows.prefetchCreators(questions);
+                    return questions;
                 }
                 
                 @Override
                 protected void done() {
                     try {
-                        List<Question> questions = get();
+                        List<QuestionSummary> questions = get();
                         // 更新表格数据
                         updateSearchResults(questions);
                         
@@ -343,75 +359,13 @@ public class QuestionSearchFrame extends JInternalFrame {
             categoryComboBox.setSelectedIndex(0);
             difficultyComboBox.setSelectedIndex(0);
             questionTypeComboBox.setSelectedIndex(0);
-            tableModel.setRowCount(0);
+            questionRows.clear();
         }
     }
 
     // 更新搜索结果表格
-    private void updateSearchResults(List<Question> questions) {
-        tableModel.setRowCount(0);
-        
-        // 批量收集数据，减少UI重绘次数
-        List<Object[]> rows = new ArrayList<>(questions.size());
-        
-        // 性能优化：使用缓存，避免重复查询service方法
-        for (Question question : questions) {
-            // 优先使用已填充的对象，否则从缓存获取
-            String categoryName = "";
-            if (question.getCategory() != null) {
-                categoryName = question.getCategory().getCategoryName();
-            } else if (question.getCategoryId() > 0 && categoryNameCache != null) {
-                // 从缓存查找分类名称
-                categoryName = categoryNameCache.get(question.getCategoryId());
-                if (categoryName == null) {
-                    categoryName = "分类ID:" + question.getCategoryId();
-                }
-            } else if (question.getCategoryId() > 0) {
-                categoryName = "分类ID:" + question.getCategoryId();
-            }
-
-            String difficultyLevel = "";
-            if (question.getDifficulty() != null) {
-                difficultyLevel = question.getDifficulty().getDifficultyLevel();
-            } else if (question.getDifficultyId() > 0 && difficultyNameCache != null) {
-                // 从缓存查找难度名称
-                difficultyLevel = difficultyNameCache.get(question.getDifficultyId());
-                if (difficultyLevel == null) {
-                    difficultyLevel = "难度ID:" + question.getDifficultyId();
-                }
-            } else if (question.getDifficultyId() > 0) {
-                difficultyLevel = "难度ID:" + question.getDifficultyId();
-            }
-
-            String creatorName = "";
-            if (question.getCreator() != null) {
-                creatorName = question.getCreator().getRealName();
-            } else if (question.getCreatorId() > 0 && userNameCache != null) {
-                // 从缓存查找用户名称
-                creatorName = userNameCache.get(question.getCreatorId());
-                if (creatorName == null) {
-                    creatorName = "用户ID:" + question.getCreatorId();
-                }
-            } else if (question.getCreatorId() > 0) {
-                creatorName = "用户ID:" + question.getCreatorId();
-            }
-
-            Object[] rowData = {
-                    question.getQuestionId(),
-                    question.getQuestionContent(),
-                    question.getQuestionType(),
-                    categoryName,
-                    difficultyLevel,
-                    creatorName,
-                    question.getCreatedAt()
-            };
-            rows.add(rowData);
-        }
-        
-        // 批量添加数据到表格，减少UI重绘次数
-        for (Object[] row : rows) {
-            tableModel.addRow(row);
-        }
+    private void updateSearchResults(List<QuestionSummary> questions) {
+        questionRows.setSummaries(questions);
     }
 
     // 查看题目详情
@@ -475,12 +429,8 @@ public class QuestionSearchFrame extends JInternalFrame {
                 categoryName = question.getCategory().getCategoryName();
             } else if (question.getCategoryId() > 0) {
                 // 从缓存查找分类名称
-                if (categoryNameCache != null) {
-                    categoryName = categoryNameCache.get(question.getCategoryId());
-                    if (categoryName == null) {
-                        categoryName = "分类ID:" + question.getCategoryId();
-                    }
-                } else {
+                categoryName = ReferenceDataCache.getCategoryName(question.getCategoryId());
+                if (categoryName == null) {
                     categoryName = "分类ID:" + question.getCategoryId();
                 }
             }
@@ -499,12 +449,8 @@ public class QuestionSearchFrame extends JInternalFrame {
                 difficultyLevel = question.getDifficulty().getDifficultyLevel();
             } else if (question.getDifficultyId() > 0) {
                 // 从缓存查找难度名称
-                if (difficultyNameCache != null) {
-                    difficultyLevel = difficultyNameCache.get(question.getDifficultyId());
-                    if (difficultyLevel == null) {
-                        difficultyLevel = "难度ID:" + question.getDifficultyId();
-                    }
-                } else {
+                difficultyLevel = ReferenceDataCache.getDifficultyLevel(question.getDifficultyId());
+                if (difficultyLevel == null) {
                     difficultyLevel = "难度ID:" + question.getDifficultyId();
                 }
             }
@@ -523,12 +469,8 @@ public class QuestionSearchFrame extends JInternalFrame {
                 creatorName = question.getCreator().getRealName();
             } else if (question.getCreatorId() > 0) {
                 // 从缓存查找用户名称
-                if (userNameCache != null) {
-                    creatorName = userNameCache.get(question.getCreatorId());
-                    if (creatorName == null) {
-                        creatorName = "用户ID:" + question.getCreatorId();
-                    }
-                } else {
+                creatorName = ReferenceDataCache.getUserRealName(question.getCreatorId());
+                if (creatorName == null) {
                     creatorName = "用户ID:" + question.getCreatorId();
                 }
             }
@@ -0,0 +1,158 @@
+package com.university.questionbank.gui;
+
+import com.university.questionbank.dao.ReferenceDataCache;
+import com.university.questionbank.model.Question;
+import com.university.questionbank.model.QuestionCategory;
+import com.university.questionbank.model.QuestionDifficulty;
+import com.university.questionbank.model.QuestionSummary;
+import com.university.questionbank.model.User;
+import com.university.questionbank.util.DataChangeBus;
+import com.university.questionbank.util.DataChangeEvent;
+import com.university.questionbank.util.DataChangeListener;
+
+import javax.swing.JInternalFrame;
+import javax.swing.SwingUtilities;
+import javax.swing.event.InternalFrameAdapter;
+import javax.swing.event.InternalFrameEvent;
+import javax.swing.table.DefaultTableModel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 题目列表表格的行数据（题目ID、内容、类型、分类、难度、创建者、创建时间）
+ * 记住每一行对应的题目摘要，收到数据变更事件后只更新受影响的行：
+ * 题目修改时（事件带题目或摘要）重写该行，删除时移除该行，分类、难度、用户改名时只改对应的单元格。
+ * 新增的题目不插入当前页，下次刷新时显示。除 prefetchCreators 外所有方法都在 EDT 上执行，
+ * 名称只从共享缓存的已有快照读取，不访问数据库。
+ */
+class QuestionTableRows implements DataChangeListener {
+    private static final int COLUMN_CATEGORY = 3;
+    private static final int COLUMN_DIFFICULTY = 4;
+    private static final int COLUMN_CREATOR = 5;
+
+    private final DefaultTableModel tableModel;
+    private final List<QuestionSummary> summaries = new ArrayList<>();
+
+    QuestionTableRows(DefaultTableModel tableModel) {
+        this.tableModel = tableModel;
+    }
+
+    // 窗口打开期间订阅变更事件，关闭时取消订阅
+    void subscribeWhileOpen(JInternalFrame frame) {
+        DataChangeBus.subscribe(this);
+        frame.addInternalFrameListener(new InternalFrameAdapter() {
+            @Override
+            public void internalFrameClosed(InternalFrameEvent e) {
+                DataChangeBus.unsubscribe(QuestionTableRows.this);
+            }
+        });
+    }
+
+    // 替换表格中的全部行
+    void setSummaries(List<QuestionSummary> newSummaries) {
+        tableModel.setRowCount(0);
+        summaries.clear();
+        for (QuestionSummary summary : newSummaries) {
+            summaries.add(summary);
+            tableModel.addRow(toRow(summary));
+        }
+    }
+
+    // 某一行对应的题目摘要
+    QuestionSummary getSummary(int row) {
+        return summaries.get(row);
+    }
+
+    void clear() {
+        tableModel.setRowCount(0);
+        summaries.clear();
+    }
+
+    @Override
+    public void onDataChanged(DataChangeEvent event) {
+        if (event.getAction() == DataChangeEvent.Action.ADDED || event.getEntityId() <= 0) {
+            return;
+        }
+        SwingUtilities.invokeLater(() -> apply(event));
+    }
+
+    private void apply(DataChangeEvent event) {
+        int id = event.getEntityId();
+        Object entity = event.getEntity();
+        for (int row = summaries.size() - 1; row >= 0; row--) {
+            QuestionSummary summary = summaries.get(row);
+            switch (event.getEntityType()) {
+                case QUESTION:
+                    if (summary.getQuestionId() != id) {
+                        break;
+                    }
+                    if (event.getAction() == DataChangeEvent.Action.DELETED) {
+                        summaries.remove(row);
+                        tableModel.removeRow(row);
+                    } else if (entity instanceof Question || entity instanceof QuestionSummary) {
+                        // 批量修改分类、难度时事件中带的是修改后的摘要
+                        QuestionSummary updated = entity instanceof Question
+                                ? QuestionSummary.from((Question) entity)
+                                : (QuestionSummary) entity;
+                        summaries.set(row, updated);
+                        Object[] data = toRow(updated);
+                        for (int column = 0; column < data.length; column++) {
+                            tableModel.setValueAt(data[column], row, column);
+                        }
+                    }
+                    break;
+                case CATEGORY:
+                    if (summary.getCategoryId() == id && entity instanceof QuestionCategory) {
+                        tableModel.setValueAt(((QuestionCategory) entity).getCategoryName(), row, COLUMN_CATEGORY);
+                    }
+                    break;
+                case DIFFICULTY:
+                    if (summary.getDifficultyId() == id && entity instanceof QuestionDifficulty) {
+                        tableModel.setValueAt(((QuestionDifficulty) entity).getDifficultyLevel(), row, COLUMN_DIFFICULTY);
+                    }
+                    break;
+                case USER:
+                    // 只改状态的事件不带用户对象，名称不变
+                    if (summary.getCreatorId() == id && entity instanceof User) {
+                        tableModel.setValueAt(((User) entity).getRealName(), row, COLUMN_CREATOR);
+                    }
+                    break;
+                default:
+                    return;
+            }
+        }
+    }
+
+    /**
+     * 在后台线程中把这些题目的创建者补入用户缓存，表格填充前调用
+     */
+    static void prefetchCreators(List<QuestionSummary> summaries) {
+        Set<Integer> creatorIds = new HashSet<>();
+        for (QuestionSummary summary : summaries) {
+            creatorIds.add(summary.getCreatorId());
+        }
+        ReferenceDataCache.prefetchUsers(creatorIds);
+    }
+
+    static Object[] toRow(QuestionSummary summary) {
+        return new Object[] {
+                summary.getQuestionId(),
+                summary.getContentPreview(),
+                summary.getQuestionType(),
+                nameOrId(ReferenceDataCache.peekCategoryName(summary.getCategoryId()), "分类ID:", summary.getCategoryId()),
+                nameOrId(ReferenceDataCache.peekDifficultyLevel(summary.getDifficultyId()), "难度ID:", summary.getDifficultyId()),
+                nameOrId(ReferenceDataCache.peekUserRealName(summary.getCreatorId()), "用户ID:", summary.getCreatorId()),
+                summary.getCreatedAt()
+        };
+    }
+
+    // 名称从共享缓存查找，缓存中没有时显示ID
+    private static String nameOrId(String name, String idLabel, int id) {
+        if (id <= 0) {
+            return "";
+        }
+        return name != null ? name : idLabel + id;
+    }
+}
@@ -1,22 +1,17 @@
 package com.university.questionbank.gui;
 
-import com.university.questionbank.service.UserService;
-import com.university.questionbank.service.QuestionService;
-import com.university.questionbank.dao.QuestionCategoryDAO;
-import com.university.questionbank.dao.QuestionDifficultyDAO;
-import com.university.questionbank.dao.DAOFactory;
+import com.university.questionbank.model.SystemStatistics;
+import com.university.questionbank.service.StatisticsService;
 import com.university.questionbank.gui.UIStyle;
 import com.university.questionbank.gui.UIComponentFactory;
 
 import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
+import java.util.Map;
 
 public class SystemStatisticsFrame extends JInternalFrame {
-    private UserService userService;
-    private QuestionService questionService;
-    private QuestionCategoryDAO categoryDAO;
-    private QuestionDifficultyDAO difficultyDAO;
+    private StatisticsService statisticsService;
     
     // 统计数据标签
     private JLabel totalUsersLabel;
@@ -24,19 +19,21 @@ public class SystemStatisticsFrame extends JInternalFrame {
     private JLabel totalQuestionsLabel;
     private JLabel totalCategoriesLabel;
     private JLabel totalDifficultiesLabel;
+
+    // 按分类、按难度的题目数
+    private DefaultTableModel categoryTableModel;
+    private DefaultTableModel difficultyTableModel;
+    private JButton refreshButton;
     
     public SystemStatisticsFrame() {
         super("系统统计", true, true, true, true);
-        this.userService = new UserService();
-        this.questionService = new QuestionService();
-        this.categoryDAO = DAOFactory.createQuestionCategoryDAO();
-        this.difficultyDAO = DAOFactory.createQuestionDifficultyDAO();
+        this.statisticsService = new StatisticsService();
         initUI();
-        loadStatisticsData();
+        loadStatisticsData(false);
     }
     
     private void initUI() {
-        setSize(600, 400);
+        setSize(700, 600);
         
         JPanel mainPanel = new JPanel(new GridBagLayout());
         mainPanel.setBackground(UIStyle.BACKGROUND_COLOR);
@@ -131,37 +128,86 @@ public class SystemStatisticsFrame extends JInternalFrame {
         totalDifficultiesLabel.setFont(UIStyle.HEADING_FONT.deriveFont(Font.PLAIN, 18));
         totalDifficultiesLabel.setForeground(UIStyle.SECONDARY_COLOR);
         mainPanel.add(totalDifficultiesLabel, gbc);
+
+        // 按分类、按难度的题目分布
+        categoryTableModel = new DefaultTableModel(new Object[]{"分类", "题目数"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        difficultyTableModel = new DefaultTableModel(new Object[]{"难度", "题目数"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+        JPanel breakdownPanel = new JPanel(new GridLayout(1, 2, UIStyle.PADDING_NORMAL, 0));
+        breakdownPanel.setBackground(UIStyle.BACKGROUND_COLOR);
+        breakdownPanel.add(UIComponentFactory.createScrollPane(UIComponentFactory.createTable(categoryTableModel)));
+        breakdownPanel.add(UIComponentFactory.createScrollPane(UIComponentFactory.createTable(difficultyTableModel)));
+
+        gbc.gridx = 0;
+        gbc.gridy = 6;
+        gbc.gridwidth = 2;
+        gbc.weightx = 1.0;
+        gbc.weighty = 1.0;
+        gbc.fill = GridBagConstraints.BOTH;
+        mainPanel.add(breakdownPanel, gbc);
+
+        // 刷新按钮（忽略缓存重新统计）
+        refreshButton = UIComponentFactory.createSecondaryButton("刷新");
+        refreshButton.addActionListener(e -> loadStatisticsData(true));
+        gbc.gridy = 7;
+        gbc.weighty = 0;
+        gbc.fill = GridBagConstraints.NONE;
+        gbc.anchor = GridBagConstraints.EAST;
+        mainPanel.add(refreshButton, gbc);
         
         add(mainPanel);
     }
     
-    // 加载统计数据
-    private void loadStatisticsData() {
-        try {
-            // 用户统计
-            int totalUsers = userService.getAllUsers().size();
-            int activeUsers = 0;
-            for (var user : userService.getAllUsers()) {
-                if (user.getStatus() == 1) {
-                    activeUsers++;
+    // 加载统计数据（在后台线程查询，避免阻塞界面）
+    private void loadStatisticsData(boolean forceRefresh) {
+        refreshButton.setEnabled(false);
+
+        SwingWorker<SystemStatistics, Void> worker = new SwingWorker<SystemStatistics, Void>() {
+            @Override
+            protected SystemStatistics doInBackground() throws Exception {
+                return statisticsService.getSystemStatistics(forceRefresh);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    SystemStatistics statistics = get();
+
+                    // 更新标签
+                    totalUsersLabel.setText(String.valueOf(statistics.getTotalUsers()));
+                    activeUsersLabel.setText(String.valueOf(statistics.getActiveUsers()));
+                    totalQuestionsLabel.setText(String.valueOf(statistics.getTotalQuestions()));
+                    totalCategoriesLabel.setText(String.valueOf(statistics.getTotalCategories()));
+                    totalDifficultiesLabel.setText(String.valueOf(statistics.getTotalDifficulties()));
+
+                    fillBreakdownTable(categoryTableModel, statistics.getQuestionsByCategory());
+                    fillBreakdownTable(difficultyTableModel, statistics.getQuestionsByDifficulty());
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(SystemStatisticsFrame.this, "加载统计数据失败: " + cause.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+                } finally {
+                    refreshButton.setEnabled(true);
                 }
             }
-            
-            // 题目统计
-            int totalQuestions = questionService.getAllQuestions().size();
-            
-            // 分类和难度统计
-            int totalCategories = categoryDAO.getAllCategories().size();
-            int totalDifficulties = difficultyDAO.getAllDifficulties().size();
-            
-            // 更新标签
-            totalUsersLabel.setText(String.valueOf(totalUsers));
-            activeUsersLabel.setText(String.valueOf(activeUsers));
-            totalQuestionsLabel.setText(String.valueOf(totalQuestions));
-            totalCategoriesLabel.setText(String.valueOf(totalCategories));
-            totalDifficultiesLabel.setText(String.valueOf(totalDifficulties));
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "加载统计数据失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+        };
+
+        worker.execute();
+    }
+
+    private void fillBreakdownTable(DefaultTableModel model, Map<String, Long> counts) {
+        model.setRowCount(0);
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            model.addRow(new Object[]{entry.getKey(), entry.getValue()});
         }
     }
 }
\ No newline at end of file
@@ -2,9 +2,11 @@ package com.university.questionbank.gui;
 
 import com.university.questionbank.model.User;
 import com.university.questionbank.model.Role;
+import com.university.questionbank.service.AsyncQuestionService;
+import com.university.questionbank.service.AsyncUserService;
+import com.university.questionbank.service.ServiceExecutor;
 import com.university.questionbank.service.UserService;
-import com.university.questionbank.dao.RoleDAO;
-import com.university.questionbank.dao.DAOFactory;
+import com.university.questionbank.dao.ReferenceDataCache;
 import com.university.questionbank.gui.UIStyle;
 import com.university.questionbank.gui.UIComponentFactory;
 
@@ -15,12 +17,15 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.swing.SwingUtilities;
 
 public class UserManagementFrame extends JInternalFrame {
+    private static final Logger logger = Logger.getLogger(UserManagementFrame.class.getName());
     private User currentUser;
     private UserService userService;
-    private RoleDAO roleDAO;
+    private AsyncUserService asyncUserService;
     
     // 界面组件
     private JTable userTable;
@@ -35,7 +40,7 @@ public class UserManagementFrame extends JInternalFrame {
         super("用户管理", true, true, true, true);
         this.currentUser = currentUser;
         this.userService = new UserService();
-        this.roleDAO = DAOFactory.createRoleDAO();
+        this.asyncUserService = new AsyncUserService(userService, AsyncQuestionService.DEFAULT_TIMEOUT_MILLIS);
         initUI();
         loadUserData();
     }
@@ -102,13 +107,18 @@ public class UserManagementFrame extends JInternalFrame {
         new AddUserDialog(this).setVisible(true);
     }
 
-    // 加载用户数据
+    // 加载用户数据（后台读取，在 EDT 上填充表格）
     private void loadUserData() {
-        try {
-            System.out.println("开始加载用户数据...");
-            List<User> users = userService.getAllUsers();
-            System.out.println("获取到用户数量: " + users.size());
-
+        logger.fine("开始加载用户数据");
+        refreshButton.setEnabled(false);
+        asyncUserService.getAllUsers().whenComplete((users, error) -> SwingUtilities.invokeLater(() -> {
+            refreshButton.setEnabled(true);
+            if (error != null) {
+                Throwable cause = ServiceExecutor.unwrap(error);
+                logger.log(Level.WARNING, "加载用户数据失败", cause);
+                JOptionPane.showMessageDialog(this, "加载用户数据失败: " + cause.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             tableModel.setRowCount(0); // 清空表格
 
             for (User user : users) {
@@ -123,11 +133,8 @@ public class UserManagementFrame extends JInternalFrame {
                 tableModel.addRow(row);
             }
 
-            System.out.println("用户数据加载完成，表格行数: " + tableModel.getRowCount());
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "加载用户数据失败: " + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
-        }
+            logger.fine("用户数据加载完成，共 " + users.size() + " 个用户");
+        }));
     }
     
     // 添加用户按钮监听器
@@ -397,7 +404,7 @@ public class UserManagementFrame extends JInternalFrame {
         
         private void loadRoles() {
             try {
-                List<Role> roles = roleDAO.getAllRoles();
+                List<Role> roles = ReferenceDataCache.getAllRoles();
                 for (Role role : roles) {
                     roleComboBox.addItem(role);
                 }
@@ -596,7 +603,7 @@ public class UserManagementFrame extends JInternalFrame {
         
         private void loadRoles() {
             try {
-                List<Role> roles = roleDAO.getAllRoles();
+                List<Role> roles = ReferenceDataCache.getAllRoles();
                 for (Role role : roles) {
                     roleComboBox.addItem(role);
                 }
@@ -50,6 +50,10 @@ public class Question {
     @SerializedName("updated_at")
     private String updatedAt;
 
+    // 归一化内容指纹（见 QuestionFingerprint），由 DAO 在写入时计算
+    @SerializedName("content_hash")
+    private Long contentHash;
+
     public Question() {
     }
 
@@ -182,6 +186,14 @@ public class Question {
         this.updatedAt = updatedAt;
     }
 
+    public Long getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(Long contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public int getCategoryId() {
         return categoryId;
     }
@@ -0,0 +1,123 @@
+package com.university.questionbank.model;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * 题目列表使用的摘要：只包含表格显示的列，题干在数据库端截断
+ * 打开某一行时再按 questionId 读取完整的 Question
+ */
+public class QuestionSummary {
+    // 列表中题干最多显示的字符数
+    public static final int PREVIEW_LENGTH = 80;
+
+    @SerializedName("question_id")
+    private int questionId;
+
+    // 截断后的题干
+    @SerializedName("content_preview")
+    private String contentPreview;
+
+    @SerializedName("question_type")
+    private String questionType;
+
+    @SerializedName("category_id")
+    private int categoryId;
+
+    @SerializedName("difficulty_id")
+    private int difficultyId;
+
+    @SerializedName("creator_id")
+    private int creatorId;
+
+    @SerializedName("created_at")
+    private String createdAt;
+
+    public QuestionSummary() {
+    }
+
+    public QuestionSummary(int questionId, String contentPreview, String questionType, int categoryId, int difficultyId, int creatorId, String createdAt) {
+        this.questionId = questionId;
+        this.contentPreview = contentPreview;
+        this.questionType = questionType;
+        this.categoryId = categoryId;
+        this.difficultyId = difficultyId;
+        this.creatorId = creatorId;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * 由完整题目生成摘要（题目修改后更新列表用）
+     * JDBC 读取的题目只填充了关联对象，ID 从关联对象中取
+     */
+    public static QuestionSummary from(Question question) {
+        int categoryId = question.getCategory() != null ? question.getCategory().getCategoryId() : question.getCategoryId();
+        int difficultyId = question.getDifficulty() != null ? question.getDifficulty().getDifficultyId() : question.getDifficultyId();
+        int creatorId = question.getCreator() != null ? question.getCreator().getUserId() : question.getCreatorId();
+        return new QuestionSummary(question.getQuestionId(), truncate(question.getQuestionContent()),
+                question.getQuestionType(), categoryId, difficultyId, creatorId, question.getCreatedAt());
+    }
+
+    // 截断到 PREVIEW_LENGTH 个字符，不拆开代理对
+    public static String truncate(String content) {
+        if (content == null || content.codePointCount(0, content.length()) <= PREVIEW_LENGTH) {
+            return content;
+        }
+        return content.substring(0, content.offsetByCodePoints(0, PREVIEW_LENGTH));
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(int questionId) {
+        this.questionId = questionId;
+    }
+
+    public String getContentPreview() {
+        return contentPreview;
+    }
+
+    public void setContentPreview(String contentPreview) {
+        this.contentPreview = contentPreview;
+    }
+
+    public String getQuestionType() {
+        return questionType;
+    }
+
+    public void setQuestionType(String questionType) {
+        this.questionType = questionType;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(int categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public int getDifficultyId() {
+        return difficultyId;
+    }
+
+    public void setDifficultyId(int difficultyId) {
+        this.difficultyId = difficultyId;
+    }
+
+    public int getCreatorId() {
+        return creatorId;
+    }
+
+    public void setCreatorId(int creatorId) {
+        this.creatorId = creatorId;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+}
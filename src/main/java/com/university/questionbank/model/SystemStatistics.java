@@ -0,0 +1,77 @@
+package com.university.questionbank.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 系统统计数据（统计面板使用的全部数字）
+ */
+public class SystemStatistics {
+    private long totalUsers;
+    private long activeUsers;
+    private long totalQuestions;
+    // 分类名称 -> 题目数，按分类ID排序
+    private final Map<String, Long> questionsByCategory = new LinkedHashMap<>();
+    // 难度级别 -> 题目数，按难度ID排序
+    private final Map<String, Long> questionsByDifficulty = new LinkedHashMap<>();
+
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+
+    public void setTotalUsers(long totalUsers) {
+        this.totalUsers = totalUsers;
+    }
+
+    public long getActiveUsers() {
+        return activeUsers;
+    }
+
+    public void setActiveUsers(long activeUsers) {
+        this.activeUsers = activeUsers;
+    }
+
+    public long getTotalQuestions() {
+        return totalQuestions;
+    }
+
+    public void setTotalQuestions(long totalQuestions) {
+        this.totalQuestions = totalQuestions;
+    }
+
+    public int getTotalCategories() {
+        return questionsByCategory.size();
+    }
+
+    public int getTotalDifficulties() {
+        return questionsByDifficulty.size();
+    }
+
+    public Map<String, Long> getQuestionsByCategory() {
+        return Collections.unmodifiableMap(questionsByCategory);
+    }
+
+    public void putCategoryCount(String categoryName, long count) {
+        questionsByCategory.put(categoryName, count);
+    }
+
+    public Map<String, Long> getQuestionsByDifficulty() {
+        return Collections.unmodifiableMap(questionsByDifficulty);
+    }
+
+    public void putDifficultyCount(String difficultyLevel, long count) {
+        questionsByDifficulty.put(difficultyLevel, count);
+    }
+
+    @Override
+    public String toString() {
+        return "SystemStatistics{" +
+                "totalUsers=" + totalUsers +
+                ", activeUsers=" + activeUsers +
+                ", totalQuestions=" + totalQuestions +
+                ", questionsByCategory=" + questionsByCategory +
+                ", questionsByDifficulty=" + questionsByDifficulty +
+                '}';
+    }
+}
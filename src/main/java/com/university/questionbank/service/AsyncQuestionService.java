@@ -0,0 +1,75 @@
+package com.university.questionbank.service;
+
+import com.university.questionbank.dao.ReferenceDataCache;
+import com.university.questionbank.model.Question;
+import com.university.questionbank.model.QuestionCategory;
+import com.university.questionbank.model.QuestionDifficulty;
+import com.university.questionbank.model.QuestionSummary;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QuestionService 读取操作的异步版本，在 ServiceExecutor 上执行并返回 CompletableFuture
+ * 互不依赖的读取可以同时发出，由调用方组合结果；每次调用都有截止时间，
+ * 超时或调用方取消时中断后台任务。回调在后台线程执行，更新界面需切回 EDT。
+ * 写操作不放在这里：超时或中断时写入可能已经提交，调用方无法得知结果。
+ */
+public class AsyncQuestionService {
+    public static final long DEFAULT_TIMEOUT_MILLIS = 60_000L;
+
+    private final QuestionService questionService;
+    private final long timeoutMillis;
+
+    public AsyncQuestionService() {
+        this(new QuestionService(), DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param timeoutMillis 每次调用的截止时间，不大于 0 时不限时
+     */
+    public AsyncQuestionService(QuestionService questionService, long timeoutMillis) {
+        this.questionService = questionService;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 同时加载分类、难度、角色和用户到共享的基础数据缓存，之后按ID查名称不再访问数据库
+     * 登录后已开始的预取仍在进行时直接等待它，不重复查询
+     */
+    public CompletableFuture<Void> warmUpReferenceData() {
+        // 复制一份再设置截止时间，超时不影响其他等待同一次预取的调用方
+        CompletableFuture<Void> prefetch = ReferenceDataCache.prefetch(ServiceExecutor.executor()).copy();
+        return timeoutMillis > 0 ? prefetch.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS) : prefetch;
+    }
+
+    public CompletableFuture<Question> getQuestionById(int questionId) {
+        return call(() -> questionService.getQuestionById(questionId));
+    }
+
+    public CompletableFuture<List<QuestionSummary>> getQuestionSummariesAfter(String createdAt, int questionId, int limit) {
+        return call(() -> questionService.getQuestionSummariesAfter(createdAt, questionId, limit));
+    }
+
+    public CompletableFuture<List<QuestionSummary>> searchQuestionSummaries(String keyword, Integer categoryId, Integer difficultyId, String questionType, int offset, int limit) {
+        return call(() -> questionService.searchQuestionSummaries(keyword, categoryId, difficultyId, questionType, offset, limit));
+    }
+
+    public CompletableFuture<Long> countQuestions(String keyword, Integer categoryId, Integer difficultyId, String questionType, boolean estimated) {
+        return call(() -> questionService.countQuestions(keyword, categoryId, difficultyId, questionType, estimated));
+    }
+
+    public CompletableFuture<List<QuestionCategory>> getAllCategories() {
+        return call(questionService::getAllCategories);
+    }
+
+    public CompletableFuture<List<QuestionDifficulty>> getAllDifficulties() {
+        return call(questionService::getAllDifficulties);
+    }
+
+    private <T> CompletableFuture<T> call(Callable<T> task) {
+        return ServiceExecutor.supply(task, timeoutMillis);
+    }
+}
@@ -0,0 +1,40 @@
+package com.university.questionbank.service;
+
+import com.university.questionbank.model.User;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * UserService 的异步版本，执行方式与 AsyncQuestionService 相同
+ */
+public class AsyncUserService {
+    private final UserService userService;
+    private final long timeoutMillis;
+
+    public AsyncUserService() {
+        this(new UserService(), AsyncQuestionService.DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public AsyncUserService(UserService userService, long timeoutMillis) {
+        this.userService = userService;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public CompletableFuture<User> getUserById(int userId) {
+        return call(() -> userService.getUserById(userId));
+    }
+
+    public CompletableFuture<List<User>> getAllUsers() {
+        return call(userService::getAllUsers);
+    }
+
+    public CompletableFuture<Boolean> userHasQuestions(int userId) {
+        return call(() -> userService.userHasQuestions(userId));
+    }
+
+    private <T> CompletableFuture<T> call(Callable<T> task) {
+        return ServiceExecutor.supply(task, timeoutMillis);
+    }
+}
@@ -0,0 +1,245 @@
+package com.university.questionbank.service;
+
+import com.university.questionbank.model.Question;
+import com.university.questionbank.util.ExportUtil;
+import com.university.questionbank.util.ProgressListener;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 一次后台导出任务
+ * 先写入目标目录下的临时文件，全部写完后原子重命名为目标文件；
+ * 取消或失败时删除临时文件，目标路径上不会出现写了一半的文件
+ */
+public class ExportJob {
+    private static final Logger logger = Logger.getLogger(ExportJob.class.getName());
+
+    public enum Format {
+        WORD(".docx"),
+        EXCEL(".xlsx"),
+        TXT(".txt");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    public enum State {
+        QUEUED("排队中"),
+        RUNNING("导出中"),
+        COMPLETED("已完成"),
+        FAILED("失败"),
+        CANCELLED("已取消");
+
+        private final String displayName;
+
+        State(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    /**
+     * 任务状态和进度回调，在导出线程中触发
+     */
+    public interface Listener {
+        void onStateChanged(ExportJob job);
+
+        void onProgress(ExportJob job, int completed, int total);
+    }
+
+    private final QuestionService questionService;
+    private final Path target;
+    private final Format format;
+    private final String keyword;
+    private final Integer categoryId;
+    private final Integer difficultyId;
+    private final String questionType;
+    private final Listener listener;
+
+    private volatile State state = State.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile int exportedCount;
+    private volatile Throwable error;
+    private volatile Future<?> future;
+
+    ExportJob(QuestionService questionService, Path target, Format format,
+              String keyword, Integer categoryId, Integer difficultyId, String questionType, Listener listener) {
+        this.questionService = questionService;
+        this.target = target;
+        this.format = format;
+        this.keyword = keyword;
+        this.categoryId = categoryId;
+        this.difficultyId = difficultyId;
+        this.questionType = questionType;
+        this.listener = listener;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * 请求取消：排队中的任务直接出队，运行中的任务在下一行或下一页处停止并删除临时文件
+     */
+    public void cancel() {
+        cancelRequested = true;
+        Future<?> current = future;
+        if (current != null && current.cancel(false)) {
+            // 尚未开始执行，不会再进入 run()
+            changeState(State.CANCELLED);
+        }
+    }
+
+    void run() {
+        if (cancelRequested) {
+            changeState(State.CANCELLED);
+            return;
+        }
+        changeState(State.RUNNING);
+
+        Path temp = null;
+        try {
+            int total = (int) Math.min(questionService.countQuestions(keyword, categoryId, difficultyId, questionType, false), Integer.MAX_VALUE);
+            fireProgress(0, total);
+
+            temp = Files.createTempFile(target.toAbsolutePath().getParent(), "." + target.getFileName(), ".part");
+            String tempPath = temp.toString();
+
+            // 按 (created_at, question_id) 游标分页，导出期间新增或删除题目也不会造成重复或遗漏
+            ExportUtil.QuestionPageSource source = (after, limit) -> {
+                checkCancelled();
+                return after == null
+                        ? questionService.searchQuestionsAfter(keyword, categoryId, difficultyId, questionType, null, 0, limit)
+                        : questionService.searchQuestionsAfter(keyword, categoryId, difficultyId, questionType,
+                                after.getCreatedAt(), after.getQuestionId(), limit);
+            };
+            ProgressListener progress = (completed, ignored) -> {
+                checkCancelled();
+                fireProgress(completed, Math.max(total, completed));
+            };
+
+            int count;
+            switch (format) {
+                case WORD:
+                    // Word 文档本身在内存中整体生成，分页读取后一次写出
+                    List<Question> questions = new ArrayList<>();
+                    List<Question> page = source.fetchPage(null, ExportUtil.DEFAULT_EXPORT_PAGE_SIZE);
+                    questions.addAll(page);
+                    while (page.size() == ExportUtil.DEFAULT_EXPORT_PAGE_SIZE) {
+                        page = source.fetchPage(page.get(page.size() - 1), ExportUtil.DEFAULT_EXPORT_PAGE_SIZE);
+                        questions.addAll(page);
+                    }
+                    ExportUtil.exportToWord(questions, tempPath, progress);
+                    count = questions.size();
+                    break;
+                case EXCEL:
+                    count = ExportUtil.exportToExcel(source, ExportUtil.DEFAULT_EXPORT_PAGE_SIZE, tempPath, progress);
+                    break;
+                default:
+                    count = ExportUtil.exportToTxt(source, ExportUtil.DEFAULT_EXPORT_PAGE_SIZE, tempPath, progress);
+                    break;
+            }
+            checkCancelled();
+
+            exportedCount = count;
+            if (count > 0) {
+                moveIntoPlace(temp);
+                temp = null;
+            }
+            changeState(State.COMPLETED);
+        } catch (CancellationException e) {
+            logger.info("导出任务已取消: " + target);
+            changeState(State.CANCELLED);
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "导出任务失败: " + target, e);
+            error = e;
+            changeState(cancelRequested ? State.CANCELLED : State.FAILED);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    logger.warning("删除临时文件失败: " + temp + " - " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // 同一目录内重命名，文件系统支持时为原子操作
+    private void moveIntoPlace(Path temp) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void checkCancelled() {
+        if (cancelRequested || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("导出已取消");
+        }
+    }
+
+    private void changeState(State newState) {
+        synchronized (this) {
+            if (state.isFinished()) {
+                return;
+            }
+            state = newState;
+        }
+        if (listener != null) {
+            listener.onStateChanged(this);
+        }
+    }
+
+    private void fireProgress(int completed, int total) {
+        if (listener != null) {
+            listener.onProgress(this, completed, total);
+        }
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    // 完成后为实际导出的题目数量，为 0 时不生成文件
+    public int getExportedCount() {
+        return exportedCount;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+}
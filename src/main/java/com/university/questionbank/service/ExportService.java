@@ -0,0 +1,46 @@
+package com.university.questionbank.service;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 后台导出服务
+ * 所有导出任务提交到同一个后台线程依次执行，多个导出可以排队而不阻塞界面
+ */
+public class ExportService {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    // 单线程执行，导出按提交顺序排队，避免多个大导出同时占用数据库连接和磁盘
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "export-worker-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final QuestionService questionService;
+
+    public ExportService() {
+        this(new QuestionService());
+    }
+
+    public ExportService(QuestionService questionService) {
+        this.questionService = questionService;
+    }
+
+    /**
+     * 提交导出任务
+     * @param target   目标文件路径
+     * @param listener 状态和进度回调（在导出线程中触发，可为 null）
+     */
+    public ExportJob submit(Path target, ExportJob.Format format,
+                            String keyword, Integer categoryId, Integer difficultyId, String questionType,
+                            ExportJob.Listener listener) {
+        ExportJob job = new ExportJob(questionService, target, format, keyword, categoryId, difficultyId, questionType, listener);
+        Future<?> future = EXECUTOR.submit(job::run);
+        job.setFuture(future);
+        return job;
+    }
+}
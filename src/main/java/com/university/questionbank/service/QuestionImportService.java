@@ -0,0 +1,552 @@
+package com.university.questionbank.service;
+
+import com.university.questionbank.config.DatabaseConfig;
+import com.university.questionbank.model.Question;
+import com.university.questionbank.util.DocxQuestionParser;
+import com.university.questionbank.util.ProgressListener;
+import com.university.questionbank.util.QuestionFingerprint;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * DOCX 题目流式导入
+ * 解析线程逐段落读取文档，每解析完一道题就放入有界队列；
+ * 调用线程从队列中取题，每凑满 db.batchSize 道写入并提交一次。
+ * 队列满时解析线程等待写入，内存占用与文档大小无关，前面的题目在解析过程中就已入库。
+ * 多个文件时按 CPU 核数并行解析，所有解析线程共用同一个队列和写入线程；
+ * 单个文件解析失败只影响该文件，其余文件继续导入；失败前已解析的题目照常写入，该文件标记为部分导入。
+ * 写入前按内容指纹查重：本次导入中出现过的指纹在内存中直接判定，其余每批查询一次题库，
+ * 与题库或本次导入中已有题目重复的题目跳过并记入报告。
+ * 注意：每批单独提交，中途失败时已提交的批次会保留。
+ */
+public class QuestionImportService {
+    private static final Logger logger = Logger.getLogger(QuestionImportService.class.getName());
+
+    // 队列容量为批大小的倍数，解析可以领先写入一到两批
+    private static final int QUEUE_BATCHES = 2;
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    // 每个文件在报告中最多列出的重复题目数量
+    private static final int MAX_SKIPPED_REPORT = 100;
+    private static final int SKIPPED_PREVIEW_LENGTH = 40;
+    private static final String REASON_EXISTING = "题库中已存在";
+    private static final String REASON_REPEATED = "本次导入中重复";
+
+    // 旧题目的内容指纹每个进程只需补算一次
+    private static final AtomicBoolean HASHES_BACKFILLED = new AtomicBoolean();
+
+    /**
+     * 多文件导入的回调，在解析线程或写入线程中触发
+     */
+    public interface Listener {
+        // 文件状态或计数变化
+        void onFileChanged(FileImport file);
+
+        // 每提交一批回报一次累计导入数量
+        void onProgress(int imported);
+    }
+
+    /**
+     * 单个文件的导入状态
+     */
+    public static class FileImport {
+        public enum Status {
+            WAITING("等待中"),
+            PARSING("解析中"),
+            // 解析已结束，还有题目在队列中或未提交
+            WRITING("写入中"),
+            // 写入线程提交了该文件的全部题目后才设置
+            FINISHED("已完成"),
+            FAILED("失败"),
+            // 导入中途失败，失败前的题目已写入
+            PARTIAL("部分导入"),
+            CANCELLED("已取消");
+
+            private final String displayName;
+
+            Status(String displayName) {
+                this.displayName = displayName;
+            }
+
+            public String getDisplayName() {
+                return displayName;
+            }
+        }
+
+        private final String filePath;
+        private volatile Status status = Status.WAITING;
+        // 解析线程写入
+        private volatile int parsedCount;
+        // 写入线程在批次提交后更新
+        private volatile int importedCount;
+        private volatile int skippedCount;
+        // 写入线程追加，导入结束后读取
+        private final List<String> skippedQuestions = new ArrayList<>();
+        private volatile Throwable error;
+
+        FileImport(String filePath) {
+            this.filePath = filePath;
+        }
+
+        public String getFilePath() {
+            return filePath;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public int getParsedCount() {
+            return parsedCount;
+        }
+
+        public int getImportedCount() {
+            return importedCount;
+        }
+
+        // 因重复而跳过的题目数量
+        public int getSkippedCount() {
+            return skippedCount;
+        }
+
+        // 跳过的题目摘要（原因和题干开头），最多 MAX_SKIPPED_REPORT 条
+        public List<String> getSkippedQuestions() {
+            return Collections.unmodifiableList(skippedQuestions);
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+    }
+
+    // 队列元素；question 为 null 表示该文件已解析结束
+    private static class Item {
+        final FileImport file;
+        final Question question;
+
+        Item(FileImport file, Question question) {
+            this.file = file;
+            this.question = question;
+        }
+    }
+
+    // 一次导入的查重探测集合，每次导入新建，只在该次导入的写入线程中访问；
+    // 同一个服务实例可以被多个界面同时用来导入
+    private static class HashSets {
+        // 题库中已存在的指纹
+        final Set<Long> existing = new HashSet<>();
+        // 本次导入已写入的指纹
+        final Set<Long> imported = new HashSet<>();
+    }
+
+    private final QuestionService questionService;
+
+    public QuestionImportService() {
+        this(new QuestionService());
+    }
+
+    public QuestionImportService(QuestionService questionService) {
+        this.questionService = questionService;
+    }
+
+    /**
+     * 流式导入一个 docx 文件，在调用线程中写库，调用线程被中断时停止导入
+     * @param listener 每提交一批回报一次进度（总数未知，total 为 -1；结束时 total 为导入总数），可为 null
+     * @return 导入的题目数量
+     */
+    public int importDocx(String filePath, int categoryId, int difficultyId, int creatorId,
+                          ProgressListener listener) throws IOException, SQLException {
+        FileImport file = new FileImport(filePath);
+        int imported = runPipeline(Collections.singletonList(file), categoryId, difficultyId, creatorId, new Listener() {
+            @Override
+            public void onFileChanged(FileImport changed) {
+            }
+
+            @Override
+            public void onProgress(int count) {
+                fireProgress(listener, count, -1);
+            }
+        });
+
+        rethrowFailure(file);
+        fireProgress(listener, imported, imported);
+        logger.info("流式导入完成: " + filePath + "，共 " + imported + " 道题目，跳过重复 " + file.skippedCount + " 道");
+        return imported;
+    }
+
+    /**
+     * 并行导入多个 docx 文件，在调用线程中写库，调用线程被中断时停止导入
+     * 解析失败的文件记录在返回结果中，不会中止其他文件；写库失败时整体停止并抛出异常
+     * @param listener 文件状态和进度回调，可为 null
+     * @return 每个文件的导入结果，顺序与 filePaths 一致
+     */
+    public List<FileImport> importDocxFiles(List<String> filePaths, int categoryId, int difficultyId, int creatorId,
+                                            Listener listener) throws SQLException {
+        List<FileImport> files = new ArrayList<>(filePaths.size());
+        for (String filePath : filePaths) {
+            files.add(new FileImport(filePath));
+        }
+        if (files.isEmpty()) {
+            return files;
+        }
+
+        int imported = runPipeline(files, categoryId, difficultyId, creatorId, listener);
+        int failed = 0;
+        int skipped = 0;
+        for (FileImport file : files) {
+            if (file.status == FileImport.Status.FAILED || file.status == FileImport.Status.PARTIAL) {
+                failed++;
+            }
+            skipped += file.skippedCount;
+        }
+        logger.info("多文件导入完成：" + files.size() + " 个文件，失败 " + failed + " 个，共 " + imported
+                + " 道题目，跳过重复 " + skipped + " 道");
+        return files;
+    }
+
+    private int runPipeline(List<FileImport> files, int categoryId, int difficultyId, int creatorId,
+                            Listener listener) throws SQLException {
+        // 升级前导入的题目没有指纹，先补算，否则查重会漏掉它们
+        if (!HASHES_BACKFILLED.get()) {
+            questionService.backfillContentHashes();
+            HASHES_BACKFILLED.set(true);
+        }
+        HashSets hashes = new HashSets();
+
+        int batchSize = Math.max(1, DatabaseConfig.getInstance().getBatchSize());
+        BlockingQueue<Item> queue = new ArrayBlockingQueue<>(batchSize * QUEUE_BATCHES);
+
+        // 解析是 CPU 密集型，线程数不超过核数；写库只有调用线程一个
+        int parserCount = Math.min(files.size(), Math.max(1, Runtime.getRuntime().availableProcessors()));
+        ExecutorService parsers = Executors.newFixedThreadPool(parserCount, runnable -> {
+            Thread thread = new Thread(runnable, "docx-import-parser-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<ParserTask> tasks = new ArrayList<>(files.size());
+        for (FileImport file : files) {
+            ParserTask task = new ParserTask(file, categoryId, difficultyId, creatorId, queue, listener);
+            tasks.add(task);
+            parsers.execute(task);
+        }
+        parsers.shutdown();
+
+        int imported = 0;
+        boolean completed = false;
+        try {
+            List<Item> batch = new ArrayList<>(batchSize);
+            // 结束标记已取出、但还有题目在当前批次中未提交的文件
+            List<FileImport> ending = new ArrayList<>();
+            int finishedFiles = 0;
+            while (finishedFiles < files.size()) {
+                Item item = queue.take();
+                if (item.question == null) {
+                    finishedFiles++;
+                    if (containsFile(batch, item.file)) {
+                        ending.add(item.file);
+                    } else {
+                        completeFile(item.file, listener);
+                    }
+                    continue;
+                }
+                batch.add(item);
+                if (batch.size() == batchSize) {
+                    imported += writeBatch(batch, hashes, imported, listener);
+                    completeFiles(ending, listener);
+                }
+            }
+            if (!batch.isEmpty()) {
+                imported += writeBatch(batch, hashes, imported, listener);
+            }
+            completeFiles(ending, listener);
+            completed = true;
+            return imported;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("导入已取消，已导入 " + imported + " 道题目");
+        } finally {
+            // 写入失败或取消时让解析线程尽快退出
+            for (ParserTask task : tasks) {
+                task.abort();
+            }
+            parsers.shutdownNow();
+            awaitQuietly(parsers);
+            if (!completed) {
+                // 写入失败或取消时，解析已结束但题目未全部提交的文件不能显示为已完成
+                for (FileImport file : files) {
+                    if (file.status == FileImport.Status.WRITING) {
+                        file.status = file.importedCount > 0 ? FileImport.Status.PARTIAL : FileImport.Status.CANCELLED;
+                        if (listener != null) {
+                            listener.onFileChanged(file);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean containsFile(List<Item> batch, FileImport file) {
+        for (Item item : batch) {
+            if (item.file == file) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void completeFiles(List<FileImport> ending, Listener listener) {
+        for (FileImport file : ending) {
+            completeFile(file, listener);
+        }
+        ending.clear();
+    }
+
+    /**
+     * 文件的结束标记已取出且题目都已提交后确定最终状态，在写入线程中调用：
+     * 解析成功为已完成；解析失败时，失败前已有题目写入为部分导入，否则为失败
+     */
+    private static void completeFile(FileImport file, Listener listener) {
+        if (file.status != FileImport.Status.WRITING) {
+            return;
+        }
+        if (file.error == null) {
+            file.status = FileImport.Status.FINISHED;
+        } else {
+            file.status = file.importedCount > 0 ? FileImport.Status.PARTIAL : FileImport.Status.FAILED;
+        }
+        if (listener != null) {
+            listener.onFileChanged(file);
+        }
+    }
+
+    private int writeBatch(List<Item> batch, HashSets hashes, int importedSoFar, Listener listener) throws SQLException {
+        Set<FileImport> changed = new LinkedHashSet<>();
+        List<Item> kept = removeDuplicates(batch, hashes, changed);
+
+        List<Question> questions = new ArrayList<>(kept.size());
+        for (Item item : kept) {
+            questions.add(item.question);
+        }
+        try {
+            questionService.importQuestions(questions);
+        } catch (SQLException e) {
+            throw new SQLException("已导入 " + importedSoFar + " 道题目后写入失败: " + e.getMessage(), e.getSQLState(), e);
+        }
+
+        for (Item item : kept) {
+            item.file.importedCount++;
+            changed.add(item.file);
+            hashes.imported.add(item.question.getContentHash());
+        }
+        batch.clear();
+
+        if (listener != null) {
+            for (FileImport file : changed) {
+                listener.onFileChanged(file);
+            }
+            listener.onProgress(importedSoFar + kept.size());
+        }
+        return kept.size();
+    }
+
+    /**
+     * 按内容指纹去掉重复题目：已知指纹在内存中判定，新指纹整批查询一次题库
+     */
+    private List<Item> removeDuplicates(List<Item> batch, HashSets hashes, Set<FileImport> changed) throws SQLException {
+        List<Item> candidates = new ArrayList<>(batch.size());
+        // 与同一批中前面题目重复的，查询题库后才能确定原因
+        List<Item> repeatedInBatch = new ArrayList<>();
+        Set<Long> newHashes = new HashSet<>();
+        for (Item item : batch) {
+            long hash = QuestionFingerprint.compute(item.question);
+            item.question.setContentHash(hash);
+            if (hashes.existing.contains(hash)) {
+                skip(item, REASON_EXISTING, changed);
+            } else if (hashes.imported.contains(hash)) {
+                skip(item, REASON_REPEATED, changed);
+            } else if (!newHashes.add(hash)) {
+                repeatedInBatch.add(item);
+            } else {
+                candidates.add(item);
+            }
+        }
+
+        Set<Long> found = newHashes.isEmpty()
+                ? Collections.emptySet()
+                : questionService.findExistingContentHashes(newHashes);
+        hashes.existing.addAll(found);
+        for (Item item : repeatedInBatch) {
+            skip(item, found.contains(item.question.getContentHash()) ? REASON_EXISTING : REASON_REPEATED, changed);
+        }
+        if (found.isEmpty()) {
+            return candidates;
+        }
+
+        List<Item> kept = new ArrayList<>(candidates.size());
+        for (Item item : candidates) {
+            if (found.contains(item.question.getContentHash())) {
+                skip(item, REASON_EXISTING, changed);
+            } else {
+                kept.add(item);
+            }
+        }
+        return kept;
+    }
+
+    private void skip(Item item, String reason, Set<FileImport> changed) {
+        FileImport file = item.file;
+        file.skippedCount++;
+        if (file.skippedQuestions.size() < MAX_SKIPPED_REPORT) {
+            String content = item.question.getQuestionContent() != null ? item.question.getQuestionContent() : "";
+            if (content.length() > SKIPPED_PREVIEW_LENGTH) {
+                content = content.substring(0, SKIPPED_PREVIEW_LENGTH) + "...";
+            }
+            file.skippedQuestions.add("[" + reason + "] " + content);
+        }
+        changed.add(file);
+    }
+
+    private static void fireProgress(ProgressListener listener, int completed, int total) {
+        if (listener != null) {
+            listener.onProgress(completed, total);
+        }
+    }
+
+    private static void awaitQuietly(ExecutorService executor) {
+        boolean interrupted = false;
+        while (!executor.isTerminated()) {
+            try {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void rethrowFailure(FileImport file) throws IOException {
+        Throwable e = file.error;
+        if (e == null) {
+            return;
+        }
+        if (file.importedCount > 0) {
+            // 失败前的题目已经提交，异常中说明数量，调用方不要当作什么都没写入
+            throw new IOException("解析文件失败，失败前已导入 " + file.importedCount + " 道题目: " + e.getMessage(), e);
+        }
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        }
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        throw new IOException("解析文件失败: " + file.filePath, e);
+    }
+
+    /**
+     * 解析一个文件：把解析出的题目放入队列，结束（包括失败）时改为写入中并放入该文件的结束标记，
+     * 最终状态由写入线程取出结束标记、提交该文件的最后一批后设置
+     */
+    private static class ParserTask implements Runnable {
+        private final FileImport file;
+        private final int categoryId;
+        private final int difficultyId;
+        private final int creatorId;
+        private final BlockingQueue<Item> queue;
+        private final Listener listener;
+
+        private volatile boolean aborted;
+
+        ParserTask(FileImport file, int categoryId, int difficultyId, int creatorId,
+                   BlockingQueue<Item> queue, Listener listener) {
+            this.file = file;
+            this.categoryId = categoryId;
+            this.difficultyId = difficultyId;
+            this.creatorId = creatorId;
+            this.queue = queue;
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (aborted) {
+                    throw new CancellationException("导入已停止");
+                }
+                changeStatus(FileImport.Status.PARSING);
+                DocxQuestionParser.parseQuestions(file.filePath, question -> {
+                    question.setCategoryId(categoryId);
+                    question.setDifficultyId(difficultyId);
+                    question.setCreatorId(creatorId);
+                    put(new Item(file, question));
+                    file.parsedCount++;
+                });
+                changeStatus(FileImport.Status.WRITING);
+            } catch (CancellationException e) {
+                changeStatus(FileImport.Status.CANCELLED);
+            } catch (Throwable e) {
+                // 只记录，不影响其他文件
+                file.error = e;
+                logger.log(Level.WARNING, "解析文件失败: " + file.filePath, e);
+                changeStatus(FileImport.Status.WRITING);
+            } finally {
+                try {
+                    put(new Item(file, null));
+                } catch (CancellationException e) {
+                    // 写入端已停止，不再需要结束标记
+                }
+            }
+        }
+
+        // 队列满时等待，写入端停止后放弃
+        private void put(Item item) {
+            if (aborted) {
+                throw new CancellationException("导入已停止");
+            }
+            try {
+                while (!queue.offer(item, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    if (aborted) {
+                        throw new CancellationException("导入已停止");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("导入已停止");
+            }
+        }
+
+        private void changeStatus(FileImport.Status status) {
+            file.status = status;
+            if (listener != null) {
+                listener.onFileChanged(file);
+            }
+        }
+
+        void abort() {
+            aborted = true;
+        }
+    }
+}
@@ -3,13 +3,17 @@ package com.university.questionbank.service;
 import com.university.questionbank.dao.*;
 import com.university.questionbank.dao.DAOFactory;
 import com.university.questionbank.model.*;
+import com.university.questionbank.util.DataChangeBus;
+import com.university.questionbank.util.DataChangeEvent;
+import com.university.questionbank.util.ProgressListener;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.Set;
 
 public class QuestionService {
-    private static final Logger logger = Logger.getLogger(QuestionService.class.getName());
     private QuestionDAO questionDAO;
     private QuestionCategoryDAO categoryDAO;
     private QuestionDifficultyDAO difficultyDAO;
@@ -23,16 +27,49 @@ public class QuestionService {
     }
 
     // 题目管理
+    // 新增、修改、删除成功后发布变更事件，相似题目索引、统计缓存和打开的窗口据此更新
     public void addQuestion(Question question) throws SQLException {
         questionDAO.addQuestion(question);
+        DataChangeBus.publish(DataChangeEvent.EntityType.QUESTION, DataChangeEvent.Action.ADDED,
+                question.getQuestionId(), question);
     }
 
     public void updateQuestion(Question question) throws SQLException {
         questionDAO.updateQuestion(question);
+        DataChangeBus.publish(DataChangeEvent.EntityType.QUESTION, DataChangeEvent.Action.UPDATED,
+                question.getQuestionId(), question);
     }
 
     public void deleteQuestion(int questionId) throws SQLException {
         questionDAO.deleteQuestion(questionId);
+        DataChangeBus.publish(DataChangeEvent.EntityType.QUESTION, DataChangeEvent.Action.DELETED, questionId, null);
+    }
+
+    // 批量删除题目（一次请求），返回实际删除的数量；只为实际删除的题目发布事件
+    public int deleteQuestions(int[] questionIds) throws SQLException {
+        List<Integer> deleted = questionDAO.deleteQuestions(questionIds);
+        for (int questionId : deleted) {
+            DataChangeBus.publish(DataChangeEvent.EntityType.QUESTION, DataChangeEvent.Action.DELETED, questionId, null);
+        }
+        return deleted.size();
+    }
+
+    // 批量修改题目分类，返回实际修改的数量；事件中带修改后的题目摘要，打开的列表据此更新该行
+    public int updateQuestionsCategory(int[] questionIds, int categoryId) throws SQLException {
+        return publishUpdated(questionDAO.updateQuestionsCategory(questionIds, categoryId));
+    }
+
+    // 批量修改题目难度，返回实际修改的数量
+    public int updateQuestionsDifficulty(int[] questionIds, int difficultyId) throws SQLException {
+        return publishUpdated(questionDAO.updateQuestionsDifficulty(questionIds, difficultyId));
+    }
+
+    private int publishUpdated(List<QuestionSummary> updated) {
+        for (QuestionSummary summary : updated) {
+            DataChangeBus.publish(DataChangeEvent.EntityType.QUESTION, DataChangeEvent.Action.UPDATED,
+                    summary.getQuestionId(), summary);
+        }
+        return updated.size();
     }
 
     public Question getQuestionById(int questionId) throws SQLException {
@@ -56,38 +93,86 @@ public class QuestionService {
         return questionDAO.getAllQuestions(offset, limit);
     }
     
+    // 游标分页获取题目
+    public List<Question> getQuestionsAfter(String createdAt, int questionId, int limit) throws SQLException {
+        return questionDAO.getQuestionsAfter(createdAt, questionId, limit);
+    }
+
     // 根据条件搜索题目（分页）
     public List<Question> searchQuestions(String keyword, Integer categoryId, Integer difficultyId, String questionType, int offset, int limit) throws SQLException {
         return questionDAO.searchQuestions(keyword, categoryId, difficultyId, questionType, offset, limit);
     }
 
+    // 带过滤条件的游标分页，导出时按页遍历全部结果
+    public List<Question> searchQuestionsAfter(String keyword, Integer categoryId, Integer difficultyId, String questionType,
+                                               String createdAt, int questionId, int limit) throws SQLException {
+        return questionDAO.searchQuestionsAfter(keyword, categoryId, difficultyId, questionType, createdAt, questionId, limit);
+    }
+
+    // 游标分页获取题目列表摘要（只含列表显示的列，打开某一题时再用 getQuestionById 读取完整内容）
+    public List<QuestionSummary> getQuestionSummariesAfter(String createdAt, int questionId, int limit) throws SQLException {
+        return questionDAO.getQuestionSummariesAfter(createdAt, questionId, limit);
+    }
+
+    // 根据条件搜索题目列表摘要（分页）
+    public List<QuestionSummary> searchQuestionSummaries(String keyword, Integer categoryId, Integer difficultyId, String questionType, int offset, int limit) throws SQLException {
+        return questionDAO.searchQuestionSummaries(keyword, categoryId, difficultyId, questionType, offset, limit);
+    }
+
+    // 统计符合条件的题目数量（estimated 为 true 时返回估算值）
+    public long countQuestions(String keyword, Integer categoryId, Integer difficultyId, String questionType, boolean estimated) throws SQLException {
+        return questionDAO.countQuestions(keyword, categoryId, difficultyId, questionType, estimated);
+    }
+
     // 批量导入题目
-    public void importQuestions(List<Question> questions) throws SQLException {
+    public List<Integer> importQuestions(List<Question> questions) throws SQLException {
+        return importQuestions(questions, null);
+    }
+
+    // 批量导入题目，每写入一批回报一次进度，返回新题目ID
+    public List<Integer> importQuestions(List<Question> questions, ProgressListener listener) throws SQLException {
         if (questions == null || questions.isEmpty()) {
-            return;
+            return new ArrayList<>();
         }
-        
+
+        List<Integer> ids = questionDAO.addQuestions(questions, listener);
         for (Question question : questions) {
-            questionDAO.addQuestion(question);
+            DataChangeBus.publish(DataChangeEvent.EntityType.QUESTION, DataChangeEvent.Action.ADDED,
+                    question.getQuestionId(), question);
         }
+        return ids;
+    }
+
+    // 查询题库中已存在的内容指纹，用于导入查重
+    public Set<Long> findExistingContentHashes(Collection<Long> contentHashes) throws SQLException {
+        return questionDAO.findExistingContentHashes(contentHashes);
+    }
+
+    // 为没有内容指纹的旧题目补算指纹
+    public int backfillContentHashes() throws SQLException {
+        return questionDAO.backfillContentHashes();
     }
 
     // 分类管理
     public void addCategory(QuestionCategory category) throws SQLException {
         categoryDAO.addCategory(category);
+        DataChangeBus.publish(DataChangeEvent.EntityType.CATEGORY, DataChangeEvent.Action.ADDED,
+                category.getCategoryId(), category);
     }
 
     public void updateCategory(QuestionCategory category) throws SQLException {
         categoryDAO.updateCategory(category);
+        DataChangeBus.publish(DataChangeEvent.EntityType.CATEGORY, DataChangeEvent.Action.UPDATED,
+                category.getCategoryId(), category);
     }
 
     public void deleteCategory(int categoryId) throws SQLException {
         // 检查是否有题目使用该分类
-        List<Question> questions = questionDAO.searchQuestions(null, categoryId, null, null);
-        if (!questions.isEmpty()) {
+        if (questionDAO.existsByCategory(categoryId)) {
             throw new SQLException("该分类下存在题目，无法删除");
         }
         categoryDAO.deleteCategory(categoryId);
+        DataChangeBus.publish(DataChangeEvent.EntityType.CATEGORY, DataChangeEvent.Action.DELETED, categoryId, null);
     }
 
     public QuestionCategory getCategoryById(int categoryId) throws SQLException {
@@ -105,19 +190,23 @@ public class QuestionService {
     // 难度管理
     public void addDifficulty(QuestionDifficulty difficulty) throws SQLException {
         difficultyDAO.addDifficulty(difficulty);
+        DataChangeBus.publish(DataChangeEvent.EntityType.DIFFICULTY, DataChangeEvent.Action.ADDED,
+                difficulty.getDifficultyId(), difficulty);
     }
 
     public void updateDifficulty(QuestionDifficulty difficulty) throws SQLException {
         difficultyDAO.updateDifficulty(difficulty);
+        DataChangeBus.publish(DataChangeEvent.EntityType.DIFFICULTY, DataChangeEvent.Action.UPDATED,
+                difficulty.getDifficultyId(), difficulty);
     }
 
     public void deleteDifficulty(int difficultyId) throws SQLException {
         // 检查是否有题目使用该难度
-        List<Question> questions = questionDAO.searchQuestions(null, null, difficultyId, null);
-        if (!questions.isEmpty()) {
+        if (questionDAO.existsByDifficulty(difficultyId)) {
             throw new SQLException("该难度下存在题目，无法删除");
         }
         difficultyDAO.deleteDifficulty(difficultyId);
+        DataChangeBus.publish(DataChangeEvent.EntityType.DIFFICULTY, DataChangeEvent.Action.DELETED, difficultyId, null);
     }
 
     public QuestionDifficulty getDifficultyById(int difficultyId) throws SQLException {
@@ -133,48 +222,21 @@ public class QuestionService {
         return userDAO.getAllUsers();
     }
 
-    // 辅助方法：根据ID获取分类名称
+    // 辅助方法：根据ID获取分类名称（读取共享缓存，不存在时返回空字符串）
     public String getCategoryNameById(int categoryId) {
-        try {
-            logger.info("获取分类名称: categoryId=" + categoryId);
-            QuestionCategory category = categoryDAO.getCategoryById(categoryId);
-            String name = category != null ? category.getCategoryName() : "";
-            logger.info("分类名称: " + name);
-            return name;
-        } catch (Exception e) {
-            logger.severe("获取分类名称失败: " + e.getMessage());
-            e.printStackTrace();
-            return "";
-        }
+        String name = ReferenceDataCache.getCategoryName(categoryId);
+        return name != null ? name : "";
     }
 
     // 辅助方法：根据ID获取难度名称
     public String getDifficultyLevelById(int difficultyId) {
-        try {
-            logger.info("获取难度名称: difficultyId=" + difficultyId);
-            QuestionDifficulty difficulty = difficultyDAO.getDifficultyById(difficultyId);
-            String name = difficulty != null ? difficulty.getDifficultyLevel() : "";
-            logger.info("难度名称: " + name);
-            return name;
-        } catch (Exception e) {
-            logger.severe("获取难度名称失败: " + e.getMessage());
-            e.printStackTrace();
-            return "";
-        }
+        String name = ReferenceDataCache.getDifficultyLevel(difficultyId);
+        return name != null ? name : "";
     }
 
     // 辅助方法：根据ID获取用户名称
     public String getUserNameById(int userId) {
-        try {
-            logger.info("获取用户名称: userId=" + userId);
-            User user = userDAO.getUserById(userId);
-            String name = user != null ? user.getRealName() : "";
-            logger.info("用户名称: " + name);
-            return name;
-        } catch (Exception e) {
-            logger.severe("获取用户名称失败: " + e.getMessage());
-            e.printStackTrace();
-            return "";
-        }
+        String name = ReferenceDataCache.getUserRealName(userId);
+        return name != null ? name : "";
     }
-}
\ No newline at end of file
+}
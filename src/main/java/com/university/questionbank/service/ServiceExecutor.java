@@ -0,0 +1,98 @@
+package com.university.questionbank.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * 服务层异步调用使用的执行器
+ * 运行在支持虚拟线程的 JDK（21 及以上）上时每个任务一个虚拟线程，否则使用有界线程池。
+ * 系统属性 async.virtualThreads=false 强制使用线程池，async.maxThreads 设置线程池大小（默认 8）。
+ * 返回的 CompletableFuture 被取消或超时时会中断正在执行的任务。
+ */
+public final class ServiceExecutor {
+    private static final Logger logger = Logger.getLogger(ServiceExecutor.class.getName());
+
+    private static final int DEFAULT_MAX_THREADS = 8;
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private ServiceExecutor() {
+    }
+
+    private static ExecutorService createExecutor() {
+        if (Boolean.parseBoolean(System.getProperty("async.virtualThreads", "true"))) {
+            try {
+                // 按 Java 11 编译，通过反射调用 JDK 21 的 Executors.newVirtualThreadPerTaskExecutor()
+                ExecutorService executor = (ExecutorService) java.util.concurrent.Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                logger.info("服务层异步调用使用虚拟线程");
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                // 当前 JDK 不支持虚拟线程
+            }
+        }
+
+        int maxThreads = Math.max(1, Integer.getInteger("async.maxThreads", DEFAULT_MAX_THREADS));
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    // 守护线程不阻止程序退出
+                    Thread thread = new Thread(runnable, "service-async-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        logger.info("服务层异步调用使用线程池，最多 " + maxThreads + " 个线程");
+        return executor;
+    }
+
+    // 共享的执行器，供需要直接提交任务的调用方使用（不暴露关闭方法）
+    public static Executor executor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * 在执行器上运行任务
+     * @param timeoutMillis 超过该时间未完成时以 TimeoutException 结束并中断任务；不大于 0 时不限时
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> task, long timeoutMillis) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = EXECUTOR.submit(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        if (timeoutMillis > 0) {
+            result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        // 取消或超时后中断仍在执行的任务（正常完成时 cancel 没有作用）
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 取出 CompletableFuture 失败的原始异常（去掉 CompletionException/ExecutionException 包装）
+     */
+    public static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
@@ -0,0 +1,154 @@
+package com.university.questionbank.service;
+
+import com.university.questionbank.dao.DAOFactory;
+import com.university.questionbank.dao.QuestionDAO;
+import com.university.questionbank.model.Question;
+import com.university.questionbank.util.DataChangeBus;
+import com.university.questionbank.util.DataChangeEvent;
+import com.university.questionbank.util.MinHashIndex;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * 相似题目查询
+ * 进程内共享一个 MinHash/LSH 索引，第一次查询时分页读取全部题目建立，
+ * 之后订阅 DataChangeBus，在新增、修改、删除题目时增量维护。
+ * 其他客户端的修改不会自动同步，需要时调用 rebuildIndex()。
+ */
+public class SimilarQuestionService {
+    private static final Logger logger = Logger.getLogger(SimilarQuestionService.class.getName());
+
+    public static final double DEFAULT_MIN_SIMILARITY = 0.6;
+    public static final int DEFAULT_LIMIT = 10;
+
+    private static final int BUILD_PAGE_SIZE = 1000;
+
+    private static final MinHashIndex INDEX = new MinHashIndex();
+    private static final Object BUILD_LOCK = new Object();
+    private static volatile boolean indexBuilt;
+
+    static {
+        DataChangeBus.subscribe(SimilarQuestionService::onDataChanged);
+    }
+
+    /**
+     * 相似题目及其估算相似度
+     */
+    public static class SimilarQuestion {
+        private final Question question;
+        private final double similarity;
+
+        SimilarQuestion(Question question, double similarity) {
+            this.question = question;
+            this.similarity = similarity;
+        }
+
+        public Question getQuestion() {
+            return question;
+        }
+
+        public double getSimilarity() {
+            return similarity;
+        }
+    }
+
+    private final QuestionDAO questionDAO;
+
+    public SimilarQuestionService() {
+        this.questionDAO = DAOFactory.createQuestionDAO();
+    }
+
+    /**
+     * 查找与已有题目相似的题目（不含它自己）
+     */
+    public List<SimilarQuestion> findSimilarQuestions(int questionId, double minSimilarity, int limit) throws SQLException {
+        Question question = questionDAO.getQuestionById(questionId);
+        if (question == null) {
+            return new ArrayList<>();
+        }
+        return findSimilarQuestions(question, minSimilarity, limit);
+    }
+
+    /**
+     * 查找与给定内容相似的题目，可用于保存新题目前的提示；question 的ID为 0 时不排除任何题目
+     */
+    public List<SimilarQuestion> findSimilarQuestions(Question question, double minSimilarity, int limit) throws SQLException {
+        ensureIndexBuilt();
+
+        List<MinHashIndex.Match> matches = INDEX.query(MinHashIndex.signature(question),
+                question.getQuestionId(), minSimilarity, limit);
+        List<SimilarQuestion> result = new ArrayList<>(matches.size());
+        for (MinHashIndex.Match match : matches) {
+            Question similar = questionDAO.getQuestionById(match.getQuestionId());
+            if (similar == null) {
+                // 已被其他客户端删除
+                INDEX.remove(match.getQuestionId());
+                continue;
+            }
+            result.add(new SimilarQuestion(similar, match.getSimilarity()));
+        }
+        return result;
+    }
+
+    /**
+     * 丢弃现有索引，从数据库重新建立
+     */
+    public void rebuildIndex() throws SQLException {
+        synchronized (BUILD_LOCK) {
+            indexBuilt = false;
+            INDEX.clear();
+            buildIndex();
+        }
+    }
+
+    private void ensureIndexBuilt() throws SQLException {
+        if (indexBuilt) {
+            return;
+        }
+        synchronized (BUILD_LOCK) {
+            if (!indexBuilt) {
+                buildIndex();
+            }
+        }
+    }
+
+    // 按游标分页读取，内存中只保留签名；建立期间的增量更新直接写入索引，put 可重复执行
+    private void buildIndex() throws SQLException {
+        long startTime = System.currentTimeMillis();
+        String createdAt = null;
+        int lastId = 0;
+        List<Question> page;
+        do {
+            page = questionDAO.getQuestionsAfter(createdAt, lastId, BUILD_PAGE_SIZE);
+            for (Question question : page) {
+                INDEX.put(question.getQuestionId(), MinHashIndex.signature(question));
+            }
+            if (!page.isEmpty()) {
+                Question last = page.get(page.size() - 1);
+                createdAt = last.getCreatedAt();
+                lastId = last.getQuestionId();
+            }
+        } while (page.size() == BUILD_PAGE_SIZE);
+
+        indexBuilt = true;
+        logger.info("相似题目索引已建立，共 " + INDEX.size() + " 道题目，耗时 " + (System.currentTimeMillis() - startTime) + "ms");
+    }
+
+    /**
+     * 题目新增或修改后更新索引（ID 必须已生成），删除后移除
+     * 索引尚未建立时也写入，建立过程中新增的题目不会遗漏
+     */
+    private static void onDataChanged(DataChangeEvent event) {
+        if (event.getEntityType() != DataChangeEvent.EntityType.QUESTION || event.getEntityId() <= 0) {
+            return;
+        }
+        if (event.getAction() == DataChangeEvent.Action.DELETED) {
+            INDEX.remove(event.getEntityId());
+        } else if (event.getEntity() instanceof Question) {
+            INDEX.put(event.getEntityId(), MinHashIndex.signature((Question) event.getEntity()));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.university.questionbank.service;
+
+import com.university.questionbank.dao.DAOFactory;
+import com.university.questionbank.dao.StatisticsDAO;
+import com.university.questionbank.model.SystemStatistics;
+import com.university.questionbank.util.DataChangeBus;
+
+import java.sql.SQLException;
+
+public class StatisticsService {
+    // 统计结果缓存时间（毫秒），短时间内重复打开统计面板直接使用缓存
+    private static final long CACHE_TTL_MILLIS = 30_000L;
+
+    // 缓存在所有 StatisticsService 实例间共享
+    private static final Object CACHE_LOCK = new Object();
+    private static volatile SystemStatistics cachedStatistics;
+    private static volatile long cachedAt;
+
+    // 任何数据变更都可能影响统计结果
+    static {
+        DataChangeBus.subscribe(event -> invalidateCache());
+    }
+
+    private StatisticsDAO statisticsDAO = DAOFactory.createStatisticsDAO();
+
+    // 获取系统统计数据（缓存未过期时直接返回）
+    public SystemStatistics getSystemStatistics() throws SQLException {
+        return getSystemStatistics(false);
+    }
+
+    // 获取系统统计数据，forceRefresh 为 true 时忽略缓存重新查询
+    public SystemStatistics getSystemStatistics(boolean forceRefresh) throws SQLException {
+        SystemStatistics statistics = cachedStatistics;
+        if (!forceRefresh && statistics != null && System.currentTimeMillis() - cachedAt < CACHE_TTL_MILLIS) {
+            return statistics;
+        }
+
+        // 同一时刻只查询一次，其余调用等待并复用结果
+        synchronized (CACHE_LOCK) {
+            statistics = cachedStatistics;
+            if (!forceRefresh && statistics != null && System.currentTimeMillis() - cachedAt < CACHE_TTL_MILLIS) {
+                return statistics;
+            }
+            statistics = statisticsDAO.getSystemStatistics();
+            cachedAt = System.currentTimeMillis();
+            cachedStatistics = statistics;
+            return statistics;
+        }
+    }
+
+    // 清除统计缓存（数据变更后调用）
+    public static void invalidateCache() {
+        cachedStatistics = null;
+    }
+}
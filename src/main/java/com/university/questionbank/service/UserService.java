@@ -4,8 +4,11 @@ import com.university.questionbank.dao.RoleDAO;
 import com.university.questionbank.dao.UserDAO;
 import com.university.questionbank.dao.QuestionDAO;
 import com.university.questionbank.dao.DAOFactory;
+import com.university.questionbank.dao.ReferenceDataCache;
 import com.university.questionbank.model.Role;
 import com.university.questionbank.model.User;
+import com.university.questionbank.util.DataChangeBus;
+import com.university.questionbank.util.DataChangeEvent;
 import com.university.questionbank.util.PasswordUtil;
 
 import java.sql.SQLException;
@@ -52,7 +55,10 @@ public class UserService {
         // 对于 REST API 模式，需要单独查询 Role 对象
         if (user.getRole() == null && user instanceof com.university.questionbank.model.User) {
             try {
-                Role role = roleDAO.getRoleById(user.getRoleId());
+                Role role = ReferenceDataCache.getRole(user.getRoleId());
+                if (role == null) {
+                    role = roleDAO.getRoleById(user.getRoleId());
+                }
                 user.setRole(role);
             } catch (Exception e) {
                 // 如果查询 Role 失败，创建一个默认的 Role
@@ -89,6 +95,7 @@ public class UserService {
         user.setPassword(PasswordUtil.hashPassword(user.getPassword()));
         
         userDAO.addUser(user);
+        DataChangeBus.publish(DataChangeEvent.EntityType.USER, DataChangeEvent.Action.ADDED, user.getUserId(), user);
     }
 
     // 更新用户
@@ -102,42 +109,31 @@ public class UserService {
         }
         
         userDAO.updateUser(user);
+        DataChangeBus.publish(DataChangeEvent.EntityType.USER, DataChangeEvent.Action.UPDATED, user.getUserId(), user);
     }
 
     // 删除用户
     public void deleteUser(int userId) throws SQLException {
         userDAO.deleteUser(userId);
+        DataChangeBus.publish(DataChangeEvent.EntityType.USER, DataChangeEvent.Action.DELETED, userId, null);
     }
 
     // 检查用户是否有关联的题目
     public boolean userHasQuestions(int userId) throws SQLException {
-        List<?> questions = questionDAO.searchQuestions(null, null, null, null);
-        for (Object q : questions) {
-            if (q instanceof com.university.questionbank.model.Question) {
-                com.university.questionbank.model.Question question = (com.university.questionbank.model.Question) q;
-                if (question.getCreatorId() == userId) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return questionDAO.existsByCreator(userId);
     }
 
-    // 删除用户创建的所有题目
+    // 删除用户创建的所有题目（一条语句完成）
     public void deleteUserQuestions(int userId) throws SQLException {
-        List<?> questions = questionDAO.searchQuestions(null, null, null, null);
-        for (Object q : questions) {
-            if (q instanceof com.university.questionbank.model.Question) {
-                com.university.questionbank.model.Question question = (com.university.questionbank.model.Question) q;
-                if (question.getCreatorId() == userId) {
-                    questionDAO.deleteQuestion(question.getQuestionId());
-                }
-            }
+        for (int questionId : questionDAO.deleteQuestionsByCreator(userId)) {
+            DataChangeBus.publish(DataChangeEvent.EntityType.QUESTION, DataChangeEvent.Action.DELETED, questionId, null);
         }
     }
 
     // 启用/禁用用户
     public void updateUserStatus(int userId, int status) throws SQLException {
         userDAO.updateUserStatus(userId, status);
+        // 只修改了状态，事件中不带用户对象
+        DataChangeBus.publish(DataChangeEvent.EntityType.USER, DataChangeEvent.Action.UPDATED, userId, null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,458 @@
+package com.university.questionbank.util;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * 有界 JDBC 连接池
+ * 借出的连接是代理对象，调用 close() 时归还到池中而不是关闭底层连接，
+ * 因此 DAO 可以继续使用 try-with-resources。
+ * 每个物理连接还带有一个按 SQL 文本索引的 PreparedStatement 缓存，
+ * 相同形状的 SQL 在同一连接上只预编译一次。
+ */
+public class ConnectionPool implements DataSource {
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    // 空闲连接（后进先出，最近使用的连接优先借出）
+    private final BlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    // 控制同时借出的连接数不超过 maxSize
+    private final Semaphore permits;
+    // 当前打开的物理连接数
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    public ConnectionPool(String url, String username, String password,
+                          int minSize, int maxSize, long idleTimeoutMillis,
+                          long borrowTimeoutMillis, int validationTimeoutSeconds) {
+        this(url, username, password, minSize, maxSize, idleTimeoutMillis,
+                borrowTimeoutMillis, validationTimeoutSeconds, 0);
+    }
+
+    public ConnectionPool(String url, String username, String password,
+                          int minSize, int maxSize, long idleTimeoutMillis,
+                          long borrowTimeoutMillis, int validationTimeoutSeconds,
+                          int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("连接池最大连接数必须大于0: " + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minSize = Math.max(0, Math.min(minSize, maxSize));
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1000L, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, interval, interval, TimeUnit.MILLISECONDS);
+
+        fillToMinimum();
+        logger.info("连接池已创建: min=" + this.minSize + ", max=" + maxSize
+                + ", statementCache=" + this.statementCacheSize + ", url=" + url);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("连接池已关闭");
+        }
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("获取数据库连接超时（" + borrowTimeoutMillis + " ms），连接池已满: " + maxSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("等待数据库连接时被中断", e);
+        }
+
+        try {
+            PooledEntry entry;
+            while ((entry = idle.pollFirst()) != null) {
+                if (isUsable(entry.connection)) {
+                    return wrap(entry);
+                }
+                discard(entry);
+            }
+            return wrap(new PooledEntry(openPhysicalConnection()));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("连接池不支持按用户获取连接");
+    }
+
+    /**
+     * 关闭连接池及所有空闲连接
+     */
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry);
+        }
+        logger.info("连接池已关闭");
+    }
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    // 归还连接：回滚未提交事务并恢复自动提交，再放回空闲队列
+    private void release(PooledEntry entry) {
+        try {
+            Connection physical = entry.connection;
+            if (closed || physical.isClosed()) {
+                discard(entry);
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            entry.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(entry);
+        } catch (SQLException e) {
+            logger.warning("归还连接失败，丢弃该连接: " + e.getMessage());
+            discard(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isUsable(Connection connection) {
+        try {
+            return !connection.isClosed() && connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection openPhysicalConnection() throws SQLException {
+        Connection connection = (username == null)
+                ? DriverManager.getConnection(url)
+                : DriverManager.getConnection(url, username, password);
+        totalConnections.incrementAndGet();
+        return connection;
+    }
+
+    private void discard(PooledEntry entry) {
+        totalConnections.decrementAndGet();
+        entry.closeStatements();
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            logger.warning("关闭物理连接失败: " + e.getMessage());
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && totalConnections.get() < minSize) {
+            try {
+                idle.offerLast(new PooledEntry(openPhysicalConnection()));
+            } catch (SQLException e) {
+                logger.warning("预创建连接失败: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // 回收空闲超时的连接，但保留 minSize 个
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        for (PooledEntry entry : idle) {
+            if (totalConnections.get() <= minSize) {
+                break;
+            }
+            if (now - entry.lastUsed > idleTimeoutMillis && idle.remove(entry)) {
+                discard(entry);
+            }
+        }
+        fillToMinimum();
+    }
+
+    private Connection wrap(PooledEntry entry) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(entry));
+    }
+
+    // 物理连接及其语句缓存；同一时刻只会被一个借用者使用
+    private class PooledEntry {
+        final Connection connection;
+        volatile long lastUsed;
+        // 按访问顺序排列的 LRU 缓存：SQL 文本 -> 预编译语句
+        final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        PooledEntry(Connection connection) {
+            this.connection = connection;
+            this.lastUsed = System.currentTimeMillis();
+        }
+
+        synchronized void closeStatements() {
+            for (CachedStatement cached : statements.values()) {
+                cached.closeQuietly();
+            }
+            statements.clear();
+        }
+
+        // 取出缓存语句；未命中时预编译并放入缓存，超出容量时淘汰最久未用且空闲的语句
+        synchronized CachedStatement checkout(String sql) throws SQLException {
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && !cached.inUse) {
+                cached.inUse = true;
+                return cached;
+            }
+            if (cached != null) {
+                // 同一 SQL 被嵌套使用，额外预编译一个不缓存的语句
+                return null;
+            }
+
+            cached = new CachedStatement(connection.prepareStatement(sql));
+            cached.inUse = true;
+            statements.put(sql, cached);
+
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (statements.size() > statementCacheSize && it.hasNext()) {
+                CachedStatement eldest = it.next();
+                if (!eldest.inUse) {
+                    eldest.closeQuietly();
+                    it.remove();
+                }
+            }
+            return cached;
+        }
+    }
+
+    private static class CachedStatement {
+        final PreparedStatement statement;
+        boolean inUse;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                logger.fine("关闭缓存语句失败: " + e.getMessage());
+            }
+        }
+    }
+
+    // 代理借出的连接：close() 归还到池中，关闭后禁止继续使用
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private volatile boolean returned = false;
+
+        PooledConnectionHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Connection physical = entry.connection;
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (returned) {
+                            return null;
+                        }
+                        returned = true;
+                    }
+                    release(entry);
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(physical)) {
+                        return physical;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                case "prepareStatement":
+                    if (statementCacheSize > 0 && !returned && args.length == 1) {
+                        CachedStatement cached = entry.checkout((String) args[0]);
+                        if (cached != null) {
+                            return wrapStatement(cached, (Connection) proxy);
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("连接已归还到连接池");
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private PreparedStatement wrapStatement(CachedStatement cached, Connection connectionProxy) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new CachedStatementHandler(entry, cached, connectionProxy));
+        }
+    }
+
+    // 代理缓存语句：close() 只清空参数并标记为空闲，物理语句留在缓存中复用
+    private static class CachedStatementHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private final CachedStatement cached;
+        private final Connection connectionProxy;
+        private ResultSet lastResultSet;
+        private boolean closed = false;
+
+        CachedStatementHandler(PooledEntry entry, CachedStatement cached, Connection connectionProxy) {
+            this.entry = entry;
+            this.cached = cached;
+            this.connectionProxy = connectionProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            PreparedStatement statement = cached.statement;
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        try {
+                            if (lastResultSet != null) {
+                                lastResultSet.close();
+                            }
+                            statement.clearParameters();
+                            statement.clearBatch();
+                        } finally {
+                            synchronized (entry) {
+                                cached.inUse = false;
+                            }
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return connectionProxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("语句已关闭");
+            }
+            try {
+                Object result = method.invoke(statement, args);
+                if (result instanceof ResultSet) {
+                    lastResultSet = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() {
+        return logger;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("无法转换为 " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
@@ -0,0 +1,46 @@
+package com.university.questionbank.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+/**
+ * 进程内的数据变更通知
+ * Service 层修改数据后调用 publish()，各缓存和打开的窗口订阅后只更新受影响的条目，
+ * 不必清空全部缓存或重新查询整个列表。其他客户端的修改不会产生事件。
+ */
+public class DataChangeBus {
+    private static final Logger logger = Logger.getLogger(DataChangeBus.class.getName());
+
+    // 发布远多于订阅，遍历时不加锁
+    private static final List<DataChangeListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private DataChangeBus() {
+    }
+
+    public static void subscribe(DataChangeListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void unsubscribe(DataChangeListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * 依次通知所有订阅者；某个订阅者出错只记录日志，不影响其他订阅者和发布方
+     */
+    public static void publish(DataChangeEvent event) {
+        for (DataChangeListener listener : LISTENERS) {
+            try {
+                listener.onDataChanged(event);
+            } catch (RuntimeException e) {
+                logger.warning("处理数据变更事件失败 (" + event + "): " + e.getMessage());
+            }
+        }
+    }
+
+    public static void publish(DataChangeEvent.EntityType entityType, DataChangeEvent.Action action,
+                               int entityId, Object entity) {
+        publish(new DataChangeEvent(entityType, action, entityId, entity));
+    }
+}
@@ -0,0 +1,52 @@
+package com.university.questionbank.util;
+
+/**
+ * 数据变更事件，由 Service 层在新增、修改、删除成功后发布
+ */
+public class DataChangeEvent {
+
+    public enum EntityType {
+        QUESTION, CATEGORY, DIFFICULTY, USER, ROLE
+    }
+
+    public enum Action {
+        ADDED, UPDATED, DELETED
+    }
+
+    private final EntityType entityType;
+    private final Action action;
+    private final int entityId;
+    private final Object entity;
+
+    /**
+     * @param entityId 变更对象的ID，新增后未能取得ID时为 0
+     * @param entity   变更后的对象，删除或只改了部分字段时为 null；题目批量修改分类、难度时为 QuestionSummary
+     */
+    public DataChangeEvent(EntityType entityType, Action action, int entityId, Object entity) {
+        this.entityType = entityType;
+        this.action = action;
+        this.entityId = entityId;
+        this.entity = entity;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public Object getEntity() {
+        return entity;
+    }
+
+    @Override
+    public String toString() {
+        return entityType + " " + action + " id=" + entityId;
+    }
+}
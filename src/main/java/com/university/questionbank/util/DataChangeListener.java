@@ -0,0 +1,10 @@
+package com.university.questionbank.util;
+
+/**
+ * 数据变更回调
+ * 在发布变更的线程中同步调用（通常是后台线程），更新界面时需切回 EDT
+ */
+@FunctionalInterface
+public interface DataChangeListener {
+    void onDataChanged(DataChangeEvent event);
+}
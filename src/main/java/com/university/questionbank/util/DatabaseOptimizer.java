@@ -1,17 +1,25 @@
 package com.university.questionbank.util;
 
+import com.university.questionbank.dao.impl.QuestionDAOImpl;
+
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Logger;
 
 /**
  * 数据库优化工具类
  * 用于创建数据库索引和优化查询性能
  */
 public class DatabaseOptimizer {
+    private static final Logger logger = Logger.getLogger(DatabaseOptimizer.class.getName());
+
+    // content_hash 列是否存在，null 表示本进程还未检查
+    private static volatile Boolean contentHashColumnAvailable;
 
     private final Connection connection;
 
@@ -52,6 +60,15 @@ public class DatabaseOptimizer {
             }
         }
 
+        // 内容指纹索引依赖的列可能还不存在，单独处理
+        if (ensureContentHashColumn()) {
+            successCount++;
+            System.out.println("[OK] content_hash 列及索引就绪");
+        } else {
+            errorCount++;
+            System.err.println("[ERROR] 无法添加 content_hash 列");
+        }
+
         System.out.println("\n========================================");
         System.out.println("索引创建完成！");
         System.out.println("========================================");
@@ -65,6 +82,70 @@ public class DatabaseOptimizer {
         }
     }
 
+    /**
+     * questions 表是否有 content_hash 列（导入查重用，见 创建题目指纹.sql）
+     * 只读取表结构，不执行任何 DDL；第一次调用时检查，结果在进程内缓存。
+     * 返回 false 时调用方使用不含该列的语句，查重只在本次导入内进行；
+     * 之后执行脚本或 createAllIndexes 添加了该列，需重启程序才会使用
+     */
+    public static boolean isContentHashColumnAvailable() {
+        Boolean available = contentHashColumnAvailable;
+        if (available == null) {
+            synchronized (DatabaseOptimizer.class) {
+                available = contentHashColumnAvailable;
+                if (available == null) {
+                    try (Connection conn = DatabaseUtil.getConnection()) {
+                        available = new DatabaseOptimizer(conn).hasColumn("questions", "content_hash");
+                    } catch (SQLException e) {
+                        // 连接失败不缓存结果，下次再检查
+                        logger.warning("检查 content_hash 列失败: " + e.getMessage());
+                        return false;
+                    }
+                    if (!available) {
+                        logger.warning("questions 表缺少 content_hash 列，导入查重只在本次导入内进行，请执行 创建题目指纹.sql");
+                    }
+                    contentHashColumnAvailable = available;
+                }
+            }
+        }
+        return available;
+    }
+
+    /**
+     * 确保 questions 表有 content_hash 列及其索引
+     * 会锁表，只在 createAllIndexes 等显式的维护操作中调用，不在普通写入路径上执行
+     * @return 列已存在或添加成功时返回 true；没有 ALTER TABLE 权限等原因添加失败时返回 false
+     */
+    public boolean ensureContentHashColumn() {
+        try {
+            if (!hasColumn("questions", "content_hash")) {
+                // 不使用 IF NOT EXISTS，SQLite 不支持
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("ALTER TABLE questions ADD COLUMN content_hash BIGINT");
+                }
+                logger.info("已为 questions 表添加 content_hash 列");
+            }
+        } catch (SQLException e) {
+            logger.warning("无法添加 content_hash 列，请执行 创建题目指纹.sql: " + e.getMessage());
+            return false;
+        }
+
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_questions_content_hash ON questions(content_hash)");
+        } catch (SQLException e) {
+            // 没有索引只影响查重速度
+            logger.warning("创建 content_hash 索引失败: " + e.getMessage());
+        }
+        contentHashColumnAvailable = true;
+        return true;
+    }
+
+    private boolean hasColumn(String table, String column) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getColumns(null, null, table, column)) {
+            return rs.next();
+        }
+    }
+
     /**
      * 获取所有索引创建语句
      */
@@ -119,6 +200,12 @@ public class DatabaseOptimizer {
             "ON questions(creator_id, created_at DESC);"
         );
 
+        // 9. 复合索引（游标分页：创建时间+题目ID）
+        statements.add(
+            "CREATE INDEX IF NOT EXISTS idx_questions_created_id " +
+            "ON questions(created_at DESC, question_id DESC);"
+        );
+
         return statements;
     }
 
@@ -241,6 +328,50 @@ public class DatabaseOptimizer {
         System.out.println("========================================");
     }
 
+    /**
+     * 测试预编译语句复用的效果
+     * 对按分类搜索的 SQL（与 QuestionDAOImpl 实际执行的文本相同）分别采用"每次重新解析/规划"和
+     * "服务端预编译后复用"两种方式执行，比较平均耗时，差值即每次搜索节省的解析与规划时间。
+     * 结果写入日志
+     */
+    public void testStatementReusePerformance(int iterations) throws SQLException {
+        String sql = QuestionDAOImpl.getSearchSql(null, 1, null, null);
+        logger.info("预编译语句复用测试（" + iterations + " 次）: " + sql);
+
+        // 预热，排除首次建立会话等因素
+        runSearch(sql, 0, 5);
+
+        long reparseNanos = runSearch(sql, 0, iterations);
+        long reuseNanos = runSearch(sql, 1, iterations);
+
+        double reparseAvg = reparseNanos / 1_000_000.0 / iterations;
+        double reuseAvg = reuseNanos / 1_000_000.0 / iterations;
+        logger.info(String.format("每次重新解析规划: 平均 %.3f ms，服务端预编译复用: 平均 %.3f ms，每次搜索节省: %.3f ms",
+                reparseAvg, reuseAvg, reparseAvg - reuseAvg));
+    }
+
+    // prepareThreshold 为 0 时驱动每次都发送未命名语句，服务端需重新解析和规划
+    // 使用带结果集类型参数的 prepareStatement，连接池不缓存这种语句，修改 prepareThreshold 不会影响业务查询
+    private long runSearch(String sql, int prepareThreshold, int iterations) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            if (pstmt.isWrapperFor(org.postgresql.PGStatement.class)) {
+                pstmt.unwrap(org.postgresql.PGStatement.class).setPrepareThreshold(prepareThreshold);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                pstmt.setInt(1, 1);
+                pstmt.setInt(2, 20);
+                pstmt.setInt(3, 0);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        // 只消费结果，不做处理
+                    }
+                }
+            }
+            return System.nanoTime() - start;
+        }
+    }
+
     /**
      * 清理未使用的索引（慎用！）
      */
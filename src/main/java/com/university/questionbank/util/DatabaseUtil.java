@@ -2,66 +2,73 @@ package com.university.questionbank.util;
 
 import com.university.questionbank.config.DatabaseConfig;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.logging.Logger;
 
 public class DatabaseUtil {
     private static final Logger logger = Logger.getLogger(DatabaseUtil.class.getName());
 
-    private static Connection connection;
+    // volatile + 双重检查，保证多个 SwingWorker 并发调用时只创建一个连接池
+    private static volatile ConnectionPool pool;
 
+    /**
+     * 从连接池借出连接，调用方用 try-with-resources 关闭即归还到池中
+     */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            DatabaseConfig config = DatabaseConfig.getInstance();
-            String url = config.getJdbcUrl();
-            String username = config.getUsername();
-            String password = config.getPassword();
+        return getDataSource().getConnection();
+    }
 
-            logger.info("正在连接数据库: " + url);
+    /**
+     * 获取连接池数据源（首次调用时按 DatabaseConfig 创建）
+     */
+    public static DataSource getDataSource() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseUtil.class) {
+                current = pool;
+                if (current == null) {
+                    DatabaseConfig config = DatabaseConfig.getInstance();
+                    String url = config.getJdbcUrl();
 
-            try {
-                if (config.isSQLite()) {
-                    // SQLite 不需要用户名和密码
-                    connection = DriverManager.getConnection(url);
-                } else {
-                    // PostgreSQL 需要用户名和密码
-                    connection = DriverManager.getConnection(url, username, password);
+                    logger.info("正在创建数据库连接池: " + url);
+                    current = new ConnectionPool(
+                            url,
+                            // SQLite 不需要用户名和密码
+                            config.isSQLite() ? null : config.getUsername(),
+                            config.isSQLite() ? null : config.getPassword(),
+                            config.getPoolMinSize(),
+                            config.getPoolMaxSize(),
+                            config.getPoolIdleTimeout(),
+                            config.getPoolBorrowTimeout(),
+                            config.getPoolValidationTimeout(),
+                            config.getPoolStatementCacheSize());
+                    pool = current;
                 }
-                logger.info("数据库连接成功");
-            } catch (SQLException e) {
-                logger.severe("数据库连接失败: " + e.getMessage());
-                throw e;
             }
         }
-        return connection;
+        return current;
     }
 
     public static boolean testConnection() throws SQLException {
-        try {
-            Connection conn = getConnection();
-            if (conn != null) {
-                conn.close();
-                return true;
-            }
-            return false;
+        try (Connection conn = getConnection()) {
+            return conn != null;
         } catch (SQLException e) {
             logger.warning("数据库连接测试失败: " + e.getMessage());
             throw e;
         }
     }
 
-    public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                logger.info("数据库连接已关闭");
-            } catch (SQLException e) {
-                logger.warning("关闭数据库连接失败: " + e.getMessage());
-            }
-            connection = null;
+    /**
+     * 关闭连接池及其所有物理连接
+     */
+    public static synchronized void closeConnection() {
+        ConnectionPool current = pool;
+        if (current != null) {
+            pool = null;
+            current.close();
+            logger.info("数据库连接池已关闭");
         }
     }
 }
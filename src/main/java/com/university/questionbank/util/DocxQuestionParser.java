@@ -1,11 +1,19 @@
 package com.university.questionbank.util;
 
-import org.apache.poi.xwpf.usermodel.*;
 import com.university.questionbank.model.Question;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.*;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.regex.*;
 
 /**
@@ -19,6 +27,24 @@ import java.util.regex.*;
  */
 public class DocxQuestionParser {
 
+    // 所有正则只编译一次，逐行用 lookingAt 匹配行首
+    private static final Pattern QUESTION_START_PATTERN = Pattern.compile("(\\d+\\s*[.、．]|第\\d+题)\\s*");
+    private static final Pattern OPTION_PATTERN = Pattern.compile("([A-D])[.、．]\\s*");
+    private static final Pattern ANSWER_PATTERN = Pattern.compile("(答案|正确答案|标准答案)[:：]\\s*");
+    private static final Pattern EXPLANATION_PATTERN = Pattern.compile("(解析|解释|说明)[:：]\\s*");
+    private static final Pattern TYPE_PATTERN = Pattern.compile("\\((单选|多选|选择|填空|简答|论述)题\\)");
+
+    private static final String WORD_NAMESPACE = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // 文档来自用户，禁止 DTD 和外部实体
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
     /**
      * 从docx文件中解析题目
      * @param filePath docx文件路径
@@ -27,221 +53,333 @@ public class DocxQuestionParser {
      */
     public static List<Question> parseQuestions(String filePath) throws IOException {
         List<Question> questions = new ArrayList<>();
-        
-        try (FileInputStream fis = new FileInputStream(filePath);
-             XWPFDocument document = new XWPFDocument(fis)) {
-            
-            // 获取所有段落
-            List<XWPFParagraph> paragraphs = document.getParagraphs();
-            StringBuilder contentBuilder = new StringBuilder();
-            
-            for (XWPFParagraph paragraph : paragraphs) {
-                String text = paragraph.getText().trim();
-                if (!text.isEmpty()) {
-                    contentBuilder.append(text).append("\n");
-                }
-            }
-            
-            String content = contentBuilder.toString();
-            questions = parseQuestionText(content);
-        }
-        
+        parseQuestions(filePath, questions::add);
         return questions;
     }
 
     /**
-     * 解析题目文本
-     * @param text 题目文本
-     * @return 题目列表
+     * 流式解析docx文件：逐段落读取正文 XML，每解析完一道题立即交给 sink。
+     * 不构建整个文档的对象模型，内存占用与文档页数无关；sink 抛出的运行时异常会中止解析
+     * @param filePath docx文件路径
+     * @param sink 接收题目的回调，在调用线程中执行
+     * @throws IOException 文件读取异常
      */
-    private static List<Question> parseQuestionText(String text) {
-        List<Question> questions = new ArrayList<>();
-        
-        // 使用正则表达式分割题目（以数字+点或数字+空格开头）
-        Pattern questionPattern = Pattern.compile("(?m)^(\\d+\\s*[.、．]|第\\d+题).+$", Pattern.MULTILINE);
-        Matcher questionMatcher = questionPattern.matcher(text);
-        
-        List<Integer> startIndices = new ArrayList<>();
-        while (questionMatcher.find()) {
-            startIndices.add(questionMatcher.start());
-        }
-        
-        // 提取每个题目
-        for (int i = 0; i < startIndices.size(); i++) {
-            int startIndex = startIndices.get(i);
-            int endIndex = (i < startIndices.size() - 1) ? startIndices.get(i + 1) : text.length();
-            
-            String questionText = text.substring(startIndex, endIndex).trim();
-            Question question = parseSingleQuestion(questionText);
-            
-            if (question != null && question.getQuestionContent() != null && !question.getQuestionContent().isEmpty()) {
-                questions.add(question);
-            }
-        }
-        
-        return questions;
+    public static void parseQuestions(String filePath, Consumer<Question> sink) throws IOException {
+        LineParser parser = new LineParser(sink);
+        forEachBodyParagraph(filePath, parser::acceptParagraph);
+        parser.finish();
     }
 
     /**
-     * 解析单个题目
-     * @param text 题目文本
-     * @return Question对象
+     * 按顺序读取正文中的顶层段落文本（与 XWPFDocument.getParagraphs() 范围一致，不含表格和文本框）
      */
-    private static Question parseSingleQuestion(String text) {
-        Question question = new Question();
-        
-        // 提取题目内容（第一行或第一个完整句子）
-        String questionContent = extractQuestionContent(text);
-        question.setQuestionContent(questionContent);
-        
-        // 判断题目类型
-        String questionType = detectQuestionType(text);
-        question.setQuestionType(questionType);
-        
-        // 提取选项
-        Map<String, String> options = extractOptions(text);
-        question.setOptionA(options.getOrDefault("A", ""));
-        question.setOptionB(options.getOrDefault("B", ""));
-        question.setOptionC(options.getOrDefault("C", ""));
-        question.setOptionD(options.getOrDefault("D", ""));
-        
-        // 提取答案
-        String answer = extractAnswer(text);
-        question.setCorrectAnswer(answer);
-        
-        // 提取解析
-        String explanation = extractExplanation(text);
-        question.setExplanation(explanation);
-        
-        return question;
-    }
+    private static void forEachBodyParagraph(String filePath, Consumer<String> paragraphConsumer) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(filePath, PackageAccess.READ);
+        } catch (InvalidFormatException | RuntimeException e) {
+            throw new IOException("无法打开docx文件: " + filePath + " - " + e.getMessage(), e);
+        }
 
-    /**
-     * 提取题目内容
-     */
-    private static String extractQuestionContent(String text) {
-        // 移除题号
-        String content = text.replaceFirst("^(\\d+\\s*[.、．]|第\\d+题)\\s*", "");
-        
-        // 提取题目主体（到选项或答案之前）
-        int optionIndex = findFirstOptionIndex(content);
-        int answerIndex = findAnswerIndex(content);
-        int explanationIndex = findExplanationIndex(content);
-        
-        int endIndex = content.length();
-        if (optionIndex != -1) {
-            endIndex = Math.min(endIndex, optionIndex);
+        try {
+            List<PackagePart> parts = pkg.getPartsByRelationshipType(PackageRelationshipTypes.CORE_DOCUMENT);
+            if (parts.isEmpty()) {
+                throw new IOException("docx文件中没有正文: " + filePath);
+            }
+            try (InputStream in = parts.get(0).getInputStream()) {
+                readBodyParagraphs(in, paragraphConsumer);
+            }
+        } finally {
+            // 只读打开，放弃而不是保存
+            pkg.revert();
         }
-        if (answerIndex != -1) {
-            endIndex = Math.min(endIndex, answerIndex);
+    }
+
+    private static void readBodyParagraphs(InputStream in, Consumer<String> paragraphConsumer) throws IOException {
+        XMLStreamReader reader;
+        try {
+            // XMLInputFactory 不保证线程安全，多个文件并行解析时只对创建读取器加锁
+            synchronized (XML_INPUT_FACTORY) {
+                reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("读取docx正文失败: " + e.getMessage(), e);
         }
-        if (explanationIndex != -1) {
-            endIndex = Math.min(endIndex, explanationIndex);
+
+        try {
+            StringBuilder text = new StringBuilder();
+            int depth = 0;
+            int bodyDepth = -1;
+            // 当前顶层段落的深度，-1 表示不在段落中
+            int paragraphDepth = -1;
+            // 正在跳过的子树深度（段落属性、嵌套段落、删除的修订）
+            int skipDepth = -1;
+            boolean inText = false;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (skipDepth != -1 || !WORD_NAMESPACE.equals(reader.getNamespaceURI())) {
+                        continue;
+                    }
+                    String name = reader.getLocalName();
+                    if (bodyDepth == -1) {
+                        if ("body".equals(name)) {
+                            bodyDepth = depth;
+                        }
+                    } else if (paragraphDepth == -1) {
+                        if ("p".equals(name) && depth == bodyDepth + 1) {
+                            paragraphDepth = depth;
+                            text.setLength(0);
+                        }
+                    } else {
+                        switch (name) {
+                            case "t":
+                                inText = true;
+                                break;
+                            case "tab":
+                                text.append('\t');
+                                break;
+                            case "br":
+                            case "cr":
+                                text.append('\n');
+                                break;
+                            case "pPr":
+                            case "rPr":
+                            case "p":
+                            case "del":
+                            case "moveFrom":
+                                skipDepth = depth;
+                                break;
+                            default:
+                                break;
+                        }
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                        || event == XMLStreamConstants.SPACE) {
+                    if (inText && skipDepth == -1) {
+                        text.append(reader.getText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (skipDepth == depth) {
+                        skipDepth = -1;
+                    } else if (skipDepth == -1) {
+                        if (depth == paragraphDepth) {
+                            paragraphConsumer.accept(text.toString());
+                            paragraphDepth = -1;
+                        } else if (inText && "t".equals(reader.getLocalName())) {
+                            inText = false;
+                        }
+                    }
+                    depth--;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("读取docx正文失败: " + e.getMessage(), e);
+        } finally {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // 忽略关闭异常
+            }
         }
-        
-        return content.substring(0, endIndex).trim();
     }
 
     /**
-     * 查找第一个选项的位置
+     * 逐行解析题目的状态机：题干 → 选项/答案/解析
+     * 每行只扫描一次，遇到下一题的题号或 finish() 时输出当前题目。
+     * 实例持有可复用的 Matcher，不能在多个线程间共享。
      */
-    private static int findFirstOptionIndex(String text) {
-        Pattern pattern = Pattern.compile("(?m)^[A-D][.、．]", Pattern.MULTILINE);
-        Matcher matcher = pattern.matcher(text);
-        return matcher.find() ? matcher.start() : -1;
-    }
+    public static class LineParser {
+        private final Consumer<Question> sink;
 
-    /**
-     * 查找答案的位置
-     */
-    private static int findAnswerIndex(String text) {
-        Pattern pattern = Pattern.compile("(?m)^(答案|正确答案|标准答案)[:：]", Pattern.MULTILINE);
-        Matcher matcher = pattern.matcher(text);
-        return matcher.find() ? matcher.start() : -1;
-    }
+        private final Matcher questionStartMatcher = QUESTION_START_PATTERN.matcher("");
+        private final Matcher optionMatcher = OPTION_PATTERN.matcher("");
+        private final Matcher answerMatcher = ANSWER_PATTERN.matcher("");
+        private final Matcher explanationMatcher = EXPLANATION_PATTERN.matcher("");
+        private final Matcher typeMatcher = TYPE_PATTERN.matcher("");
 
-    /**
-     * 查找解析的位置
-     */
-    private static int findExplanationIndex(String text) {
-        Pattern pattern = Pattern.compile("(?m)^(解析|解释|说明)[:：]", Pattern.MULTILINE);
-        Matcher matcher = pattern.matcher(text);
-        return matcher.find() ? matcher.start() : -1;
-    }
+        // 当前题目的解析状态，inQuestion 为 false 时表示还没遇到第一道题
+        private boolean inQuestion;
+        private boolean inContent;
+        private final StringBuilder content = new StringBuilder();
+        private final Map<String, String> options = new HashMap<>();
+        private boolean hasOptionLine;
+        private String typeHint;
+        private String answer;
+        private String explanation;
 
-    /**
-     * 检测题目类型
-     */
-    private static String detectQuestionType(String text) {
-        // 检查是否有选项
-        Pattern optionPattern = Pattern.compile("(?m)^[A-D][.、．]", Pattern.MULTILINE);
-        if (optionPattern.matcher(text).find()) {
-            return "选择题";
+        // 标注后没有内容时（如单独一行"答案："），取下一个非空行作为内容
+        private String pendingOptionKey;
+        private boolean pendingAnswer;
+        private boolean pendingExplanation;
+
+        public LineParser(Consumer<Question> sink) {
+            this.sink = sink;
         }
-        
-        // 检查题目内容中是否有类型标注
-        Pattern typePattern = Pattern.compile("(?i)\\((单选|多选|选择|填空|简答|论述)题\\)");
-        Matcher typeMatcher = typePattern.matcher(text);
-        if (typeMatcher.find()) {
-            return typeMatcher.group(1) + "题";
+
+        /**
+         * 送入一个段落的文本，段落内的换行按多行处理
+         */
+        public void acceptParagraph(String paragraphText) {
+            String text = paragraphText.trim();
+            if (text.isEmpty()) {
+                return;
+            }
+            int start = 0;
+            int newline;
+            while ((newline = text.indexOf('\n', start)) != -1) {
+                acceptLine(text.substring(start, newline));
+                start = newline + 1;
+            }
+            acceptLine(text.substring(start));
         }
-        
-        return "简答题"; // 默认为简答题
-    }
 
-    /**
-     * 提取选项
-     */
-    private static Map<String, String> extractOptions(String text) {
-        Map<String, String> options = new HashMap<>();
-        
-        Pattern pattern = Pattern.compile("(?m)^([A-D])[.、．]\\s*(.+?)(?=\\n[A-D][.、．]|$)", Pattern.MULTILINE | Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(text);
-        
-        while (matcher.find()) {
-            String optionKey = matcher.group(1);
-            String optionValue = matcher.group(2).trim();
-            
-            // 移除可能的答案标注
-            int answerIndex = findAnswerIndex(optionValue);
-            if (answerIndex != -1) {
-                optionValue = optionValue.substring(0, answerIndex).trim();
+        /**
+         * 送入一行文本
+         */
+        public void acceptLine(String line) {
+            // 题号开头（且题号后还有内容）的行开始一道新题
+            if (questionStartMatcher.reset(line).lookingAt() && questionStartMatcher.end(1) < line.length()) {
+                emit();
+                startQuestion(line, questionStartMatcher.end());
+                return;
+            }
+            if (!inQuestion) {
+                // 第一道题之前的内容（如试卷标题）忽略
+                return;
+            }
+
+            boolean isOption = optionMatcher.reset(line).lookingAt();
+            boolean isAnswer = answerMatcher.reset(line).lookingAt();
+            boolean isExplanation = explanationMatcher.reset(line).lookingAt();
+            if (isOption) {
+                hasOptionLine = true;
+            }
+            findTypeHint(line);
+
+            // 题干一直延续到第一个选项、答案或解析标注
+            if (inContent) {
+                if (isOption || isAnswer || isExplanation) {
+                    inContent = false;
+                } else {
+                    content.append('\n').append(line);
+                }
+            }
+
+            boolean blank = line.trim().isEmpty();
+
+            // 选项
+            if (pendingOptionKey != null) {
+                if (!blank) {
+                    options.put(pendingOptionKey, stripAnswer(line.trim()));
+                    pendingOptionKey = null;
+                }
+            } else if (isOption) {
+                String value = line.substring(optionMatcher.end());
+                if (value.isEmpty()) {
+                    pendingOptionKey = optionMatcher.group(1);
+                } else {
+                    options.put(optionMatcher.group(1), stripAnswer(value.trim()));
+                }
+            }
+
+            // 答案（只取第一处）
+            if (pendingAnswer) {
+                if (!blank) {
+                    answer = line.trim();
+                    pendingAnswer = false;
+                }
+            } else if (isAnswer && answer == null) {
+                String value = line.substring(answerMatcher.end()).trim();
+                if (value.isEmpty()) {
+                    pendingAnswer = true;
+                } else {
+                    answer = value;
+                }
+            }
+
+            // 解析（只取第一处）
+            if (pendingExplanation) {
+                if (!blank) {
+                    explanation = line.trim();
+                    pendingExplanation = false;
+                }
+            } else if (isExplanation && explanation == null) {
+                String value = line.substring(explanationMatcher.end()).trim();
+                if (value.isEmpty()) {
+                    pendingExplanation = true;
+                } else {
+                    explanation = value;
+                }
             }
-            
-            options.put(optionKey, optionValue);
         }
-        
-        return options;
-    }
 
-    /**
-     * 提取答案
-     */
-    private static String extractAnswer(String text) {
-        Pattern pattern = Pattern.compile("(?m)^(答案|正确答案|标准答案)[:：]\\s*(.+?)(?=\\n解析[:：]|\\n解释[:：]|$)", 
-                                         Pattern.MULTILINE | Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(text);
-        
-        if (matcher.find()) {
-            return matcher.group(2).trim();
+        /**
+         * 文档结束，输出最后一道题
+         */
+        public void finish() {
+            emit();
         }
-        
-        return "";
-    }
 
-    /**
-     * 提取解析
-     */
-    private static String extractExplanation(String text) {
-        Pattern pattern = Pattern.compile("(?m)^(解析|解释|说明)[:：]\\s*(.+?)$", 
-                                         Pattern.MULTILINE | Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(text);
-        
-        if (matcher.find()) {
-            return matcher.group(2).trim();
+        private void startQuestion(String line, int contentStart) {
+            inQuestion = true;
+            content.setLength(0);
+            options.clear();
+            hasOptionLine = false;
+            typeHint = null;
+            answer = null;
+            explanation = null;
+            pendingOptionKey = null;
+            pendingAnswer = false;
+            pendingExplanation = false;
+            findTypeHint(line);
+
+            // 去掉题号后，若本行直接以选项、答案或解析开头，则题干为空
+            String rest = line.substring(contentStart);
+            inContent = !(optionMatcher.reset(rest).lookingAt()
+                    || answerMatcher.reset(rest).lookingAt()
+                    || explanationMatcher.reset(rest).lookingAt());
+            if (inContent) {
+                content.append(rest);
+            }
+        }
+
+        private void findTypeHint(String line) {
+            if (typeHint == null && typeMatcher.reset(line).find()) {
+                typeHint = typeMatcher.group(1) + "题";
+            }
+        }
+
+        // 选项内容以答案标注开头时视为空
+        private String stripAnswer(String value) {
+            return answerMatcher.reset(value).lookingAt() ? "" : value;
+        }
+
+        private void emit() {
+            if (!inQuestion) {
+                return;
+            }
+            inQuestion = false;
+
+            String questionContent = content.toString().trim();
+            if (questionContent.isEmpty()) {
+                return;
+            }
+
+            Question question = new Question();
+            question.setQuestionContent(questionContent);
+            // 有选项的为选择题，否则看题目中的类型标注，默认为简答题
+            question.setQuestionType(hasOptionLine ? "选择题" : typeHint != null ? typeHint : "简答题");
+            question.setOptionA(options.getOrDefault("A", ""));
+            question.setOptionB(options.getOrDefault("B", ""));
+            question.setOptionC(options.getOrDefault("C", ""));
+            question.setOptionD(options.getOrDefault("D", ""));
+            question.setCorrectAnswer(answer != null ? answer : "");
+            question.setExplanation(explanation != null ? explanation : "");
+            sink.accept(question);
         }
-        
-        return "";
     }
 
     /**
@@ -255,13 +393,13 @@ public class DocxQuestionParser {
      */
     public static List<Question> parseAndPrepareQuestions(String filePath, int categoryId, int difficultyId, int creatorId) throws IOException {
         List<Question> questions = parseQuestions(filePath);
-        
+
         for (Question question : questions) {
             question.setCategoryId(categoryId);
             question.setDifficultyId(difficultyId);
             question.setCreatorId(creatorId);
         }
-        
+
         return questions;
     }
 }
@@ -2,19 +2,28 @@ package com.university.questionbank.util;
 
 import com.university.questionbank.model.Question;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xwpf.usermodel.*;
 
+import java.io.BufferedWriter;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.util.List;
 
 public class ExportUtil {
     
     // 导出为Word文档
     public static void exportToWord(List<Question> questions, String filePath) throws IOException {
+        exportToWord(questions, filePath, null);
+    }
+
+    // 导出为Word文档，每写入一道题目回报一次进度
+    public static void exportToWord(List<Question> questions, String filePath, ProgressListener listener) throws IOException {
         XWPFDocument document = new XWPFDocument();
         
         // 设置标题
@@ -41,7 +50,7 @@ public class ExportUtil {
             // 题目类型、分类和难度
             paragraph = document.createParagraph();
             run = paragraph.createRun();
-            run.setText("类型：" + question.getQuestionType() + " | 分类：" + question.getCategory().getCategoryName() + " | 难度：" + question.getDifficulty().getDifficultyLevel());
+            run.setText("类型：" + question.getQuestionType() + " | 分类：" + categoryNameOf(question) + " | 难度：" + difficultyLevelOf(question));
             run.setFontSize(10);
             run.setColor("757575");
             
@@ -89,6 +98,10 @@ public class ExportUtil {
             run = paragraph.createRun();
             run.setText("----------------------------------------");
             run.setFontSize(10);
+
+            if (listener != null) {
+                listener.onProgress(i + 1, questions.size());
+            }
         }
         
         // 保存文档
@@ -99,91 +112,222 @@ public class ExportUtil {
         }
     }
     
+    // Excel 表头
+    private static final String[] EXCEL_HEADERS = {"编号", "题目内容", "类型", "分类", "难度", "选项A", "选项B", "选项C", "选项D", "正确答案", "解析"};
+    // SXSSF 内存中保留的行数，超出的行写入临时文件
+    private static final int EXCEL_ROW_WINDOW = 100;
+    // 估算列宽时单列的最大字符宽度
+    private static final int EXCEL_MAX_COLUMN_CHARS = 60;
+    // 流式导出时每次从数据库读取的题目数
+    public static final int DEFAULT_EXPORT_PAGE_SIZE = 500;
+
+    /**
+     * 分页读取题目的数据源，返回空列表或不足一页表示已读完
+     * 以上一页的最后一道题目作为游标（第一页为 null），数据库数据源按 (created_at, question_id) 游标分页，
+     * 不使用 OFFSET：created_at 相同的题目不会重复或遗漏，每页的查询代价也不随导出进度增长
+     */
+    @FunctionalInterface
+    public interface QuestionPageSource {
+        List<Question> fetchPage(Question after, int limit) throws SQLException;
+    }
+
+    // 内存列表数据源，按顺序逐页返回
+    private static QuestionPageSource listSource(List<Question> questions) {
+        int[] position = {0};
+        return (after, limit) -> {
+            int from = after == null ? 0 : position[0];
+            int to = Math.min(from + limit, questions.size());
+            position[0] = to;
+            return questions.subList(from, to);
+        };
+    }
+
     // 导出为Excel文档
     public static void exportToExcel(List<Question> questions, String filePath) throws IOException {
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("题目");
-        
-        // 设置标题行
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {"编号", "题目内容", "类型", "分类", "难度", "选项A", "选项B", "选项C", "选项D", "正确答案", "解析"};
-        
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            
-            // 设置标题样式
+        try {
+            exportToExcel(listSource(questions), DEFAULT_EXPORT_PAGE_SIZE, filePath, null);
+        } catch (SQLException e) {
+            // 内存列表数据源不会抛出 SQLException
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * 流式导出为Excel文档
+     * 使用 SXSSFWorkbook 滚动窗口写入，按页从数据源读取题目，内存占用与导出总数无关；
+     * 列宽根据第一页内容估算，不使用需要遍历全部单元格的 autoSizeColumn。
+     * 每写入一行回报一次进度（total 为 -1），回调中抛出的 CancellationException 会中止导出
+     * @return 导出的题目数量
+     */
+    public static int exportToExcel(QuestionPageSource source, int pageSize, String filePath, ProgressListener listener) throws IOException, SQLException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            SXSSFSheet sheet = workbook.createSheet("题目");
+
+            // 所有表头单元格共用一个样式
             CellStyle headerStyle = workbook.createCellStyle();
             Font headerFont = workbook.createFont();
             headerFont.setBold(true);
             headerStyle.setFont(headerFont);
-            cell.setCellStyle(headerStyle);
-        }
-        
-        // 填充数据行
-        for (int i = 0; i < questions.size(); i++) {
-            Question question = questions.get(i);
-            Row dataRow = sheet.createRow(i + 1);
-            
-            dataRow.createCell(0).setCellValue(i + 1);
-            dataRow.createCell(1).setCellValue(question.getQuestionContent());
-            dataRow.createCell(2).setCellValue(question.getQuestionType());
-            dataRow.createCell(3).setCellValue(question.getCategory().getCategoryName());
-            dataRow.createCell(4).setCellValue(question.getDifficulty().getDifficultyLevel());
-            
-            String questionType = question.getQuestionType();
-            if (questionType.equals("单选题") || questionType.equals("多选题") || questionType.equals("判断题")) {
-                dataRow.createCell(5).setCellValue(question.getOptionA());
-                dataRow.createCell(6).setCellValue(question.getOptionB());
-                dataRow.createCell(7).setCellValue(question.getOptionC());
-                dataRow.createCell(8).setCellValue(question.getOptionD());
+
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < EXCEL_HEADERS.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(EXCEL_HEADERS[i]);
+                cell.setCellStyle(headerStyle);
             }
-            
-            dataRow.createCell(9).setCellValue(question.getCorrectAnswer());
-            dataRow.createCell(10).setCellValue(question.getExplanation());
-        }
-        
-        // 自动调整列宽
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
-        }
-        
-        // 保存文档
-        try (FileOutputStream out = new FileOutputStream(filePath)) {
-            workbook.write(out);
+
+            int[] columnChars = new int[EXCEL_HEADERS.length];
+            for (int i = 0; i < EXCEL_HEADERS.length; i++) {
+                columnChars[i] = displayWidth(EXCEL_HEADERS[i]);
+            }
+
+            int count = 0;
+            boolean firstPage = true;
+            Question last = null;
+            while (true) {
+                List<Question> page = source.fetchPage(last, pageSize);
+                for (Question question : page) {
+                    count++;
+                    String[] values = toExcelValues(question);
+                    Row dataRow = sheet.createRow(count);
+                    dataRow.createCell(0).setCellValue(count);
+                    for (int i = 1; i < values.length; i++) {
+                        if (values[i] != null) {
+                            dataRow.createCell(i).setCellValue(values[i]);
+                        }
+                        if (firstPage) {
+                            columnChars[i] = Math.max(columnChars[i], displayWidth(values[i]));
+                        }
+                    }
+                    if (listener != null) {
+                        listener.onProgress(count, -1);
+                    }
+                }
+
+                if (firstPage) {
+                    // 编号列按总位数估算，其余列按第一页内容估算，设置上限避免长文本列过宽
+                    columnChars[0] = Math.max(columnChars[0], 8);
+                    for (int i = 0; i < columnChars.length; i++) {
+                        sheet.setColumnWidth(i, (Math.min(columnChars[i], EXCEL_MAX_COLUMN_CHARS) + 2) * 256);
+                    }
+                    firstPage = false;
+                }
+
+                if (page.size() < pageSize) {
+                    break;
+                }
+                last = page.get(page.size() - 1);
+            }
+
+            // 保存文档
+            try (FileOutputStream out = new FileOutputStream(filePath)) {
+                workbook.write(out);
+            }
+            return count;
         } finally {
+            // 删除 SXSSF 写出的临时文件
+            workbook.dispose();
             workbook.close();
         }
     }
+
+    // 一行题目在 Excel 中的各列文本（第 0 列编号由调用方填写）
+    private static String[] toExcelValues(Question question) {
+        String[] values = new String[EXCEL_HEADERS.length];
+        values[1] = question.getQuestionContent();
+        values[2] = question.getQuestionType();
+        values[3] = categoryNameOf(question);
+        values[4] = difficultyLevelOf(question);
+
+        String questionType = question.getQuestionType();
+        if ("单选题".equals(questionType) || "多选题".equals(questionType) || "判断题".equals(questionType)) {
+            values[5] = question.getOptionA();
+            values[6] = question.getOptionB();
+            values[7] = question.getOptionC();
+            values[8] = question.getOptionD();
+        }
+
+        values[9] = question.getCorrectAnswer();
+        values[10] = question.getExplanation();
+        return values;
+    }
+
+    // 估算显示宽度：中文等全角字符按 2 个字符计
+    private static int displayWidth(String text) {
+        if (text == null) {
+            return 0;
+        }
+        int width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            width += text.charAt(i) < 0x2E80 ? 1 : 2;
+        }
+        return width;
+    }
+
+    private static String categoryNameOf(Question question) {
+        return question.getCategory() != null ? question.getCategory().getCategoryName() : "";
+    }
+
+    private static String difficultyLevelOf(Question question) {
+        return question.getDifficulty() != null ? question.getDifficulty().getDifficultyLevel() : "";
+    }
     
     // 导出为TXT文件
     public static void exportToTxt(List<Question> questions, String filePath) throws IOException {
-        try (OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(filePath), StandardCharsets.UTF_8)) {
+        try {
+            exportToTxt(listSource(questions), DEFAULT_EXPORT_PAGE_SIZE, filePath, null);
+        } catch (SQLException e) {
+            // 内存列表数据源不会抛出 SQLException
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * 流式导出为TXT文件，按页从数据源读取题目
+     * @return 导出的题目数量
+     */
+    public static int exportToTxt(QuestionPageSource source, int pageSize, String filePath, ProgressListener listener) throws IOException, SQLException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filePath), StandardCharsets.UTF_8))) {
             writer.write("题目导出\n");
             writer.write("============================\n\n");
-            
-            for (int i = 0; i < questions.size(); i++) {
-                Question question = questions.get(i);
-                
-                writer.write((i + 1) + ". " + question.getQuestionContent() + "\n");
-                writer.write("类型：" + question.getQuestionType() + " | 分类：" + question.getCategory().getCategoryName() + " | 难度：" + question.getDifficulty().getDifficultyLevel() + "\n");
-                
-                String questionType = question.getQuestionType();
-                if (questionType.equals("单选题") || questionType.equals("多选题") || questionType.equals("判断题")) {
-                    writer.write("A. " + question.getOptionA() + "\n");
-                    writer.write("B. " + question.getOptionB() + "\n");
-                    writer.write("C. " + question.getOptionC() + "\n");
-                    writer.write("D. " + question.getOptionD() + "\n");
+
+            int count = 0;
+            Question last = null;
+            while (true) {
+                List<Question> page = source.fetchPage(last, pageSize);
+                for (Question question : page) {
+                    count++;
+                    writer.write(count + ". " + question.getQuestionContent() + "\n");
+                    writer.write("类型：" + question.getQuestionType() + " | 分类：" + categoryNameOf(question) + " | 难度：" + difficultyLevelOf(question) + "\n");
+
+                    String questionType = question.getQuestionType();
+                    if ("单选题".equals(questionType) || "多选题".equals(questionType) || "判断题".equals(questionType)) {
+                        writer.write("A. " + question.getOptionA() + "\n");
+                        writer.write("B. " + question.getOptionB() + "\n");
+                        writer.write("C. " + question.getOptionC() + "\n");
+                        writer.write("D. " + question.getOptionD() + "\n");
+                    }
+
+                    writer.write("正确答案：" + question.getCorrectAnswer() + "\n");
+
+                    if (question.getExplanation() != null && !question.getExplanation().isEmpty()) {
+                        writer.write("解析：" + question.getExplanation() + "\n");
+                    }
+
+                    writer.write("----------------------------------------\n\n");
+                    if (listener != null) {
+                        listener.onProgress(count, -1);
+                    }
                 }
-                
-                writer.write("正确答案：" + question.getCorrectAnswer() + "\n");
-                
-                if (question.getExplanation() != null && !question.getExplanation().isEmpty()) {
-                    writer.write("解析：" + question.getExplanation() + "\n");
+
+                if (page.size() < pageSize) {
+                    break;
                 }
-                
-                writer.write("----------------------------------------\n\n");
+                last = page.get(page.size() - 1);
             }
+            return count;
         }
     }
 }
\ No newline at end of file
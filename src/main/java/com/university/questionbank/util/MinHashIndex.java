@@ -0,0 +1,336 @@
+package com.university.questionbank.util;
+
+import com.university.questionbank.model.Question;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * 近似重复题目索引（MinHash + LSH）
+ * 题干和选项归一化后取字符 2-gram（中文按字切分时二元组对改写最稳定），用 NUM_HASHES 个哈希函数计算 MinHash 签名；
+ * 签名分成 BANDS 段，每段的哈希作为桶键，任一段相同的题目成为候选，再按签名估算相似度。
+ * 查询只访问 BANDS 个桶，耗时与题库规模无关。
+ * 签名每个分量只保存低 16 位（b-bit MinHash），桶表为基本类型数组，
+ * 每道题约占 150 字节签名和 BANDS 个桶表槽位。线程安全。
+ */
+public class MinHashIndex {
+
+    // 16 段 × 每段 4 行：相似度 0.6 时约 88% 的概率成为候选，0.8 时几乎必然，0.3 时约 12%
+    public static final int BANDS = 16;
+    public static final int ROWS = 4;
+    public static final int NUM_HASHES = BANDS * ROWS;
+
+    private static final int SHINGLE_LENGTH = 2;
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    // 固定种子，保证同一文本在不同进程中得到相同签名
+    private static final long[] HASH_MULTIPLIERS = new long[NUM_HASHES];
+    private static final long[] HASH_INCREMENTS = new long[NUM_HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_1DEAL);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            HASH_MULTIPLIERS[i] = random.nextLong() | 1L;
+            HASH_INCREMENTS[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * 相似度查询结果
+     */
+    public static class Match {
+        private final int questionId;
+        private final double similarity;
+
+        Match(int questionId, double similarity) {
+            this.questionId = questionId;
+            this.similarity = similarity;
+        }
+
+        public int getQuestionId() {
+            return questionId;
+        }
+
+        // 估算的 Jaccard 相似度（0~1）
+        public double getSimilarity() {
+            return similarity;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, short[]> signatures = new HashMap<>();
+    private final BucketTable buckets = new BucketTable();
+
+    /**
+     * 计算题目的签名；题干和选项都为空时返回 null
+     */
+    public static short[] signature(Question question) {
+        StringBuilder text = new StringBuilder();
+        appendField(text, question.getQuestionContent());
+        appendField(text, question.getOptionA());
+        appendField(text, question.getOptionB());
+        appendField(text, question.getOptionC());
+        appendField(text, question.getOptionD());
+        return signature(text);
+    }
+
+    private static void appendField(StringBuilder text, String field) {
+        String normalized = QuestionFingerprint.normalize(field);
+        if (!normalized.isEmpty()) {
+            if (text.length() > 0) {
+                text.append(FIELD_SEPARATOR);
+            }
+            text.append(normalized);
+        }
+    }
+
+    private static short[] signature(CharSequence text) {
+        if (text.length() == 0) {
+            return null;
+        }
+
+        long[] minimums = new long[NUM_HASHES];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+        int shingles = Math.max(1, text.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = shingleHash(text, start);
+            for (int i = 0; i < NUM_HASHES; i++) {
+                // 乘加哈希，翻转符号位后按有符号数比较即为无符号比较
+                long value = (shingle * HASH_MULTIPLIERS[i] + HASH_INCREMENTS[i]) ^ Long.MIN_VALUE;
+                if (value < minimums[i]) {
+                    minimums[i] = value;
+                }
+            }
+        }
+
+        short[] signature = new short[NUM_HASHES];
+        for (int i = 0; i < NUM_HASHES; i++) {
+            signature[i] = (short) (minimums[i] >>> 48);
+        }
+        return signature;
+    }
+
+    private static long shingleHash(CharSequence text, int start) {
+        int end = Math.min(start + SHINGLE_LENGTH, text.length());
+        long hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = hash * 0x10001L + text.charAt(i);
+        }
+        // fmix64，打散相邻 shingle 的取值
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    // 第 band 段的桶键
+    private static int bandKey(short[] signature, int band) {
+        int hash = band * 0x9E3779B9;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            hash = hash * 31 + signature[row];
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * 添加或替换题目的签名
+     */
+    public void put(int questionId, short[] signature) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(questionId);
+            if (signature == null) {
+                return;
+            }
+            signatures.put(questionId, signature);
+            for (int band = 0; band < BANDS; band++) {
+                buckets.put(bandKey(signature, band), questionId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int questionId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(questionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(int questionId) {
+        short[] old = signatures.remove(questionId);
+        if (old != null) {
+            for (int band = 0; band < BANDS; band++) {
+                buckets.remove(bandKey(old, band), questionId);
+            }
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            signatures.clear();
+            buckets.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return signatures.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查找相似题目
+     * @param excludeId     排除的题目ID（查询已有题目时为它自己），没有时传 0
+     * @param minSimilarity 最低估算相似度
+     * @param limit         最多返回数量
+     * @return 按相似度从高到低排列
+     */
+    public List<Match> query(short[] signature, int excludeId, double minSimilarity, int limit) {
+        List<Match> matches = new ArrayList<>();
+        if (signature == null) {
+            return matches;
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Integer> candidates = new HashSet<>();
+            IntConsumer collector = candidates::add;
+            for (int band = 0; band < BANDS; band++) {
+                buckets.forEach(bandKey(signature, band), collector);
+            }
+            candidates.remove(excludeId);
+
+            for (int candidateId : candidates) {
+                short[] other = signatures.get(candidateId);
+                if (other == null) {
+                    continue;
+                }
+                int same = 0;
+                for (int i = 0; i < NUM_HASHES; i++) {
+                    if (signature[i] == other[i]) {
+                        same++;
+                    }
+                }
+                double similarity = (double) same / NUM_HASHES;
+                if (similarity >= minSimilarity) {
+                    matches.add(new Match(candidateId, similarity));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort((a, b) -> Double.compare(b.similarity, a.similarity));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * 桶表：int 键到题目ID的多值映射，开放寻址 + 线性探测，删除时留下墓碑
+     * 题目ID均为正数，0 表示空槽，-1 表示已删除
+     */
+    private static class BucketTable {
+        private static final int EMPTY = 0;
+        private static final int DELETED = -1;
+        private static final int INITIAL_CAPACITY = 1 << 12;
+
+        private int[] keys = new int[INITIAL_CAPACITY];
+        private int[] values = new int[INITIAL_CAPACITY];
+        private int size;
+        private int deleted;
+
+        void put(int key, int value) {
+            // 装载率（含墓碑）超过 60% 时扩容或清理墓碑
+            if ((size + deleted + 1) * 5 > keys.length * 3) {
+                rehash(size * 5 > keys.length * 2 ? keys.length * 2 : keys.length);
+            }
+            int mask = keys.length - 1;
+            int slot = slotOf(key, mask);
+            while (values[slot] > 0) {
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] == DELETED) {
+                deleted--;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+        }
+
+        void remove(int key, int value) {
+            int mask = keys.length - 1;
+            for (int slot = slotOf(key, mask); values[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (values[slot] == value && keys[slot] == key) {
+                    values[slot] = DELETED;
+                    size--;
+                    deleted++;
+                    return;
+                }
+            }
+        }
+
+        void forEach(int key, IntConsumer consumer) {
+            int mask = keys.length - 1;
+            for (int slot = slotOf(key, mask); values[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (values[slot] > 0 && keys[slot] == key) {
+                    consumer.accept(values[slot]);
+                }
+            }
+        }
+
+        void clear() {
+            keys = new int[INITIAL_CAPACITY];
+            values = new int[INITIAL_CAPACITY];
+            size = 0;
+            deleted = 0;
+        }
+
+        private void rehash(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[capacity];
+            values = new int[capacity];
+            size = 0;
+            deleted = 0;
+            int mask = capacity - 1;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] > 0) {
+                    int slot = slotOf(oldKeys[i], mask);
+                    while (values[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                    size++;
+                }
+            }
+        }
+
+        private static int slotOf(int key, int mask) {
+            return (key * 0x9E3779B9 >>> 7) & mask;
+        }
+    }
+}
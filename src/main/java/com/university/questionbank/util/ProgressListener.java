@@ -0,0 +1,14 @@
+package com.university.questionbank.util;
+
+/**
+ * 长时间操作的进度回调
+ * 回调可能在后台线程中触发，更新界面时需切回 EDT
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    /**
+     * @param completed 已完成的数量
+     * @param total     总数量
+     */
+    void onProgress(int completed, int total);
+}
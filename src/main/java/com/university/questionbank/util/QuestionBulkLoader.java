@@ -0,0 +1,202 @@
+package com.university.questionbank.util;
+
+import com.university.questionbank.config.DatabaseConfig;
+import com.university.questionbank.model.Question;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.logging.Logger;
+
+/**
+ * 题目批量装载工具
+ * 面向学期初从其他系统导入数十万道题目的场景：
+ * PostgreSQL 下通过 CopyManager 执行 COPY ... FROM STDIN (CSV) 流式写入，
+ * SQLite 下退回到单事务内的批量 INSERT。
+ * 题目从迭代器中逐条取出并立即编码发送，内存占用与题目总数无关。
+ */
+public class QuestionBulkLoader {
+    private static final Logger logger = Logger.getLogger(QuestionBulkLoader.class.getName());
+
+    // content_hash 列不可用时（见 DatabaseOptimizer.isContentHashColumnAvailable）不写入该列
+    private static final String COLUMNS =
+            "question_content, question_type, option_a, option_b, option_c, option_d, " +
+            "correct_answer, explanation, category_id, difficulty_id, creator_id";
+    private static final String HASH_COLUMN = ", content_hash";
+
+    // 编码缓冲区达到该大小后写入 COPY 流
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 装载题目
+     * @param questions 题目迭代器，可以是按需读取文件的惰性迭代器
+     * @param listener  进度回调（每 db.batchSize 条回报一次，可为 null），总数未知时 total 为 -1
+     * @return 写入的题目数量
+     */
+    public static long load(Iterator<Question> questions, ProgressListener listener) throws SQLException {
+        DatabaseConfig config = DatabaseConfig.getInstance();
+        int reportInterval = Math.max(1, config.getBatchSize());
+
+        boolean withHash = DatabaseOptimizer.isContentHashColumnAvailable();
+
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            long count = config.isSQLite()
+                    ? insertInBatches(conn, questions, withHash, reportInterval, listener)
+                    : copyIn(conn, questions, withHash, reportInterval, listener);
+            logger.info("批量装载完成，共写入 " + count + " 道题目");
+            return count;
+        }
+    }
+
+    /**
+     * COPY 整体是一条语句，失败时不会留下部分数据
+     */
+    private static long copyIn(Connection conn, Iterator<Question> questions, boolean withHash,
+                               int reportInterval, ProgressListener listener) throws SQLException {
+        String sql = "COPY questions (" + COLUMNS + (withHash ? HASH_COLUMN : "") + ") FROM STDIN WITH (FORMAT csv)";
+        CopyIn copy = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 4096);
+            long count = 0;
+
+            while (questions.hasNext()) {
+                appendCsvRow(buffer, questions.next(), withHash);
+                count++;
+
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    writeToCopy(copy, buffer);
+                }
+                if (listener != null && count % reportInterval == 0) {
+                    listener.onProgress((int) Math.min(count, Integer.MAX_VALUE), -1);
+                }
+            }
+            writeToCopy(copy, buffer);
+
+            long written = copy.endCopy();
+            if (listener != null) {
+                listener.onProgress((int) Math.min(written, Integer.MAX_VALUE), (int) Math.min(written, Integer.MAX_VALUE));
+            }
+            return written;
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private static void writeToCopy(CopyIn copy, StringBuilder buffer) throws SQLException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    // 按 COPY CSV 格式追加一行：文本字段一律加引号（空字符串与 NULL 区分开），NULL 写为空
+    private static void appendCsvRow(StringBuilder buffer, Question question, boolean withHash) {
+        appendCsvText(buffer, question.getQuestionContent()).append(',');
+        appendCsvText(buffer, question.getQuestionType()).append(',');
+        appendCsvText(buffer, question.getOptionA()).append(',');
+        appendCsvText(buffer, question.getOptionB()).append(',');
+        appendCsvText(buffer, question.getOptionC()).append(',');
+        appendCsvText(buffer, question.getOptionD()).append(',');
+        appendCsvText(buffer, question.getCorrectAnswer()).append(',');
+        appendCsvText(buffer, question.getExplanation()).append(',');
+        buffer.append(categoryIdOf(question)).append(',');
+        buffer.append(difficultyIdOf(question)).append(',');
+        buffer.append(creatorIdOf(question));
+        if (withHash) {
+            buffer.append(',').append(QuestionFingerprint.compute(question));
+        }
+        buffer.append('\n');
+    }
+
+    private static StringBuilder appendCsvText(StringBuilder buffer, String value) {
+        if (value == null) {
+            return buffer;
+        }
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer.append('"');
+            }
+            buffer.append(c);
+        }
+        return buffer.append('"');
+    }
+
+    /**
+     * SQLite 不支持 COPY，在一个事务内按批执行 INSERT
+     */
+    private static long insertInBatches(Connection conn, Iterator<Question> questions, boolean withHash,
+                                        int batchSize, ProgressListener listener) throws SQLException {
+        String sql = withHash
+                ? "INSERT INTO questions (" + COLUMNS + HASH_COLUMN + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+                : "INSERT INTO questions (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            try {
+                long count = 0;
+                int pending = 0;
+
+                while (questions.hasNext()) {
+                    Question question = questions.next();
+                    pstmt.setString(1, question.getQuestionContent());
+                    pstmt.setString(2, question.getQuestionType());
+                    pstmt.setString(3, question.getOptionA());
+                    pstmt.setString(4, question.getOptionB());
+                    pstmt.setString(5, question.getOptionC());
+                    pstmt.setString(6, question.getOptionD());
+                    pstmt.setString(7, question.getCorrectAnswer());
+                    pstmt.setString(8, question.getExplanation());
+                    pstmt.setInt(9, categoryIdOf(question));
+                    pstmt.setInt(10, difficultyIdOf(question));
+                    pstmt.setInt(11, creatorIdOf(question));
+                    if (withHash) {
+                        pstmt.setLong(12, QuestionFingerprint.compute(question));
+                    }
+                    pstmt.addBatch();
+                    count++;
+
+                    if (++pending == batchSize) {
+                        pstmt.executeBatch();
+                        pending = 0;
+                        if (listener != null) {
+                            listener.onProgress((int) Math.min(count, Integer.MAX_VALUE), -1);
+                        }
+                    }
+                }
+                if (pending > 0) {
+                    pstmt.executeBatch();
+                }
+
+                conn.commit();
+                if (listener != null) {
+                    listener.onProgress((int) Math.min(count, Integer.MAX_VALUE), (int) Math.min(count, Integer.MAX_VALUE));
+                }
+                return count;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static int categoryIdOf(Question question) {
+        return question.getCategory() != null ? question.getCategory().getCategoryId() : question.getCategoryId();
+    }
+
+    private static int difficultyIdOf(Question question) {
+        return question.getDifficulty() != null ? question.getDifficulty().getDifficultyId() : question.getDifficultyId();
+    }
+
+    private static int creatorIdOf(Question question) {
+        return question.getCreator() != null ? question.getCreator().getUserId() : question.getCreatorId();
+    }
+}
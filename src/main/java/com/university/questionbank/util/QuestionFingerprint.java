@@ -0,0 +1,69 @@
+package com.university.questionbank.util;
+
+import com.university.questionbank.model.Question;
+
+import java.text.Normalizer;
+
+/**
+ * 题目内容指纹
+ * 对题干和四个选项做归一化（全角转半角、统一小写、去掉空白和标点）后计算 64 位哈希，
+ * 只是排版、标点或空格不同的题目得到相同指纹。结果保存在 questions.content_hash 列中用于查重。
+ */
+public class QuestionFingerprint {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // 字段分隔符，避免 "ab"+"c" 与 "a"+"bc" 得到相同指纹
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    public static long compute(Question question) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = appendField(hash, question.getQuestionContent());
+        hash = appendField(hash, question.getOptionA());
+        hash = appendField(hash, question.getOptionB());
+        hash = appendField(hash, question.getOptionC());
+        hash = appendField(hash, question.getOptionD());
+        return mix(hash);
+    }
+
+    /**
+     * 归一化文本：NFKC（全角字母数字转半角）、小写，只保留字母、数字和汉字
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); ) {
+            int codePoint = folded.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                normalized.appendCodePoint(Character.toLowerCase(codePoint));
+            }
+            i += Character.charCount(codePoint);
+        }
+        return normalized.toString();
+    }
+
+    // FNV-1a 逐字符累加
+    private static long appendField(long hash, String text) {
+        String normalized = normalize(text);
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= FIELD_SEPARATOR;
+        return hash * FNV_PRIME;
+    }
+
+    // 最后再打散一次高低位（MurmurHash3 fmix64），减少相近文本的高位聚集
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
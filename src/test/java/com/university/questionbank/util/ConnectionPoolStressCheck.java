@@ -0,0 +1,229 @@
+package com.university.questionbank.util;
+
+import com.university.questionbank.config.DatabaseConfig;
+import com.university.questionbank.dao.QuestionDAO;
+import com.university.questionbank.dao.UserDAO;
+import com.university.questionbank.dao.impl.QuestionDAOImpl;
+import com.university.questionbank.dao.impl.UserDAOImpl;
+import com.university.questionbank.model.Question;
+import com.university.questionbank.model.User;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DatabaseConfig / DatabaseUtil / ConnectionPool 及 DAO 并发压力检查
+ * 在临时 SQLite 数据库中建表并写入初始数据，32 个线程同时第一次调用 DAO（模拟多个 SwingWorker 同时启动），
+ * 随后各自反复调用 QuestionDAOImpl.getQuestionById / searchQuestions / addQuestion 和 UserDAOImpl.getUsersByIds，
+ * 走 DAO 内部的借用、缓存语句和归还路径。检查：
+ * 1. 所有线程拿到同一个 DatabaseConfig 和同一个连接池，没有调用失败；
+ * 2. 物理连接数不超过 db.pool.maxSize，结束后全部回到空闲队列，且同时借出全部空闲连接时没有同一物理连接出现两次；
+ * 3. 读到的题目和用户与写入的一致，新增的题目ID互不相同，题目总数等于初始数量加新增数量。
+ * 项目没有单元测试框架依赖，以 main 方法运行，失败时退出码为 1：
+ * java -cp target/classes:target/test-classes:<依赖> com.university.questionbank.util.ConnectionPoolStressCheck [线程数] [每线程轮数]
+ */
+public class ConnectionPoolStressCheck {
+    private static final int SEED_USERS = 20;
+    private static final int SEED_QUESTIONS = 500;
+    private static final int CATEGORIES = 5;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        File dbFile = File.createTempFile("pool-stress", ".db");
+        dbFile.deleteOnExit();
+        // 必须在第一次访问 DatabaseConfig 之前设置；多个线程同时写入，等待写锁而不是立即报 SQLITE_BUSY
+        System.setProperty("db.type", "sqlite");
+        System.setProperty("db.url", "jdbc:sqlite:" + dbFile.getAbsolutePath() + "?busy_timeout=30000");
+
+        List<String> failures = new ArrayList<>();
+        try {
+            createSchema();
+            run(threads, rounds, failures);
+        } finally {
+            DatabaseUtil.closeConnection();
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("通过: " + threads + " 个线程 x " + rounds + " 轮 DAO 调用");
+        } else {
+            for (String failure : failures) {
+                System.out.println("失败: " + failure);
+            }
+            System.exit(1);
+        }
+    }
+
+    // 与 SQLite 本地库相同的表结构，直接用 JDBC 建表，不经过连接池
+    private static void createSchema() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(DatabaseConfig.getInstance().getJdbcUrl());
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE roles (role_id INTEGER PRIMARY KEY, role_name TEXT, description TEXT)");
+            stmt.execute("CREATE TABLE users (user_id INTEGER PRIMARY KEY, username TEXT, password TEXT, real_name TEXT, "
+                    + "email TEXT, phone TEXT, role_id INT, status INT, created_at TEXT, updated_at TEXT)");
+            stmt.execute("CREATE TABLE question_categories (category_id INTEGER PRIMARY KEY, category_name TEXT, description TEXT)");
+            stmt.execute("CREATE TABLE question_difficulties (difficulty_id INTEGER PRIMARY KEY, difficulty_level TEXT, description TEXT)");
+            stmt.execute("CREATE TABLE questions (question_id INTEGER PRIMARY KEY AUTOINCREMENT, question_content TEXT, "
+                    + "question_type TEXT, option_a TEXT, option_b TEXT, option_c TEXT, option_d TEXT, correct_answer TEXT, "
+                    + "explanation TEXT, category_id INT, difficulty_id INT, creator_id INT, "
+                    + "created_at TEXT DEFAULT CURRENT_TIMESTAMP, updated_at TEXT, content_hash BIGINT)");
+            stmt.execute("CREATE INDEX idx_questions_content_hash ON questions(content_hash)");
+
+            stmt.execute("INSERT INTO roles VALUES (1, '管理员', NULL)");
+            stmt.execute("INSERT INTO question_difficulties VALUES (1, '简单', NULL)");
+            for (int i = 1; i <= CATEGORIES; i++) {
+                stmt.execute("INSERT INTO question_categories VALUES (" + i + ", '分类" + i + "', NULL)");
+            }
+            for (int i = 1; i <= SEED_USERS; i++) {
+                stmt.execute("INSERT INTO users (user_id, username, real_name, role_id, status) VALUES ("
+                        + i + ", 'user" + i + "', '用户" + i + "', 1, 1)");
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO questions (question_content, question_type, "
+                    + "correct_answer, category_id, difficulty_id, creator_id) VALUES (?, '简答题', '答案', ?, 1, ?)")) {
+                for (int i = 1; i <= SEED_QUESTIONS; i++) {
+                    pstmt.setString(1, "初始题目" + i);
+                    pstmt.setInt(2, i % CATEGORIES + 1);
+                    pstmt.setInt(3, i % SEED_USERS + 1);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    private static void run(int threads, int rounds, List<String> failures) throws Exception {
+        Set<Object> configs = ConcurrentHashMap.newKeySet();
+        Set<Object> pools = ConcurrentHashMap.newKeySet();
+        Set<Integer> addedIds = ConcurrentHashMap.newKeySet();
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger addCalls = new AtomicInteger();
+
+        List<Integer> userIds = new ArrayList<>();
+        for (int i = 1; i <= SEED_USERS; i++) {
+            userIds.add(i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                configs.add(DatabaseConfig.getInstance());
+                pools.add(DatabaseUtil.getDataSource());
+                QuestionDAO questionDAO = new QuestionDAOImpl();
+                UserDAO userDAO = new UserDAOImpl();
+                for (int i = 0; i < rounds; i++) {
+                    try {
+                        int seedId = (thread * rounds + i) % SEED_QUESTIONS + 1;
+                        Question seed = questionDAO.getQuestionById(seedId);
+                        if (seed == null || !("初始题目" + seedId).equals(seed.getQuestionContent())) {
+                            errors.add("getQuestionById(" + seedId + ") 返回 " + (seed != null ? seed.getQuestionContent() : null));
+                        }
+
+                        int categoryId = i % CATEGORIES + 1;
+                        for (Question found : questionDAO.searchQuestions(null, categoryId, null, null, 0, 20)) {
+                            // 查询结果带分类对象，不设置 categoryId
+                            if (found.getCategory() == null || found.getCategory().getCategoryId() != categoryId) {
+                                errors.add("searchQuestions 分类 " + categoryId + " 返回了其他分类的题目 " + found.getQuestionId());
+                            }
+                        }
+
+                        Question question = new Question();
+                        question.setQuestionContent("线程" + thread + "题目" + i);
+                        question.setQuestionType("简答题");
+                        question.setCorrectAnswer("答案");
+                        question.setCategoryId(categoryId);
+                        question.setDifficultyId(1);
+                        question.setCreatorId(thread % SEED_USERS + 1);
+                        questionDAO.addQuestion(question);
+                        addCalls.incrementAndGet();
+                        if (!addedIds.add(question.getQuestionId())) {
+                            errors.add("addQuestion 返回了重复的题目ID " + question.getQuestionId());
+                        }
+                        Question added = questionDAO.getQuestionById(question.getQuestionId());
+                        if (added == null || !question.getQuestionContent().equals(added.getQuestionContent())) {
+                            errors.add("新增题目 " + question.getQuestionId() + " 读回不一致");
+                        }
+
+                        List<User> users = userDAO.getUsersByIds(userIds);
+                        if (users.size() != SEED_USERS) {
+                            errors.add("getUsersByIds 返回 " + users.size() + " 个用户，应为 " + SEED_USERS);
+                        }
+                    } catch (SQLException e) {
+                        errors.add(e.getClass().getSimpleName() + ": " + e.getMessage());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        int maxSize = DatabaseConfig.getInstance().getPoolMaxSize();
+        DataSource dataSource = DatabaseUtil.getDataSource();
+        ConnectionPool pool = (ConnectionPool) dataSource;
+
+        check(configs.size() == 1, "DatabaseConfig 实例数 " + configs.size(), failures);
+        check(pools.size() == 1, "连接池实例数 " + pools.size(), failures);
+        check(errors.isEmpty(), "DAO 调用失败 " + errors.size() + " 次" + (errors.isEmpty() ? "" : "，第一次: " + errors.get(0)), failures);
+        check(pool.getTotalConnections() <= maxSize, "物理连接数 " + pool.getTotalConnections() + "，超过上限 " + maxSize, failures);
+        check(pool.getIdleConnections() == pool.getTotalConnections(),
+                "空闲连接 " + pool.getIdleConnections() + " 与物理连接 " + pool.getTotalConnections() + " 不一致（有连接未归还或重复归还）", failures);
+
+        // 同时借出全部空闲连接：同一连接被归还两次时，会有两个借用拿到同一个物理连接
+        int total = pool.getTotalConnections();
+        List<Connection> borrowed = new ArrayList<>();
+        Set<Connection> physical = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            for (int i = 0; i < total; i++) {
+                Connection conn = DatabaseUtil.getConnection();
+                borrowed.add(conn);
+                physical.add(conn.unwrap(Connection.class));
+            }
+            check(physical.size() == borrowed.size(),
+                    "借出 " + borrowed.size() + " 个连接，只对应 " + physical.size() + " 个物理连接", failures);
+        } finally {
+            for (Connection conn : borrowed) {
+                conn.close();
+            }
+        }
+
+        // 行数与写入一致
+        int expectedAdded = threads * rounds;
+        long count = new QuestionDAOImpl().countQuestions(null, null, null, null, false);
+        check(addCalls.get() == expectedAdded, "addQuestion 成功 " + addCalls.get() + " 次，应为 " + expectedAdded, failures);
+        check(addedIds.size() == expectedAdded, "新增题目ID " + addedIds.size() + " 个，应为 " + expectedAdded, failures);
+        check(count == SEED_QUESTIONS + expectedAdded, "题目总数 " + count + "，应为 " + (SEED_QUESTIONS + expectedAdded), failures);
+        check(pool.getIdleConnections() == pool.getTotalConnections(),
+                "检查结束后空闲连接 " + pool.getIdleConnections() + " 与物理连接 " + pool.getTotalConnections() + " 不一致", failures);
+    }
+
+    private static void check(boolean condition, String message, List<String> failures) {
+        if (!condition) {
+            failures.add(message);
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.university.questionbank.util;
+
+import com.university.questionbank.model.Question;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DocxQuestionParser 回归检查和性能基准
+ * 1. 回归：用固定的文本逐行送入 LineParser，逐字段核对解析结果，覆盖题号、多行题干、
+ *    类型标注、标注后换行取下一行、只取第一处答案和解析、题号后直接是标注的题目被丢弃等情况；
+ * 2. 基准：生成含 N 道题的 docx（默认 5000），先核对新旧两个版本对该文档的解析结果完全一致，
+ *    再分别预热后多次解析，输出两者从文件开始的平均耗时和只解析文本的耗时。
+ *    旧版本（重写为逐行状态机之前的实现）原样保留在 LegacyParser 中，只作为对照。
+ * 项目没有单元测试框架依赖，以 main 方法运行，回归失败时退出码为 1：
+ * java -cp target/classes:target/test-classes:<依赖> com.university.questionbank.util.DocxQuestionParserCheck [题目数] [测量次数]
+ */
+public class DocxQuestionParserCheck {
+    private static final int WARMUP_ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int questionCount = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        List<String> failures = new ArrayList<>();
+        checkParsing(failures);
+        if (!failures.isEmpty()) {
+            for (String failure : failures) {
+                System.out.println("失败: " + failure);
+            }
+            System.exit(1);
+        }
+        System.out.println("回归检查通过");
+
+        benchmark(questionCount, rounds);
+    }
+
+    private static void checkParsing(List<String> failures) {
+        List<Question> questions = parse(
+                "期末考试试卷",
+                "1. 下列哪个是Java的关键字？",
+                "A. goto",
+                "B. include",
+                "C、 define",
+                "D．main",
+                "答案：A",
+                "解析：goto 是保留关键字",
+                "2、（多行题干）简述连接池的作用",
+                "第二行题干(简答题)",
+                "答案：",
+                "",
+                "复用物理连接",
+                "答案：第二处答案不取",
+                "解析：",
+                "减少建立连接的开销",
+                "第3题 填空：JDBC 的全称是____(填空题)",
+                "正确答案：Java Database Connectivity",
+                "说明：第一处解析",
+                "解释：第二处解析不取",
+                "4. A. 题号后直接是选项的题目被丢弃",
+                "5. 选项标注后换行",
+                "A.",
+                "甲",
+                "B. 乙",
+                "标准答案：A");
+
+        check(questions.size() == 4, "题目数量 " + questions.size() + "，应为 4", failures);
+        if (questions.size() != 4) {
+            return;
+        }
+
+        Question q1 = questions.get(0);
+        expect("第1题题干", q1.getQuestionContent(), "下列哪个是Java的关键字？", failures);
+        expect("第1题类型", q1.getQuestionType(), "选择题", failures);
+        expect("第1题选项", Arrays.asList(q1.getOptionA(), q1.getOptionB(), q1.getOptionC(), q1.getOptionD()),
+                Arrays.asList("goto", "include", "define", "main"), failures);
+        expect("第1题答案", q1.getCorrectAnswer(), "A", failures);
+        expect("第1题解析", q1.getExplanation(), "goto 是保留关键字", failures);
+
+        Question q2 = questions.get(1);
+        expect("第2题题干", q2.getQuestionContent(), "（多行题干）简述连接池的作用\n第二行题干(简答题)", failures);
+        expect("第2题类型", q2.getQuestionType(), "简答题", failures);
+        expect("第2题答案", q2.getCorrectAnswer(), "复用物理连接", failures);
+        expect("第2题解析", q2.getExplanation(), "减少建立连接的开销", failures);
+
+        Question q3 = questions.get(2);
+        expect("第3题题干", q3.getQuestionContent(), "填空：JDBC 的全称是____(填空题)", failures);
+        expect("第3题类型", q3.getQuestionType(), "填空题", failures);
+        expect("第3题答案", q3.getCorrectAnswer(), "Java Database Connectivity", failures);
+        expect("第3题解析", q3.getExplanation(), "第一处解析", failures);
+        expect("第3题选项A", q3.getOptionA(), "", failures);
+
+        Question q5 = questions.get(3);
+        expect("第5题题干", q5.getQuestionContent(), "选项标注后换行", failures);
+        expect("第5题选项A", q5.getOptionA(), "甲", failures);
+        expect("第5题选项B", q5.getOptionB(), "乙", failures);
+        expect("第5题答案", q5.getCorrectAnswer(), "A", failures);
+    }
+
+    private static List<Question> parse(String... lines) {
+        List<Question> questions = new ArrayList<>();
+        DocxQuestionParser.LineParser parser = new DocxQuestionParser.LineParser(questions::add);
+        for (String line : lines) {
+            parser.acceptParagraph(line);
+        }
+        parser.finish();
+        return questions;
+    }
+
+    private static void benchmark(int questionCount, int rounds) throws Exception {
+        List<String> lines = syntheticLines(questionCount);
+
+        File docx = File.createTempFile("parser-benchmark", ".docx");
+        docx.deleteOnExit();
+        try (XWPFDocument document = new XWPFDocument();
+             FileOutputStream out = new FileOutputStream(docx)) {
+            for (String line : lines) {
+                document.createParagraph().createRun().setText(line);
+            }
+            document.write(out);
+        }
+        String path = docx.getPath();
+
+        List<Question> current = DocxQuestionParser.parseQuestions(path);
+        List<Question> legacy = LegacyParser.parseQuestions(path);
+        List<String> failures = new ArrayList<>();
+        check(current.size() == questionCount, "基准文档解析出 " + current.size() + " 道题目，应为 " + questionCount, failures);
+        compare(legacy, current, failures);
+        if (!failures.isEmpty()) {
+            for (String failure : failures) {
+                System.out.println("失败: " + failure);
+            }
+            System.exit(1);
+        }
+        System.out.println("新旧版本解析结果一致，共 " + current.size() + " 道题目");
+
+        String text = LegacyParser.joinLines(lines);
+        String[] lineArray = lines.toArray(new String[0]);
+
+        double legacyDoc = time(rounds, () -> LegacyParser.parseQuestions(path));
+        double currentDoc = time(rounds, () -> DocxQuestionParser.parseQuestions(path));
+        double legacyText = time(rounds, () -> LegacyParser.parseQuestionText(text));
+        double currentText = time(rounds, () -> parse(lineArray));
+
+        System.out.printf("%d 道题目（%d 段落），各 %d 次平均%n", questionCount, lines.size(), rounds);
+        System.out.printf("  从文件解析: 旧 %.1f ms/文档，新 %.1f ms/文档，%.1f 倍%n", legacyDoc, currentDoc, legacyDoc / currentDoc);
+        System.out.printf("  只解析文本: 旧 %.1f ms，新 %.1f ms，%.1f 倍%n", legacyText, currentText, legacyText / currentText);
+    }
+
+    // 逐题逐字段比较
+    private static void compare(List<Question> expected, List<Question> actual, List<String> failures) {
+        check(expected.size() == actual.size(), "旧版本解析出 " + expected.size() + " 道题目，新版本 " + actual.size() + " 道", failures);
+        for (int i = 0; i < Math.min(expected.size(), actual.size()) && failures.isEmpty(); i++) {
+            String expectedFields = fields(expected.get(i));
+            String actualFields = fields(actual.get(i));
+            check(expectedFields.equals(actualFields),
+                    "第 " + (i + 1) + " 道题目不一致：旧 " + expectedFields + "，新 " + actualFields, failures);
+        }
+    }
+
+    private static String fields(Question q) {
+        return Arrays.asList(q.getQuestionContent(), q.getQuestionType(), q.getOptionA(), q.getOptionB(),
+                q.getOptionC(), q.getOptionD(), q.getCorrectAnswer(), q.getExplanation()).toString();
+    }
+
+    // 预热后测量 rounds 次的平均毫秒数
+    private static double time(int rounds, Task task) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / rounds;
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    // 四种题型轮换的合成文档
+    private static List<String> syntheticLines(int questionCount) {
+        List<String> lines = new ArrayList<>(questionCount * 7 + 1);
+        lines.add("合成基准试卷");
+        for (int i = 1; i <= questionCount; i++) {
+            switch (i % 4) {
+                case 0:
+                    lines.add(i + ". 第" + i + "题：下列关于数据库索引的说法正确的是");
+                    lines.add("A. 索引越多越好");
+                    lines.add("B. 索引可以加快按列查询");
+                    lines.add("C. 索引不占用存储空间");
+                    lines.add("D. 索引会让插入更快");
+                    lines.add("答案：B");
+                    lines.add("解析：索引以额外存储和写入开销换取查询速度");
+                    break;
+                case 1:
+                    lines.add(i + "、简述第" + i + "个事务隔离级别的含义(简答题)");
+                    lines.add("答案：");
+                    lines.add("读已提交只能读到其他事务已提交的数据");
+                    lines.add("解析：防止脏读");
+                    break;
+                case 2:
+                    lines.add("第" + i + "题 SQL 中用于分组的子句是____(填空题)");
+                    lines.add("正确答案：GROUP BY");
+                    break;
+                default:
+                    lines.add(i + ". 第" + i + "题：TCP 是面向连接的协议");
+                    lines.add("A. 正确");
+                    lines.add("B. 错误");
+                    lines.add("标准答案：A");
+                    lines.add("说明：TCP 建立连接需要三次握手");
+                    break;
+            }
+        }
+        return lines;
+    }
+
+    private static void expect(String name, Object actual, Object expected, List<String> failures) {
+        check(expected.equals(actual), name + " 为 [" + actual + "]，应为 [" + expected + "]", failures);
+    }
+
+    private static void check(boolean condition, String message, List<String> failures) {
+        if (!condition) {
+            failures.add(message);
+        }
+    }
+
+    /**
+     * 重写前的解析器，只作为基准对照，不要修改：
+     * 读入整个文档后把所有段落拼成一个字符串，按题号切分，每道题再用各自编译的正则分别查找各部分
+     */
+    static class LegacyParser {
+
+        static List<Question> parseQuestions(String filePath) throws IOException {
+            try (FileInputStream fis = new FileInputStream(filePath);
+                 XWPFDocument document = new XWPFDocument(fis)) {
+                List<String> lines = new ArrayList<>();
+                for (XWPFParagraph paragraph : document.getParagraphs()) {
+                    lines.add(paragraph.getText());
+                }
+                return parseQuestionText(joinLines(lines));
+            }
+        }
+
+        static String joinLines(List<String> lines) {
+            StringBuilder contentBuilder = new StringBuilder();
+            for (String line : lines) {
+                String text = line.trim();
+                if (!text.isEmpty()) {
+                    contentBuilder.append(text).append("\n");
+                }
+            }
+            return contentBuilder.toString();
+        }
+
+        static List<Question> parseQuestionText(String text) {
+            List<Question> questions = new ArrayList<>();
+
+            Pattern questionPattern = Pattern.compile("(?m)^(\\d+\\s*[.、．]|第\\d+题).+$", Pattern.MULTILINE);
+            Matcher questionMatcher = questionPattern.matcher(text);
+
+            List<Integer> startIndices = new ArrayList<>();
+            while (questionMatcher.find()) {
+                startIndices.add(questionMatcher.start());
+            }
+
+            for (int i = 0; i < startIndices.size(); i++) {
+                int startIndex = startIndices.get(i);
+                int endIndex = (i < startIndices.size() - 1) ? startIndices.get(i + 1) : text.length();
+
+                String questionText = text.substring(startIndex, endIndex).trim();
+                Question question = parseSingleQuestion(questionText);
+
+                if (question != null && question.getQuestionContent() != null && !question.getQuestionContent().isEmpty()) {
+                    questions.add(question);
+                }
+            }
+
+            return questions;
+        }
+
+        private static Question parseSingleQuestion(String text) {
+            Question question = new Question();
+            question.setQuestionContent(extractQuestionContent(text));
+            question.setQuestionType(detectQuestionType(text));
+
+            Map<String, String> options = extractOptions(text);
+            question.setOptionA(options.getOrDefault("A", ""));
+            question.setOptionB(options.getOrDefault("B", ""));
+            question.setOptionC(options.getOrDefault("C", ""));
+            question.setOptionD(options.getOrDefault("D", ""));
+
+            question.setCorrectAnswer(extractAnswer(text));
+            question.setExplanation(extractExplanation(text));
+            return question;
+        }
+
+        private static String extractQuestionContent(String text) {
+            String content = text.replaceFirst("^(\\d+\\s*[.、．]|第\\d+题)\\s*", "");
+
+            int optionIndex = findFirstOptionIndex(content);
+            int answerIndex = findAnswerIndex(content);
+            int explanationIndex = findExplanationIndex(content);
+
+            int endIndex = content.length();
+            if (optionIndex != -1) {
+                endIndex = Math.min(endIndex, optionIndex);
+            }
+            if (answerIndex != -1) {
+                endIndex = Math.min(endIndex, answerIndex);
+            }
+            if (explanationIndex != -1) {
+                endIndex = Math.min(endIndex, explanationIndex);
+            }
+
+            return content.substring(0, endIndex).trim();
+        }
+
+        private static int findFirstOptionIndex(String text) {
+            Pattern pattern = Pattern.compile("(?m)^[A-D][.、．]", Pattern.MULTILINE);
+            Matcher matcher = pattern.matcher(text);
+            return matcher.find() ? matcher.start() : -1;
+        }
+
+        private static int findAnswerIndex(String text) {
+            Pattern pattern = Pattern.compile("(?m)^(答案|正确答案|标准答案)[:：]", Pattern.MULTILINE);
+            Matcher matcher = pattern.matcher(text);
+            return matcher.find() ? matcher.start() : -1;
+        }
+
+        private static int findExplanationIndex(String text) {
+            Pattern pattern = Pattern.compile("(?m)^(解析|解释|说明)[:：]", Pattern.MULTILINE);
+            Matcher matcher = pattern.matcher(text);
+            return matcher.find() ? matcher.start() : -1;
+        }
+
+        private static String detectQuestionType(String text) {
+            Pattern optionPattern = Pattern.compile("(?m)^[A-D][.、．]", Pattern.MULTILINE);
+            if (optionPattern.matcher(text).find()) {
+                return "选择题";
+            }
+
+            Pattern typePattern = Pattern.compile("(?i)\\((单选|多选|选择|填空|简答|论述)题\\)");
+            Matcher typeMatcher = typePattern.matcher(text);
+            if (typeMatcher.find()) {
+                return typeMatcher.group(1) + "题";
+            }
+
+            return "简答题";
+        }
+
+        private static Map<String, String> extractOptions(String text) {
+            Map<String, String> options = new HashMap<>();
+
+            Pattern pattern = Pattern.compile("(?m)^([A-D])[.、．]\\s*(.+?)(?=\\n[A-D][.、．]|$)", Pattern.MULTILINE | Pattern.DOTALL);
+            Matcher matcher = pattern.matcher(text);
+
+            while (matcher.find()) {
+                String optionKey = matcher.group(1);
+                String optionValue = matcher.group(2).trim();
+
+                int answerIndex = findAnswerIndex(optionValue);
+                if (answerIndex != -1) {
+                    optionValue = optionValue.substring(0, answerIndex).trim();
+                }
+
+                options.put(optionKey, optionValue);
+            }
+
+            return options;
+        }
+
+        private static String extractAnswer(String text) {
+            Pattern pattern = Pattern.compile("(?m)^(答案|正确答案|标准答案)[:：]\\s*(.+?)(?=\\n解析[:：]|\\n解释[:：]|$)",
+                    Pattern.MULTILINE | Pattern.DOTALL);
+            Matcher matcher = pattern.matcher(text);
+            return matcher.find() ? matcher.group(2).trim() : "";
+        }
+
+        private static String extractExplanation(String text) {
+            Pattern pattern = Pattern.compile("(?m)^(解析|解释|说明)[:：]\\s*(.+?)$",
+                    Pattern.MULTILINE | Pattern.DOTALL);
+            Matcher matcher = pattern.matcher(text);
+            return matcher.find() ? matcher.group(2).trim() : "";
+        }
+    }
+}
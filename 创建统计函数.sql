@@ -0,0 +1,41 @@
+-- ========================================
+-- 统计面板聚合函数
+-- ========================================
+-- REST API 模式下统计面板通过 POST /rest/v1/rpc/get_system_statistics
+-- 一次请求取回全部统计数字，不再逐个拉取用户和题目
+-- 未创建此函数时程序会退回到逐项计数，功能不受影响，只是请求更多
+-- ========================================
+
+CREATE OR REPLACE FUNCTION get_system_statistics()
+RETURNS json
+LANGUAGE sql
+STABLE
+AS $$
+    SELECT json_build_object(
+        'total_users',     (SELECT COUNT(*) FROM users),
+        'active_users',    (SELECT COUNT(*) FROM users WHERE status = 1),
+        'total_questions', (SELECT COUNT(*) FROM questions),
+        'categories', COALESCE((
+            SELECT json_agg(json_build_object('id', c.category_id, 'name', c.category_name, 'count', t.cnt)
+                            ORDER BY c.category_id)
+            FROM question_categories c
+            CROSS JOIN LATERAL (
+                SELECT COUNT(*) AS cnt FROM questions q WHERE q.category_id = c.category_id
+            ) t
+        ), '[]'::json),
+        'difficulties', COALESCE((
+            SELECT json_agg(json_build_object('id', d.difficulty_id, 'name', d.difficulty_level, 'count', t.cnt)
+                            ORDER BY d.difficulty_id)
+            FROM question_difficulties d
+            CROSS JOIN LATERAL (
+                SELECT COUNT(*) AS cnt FROM questions q WHERE q.difficulty_id = d.difficulty_id
+            ) t
+        ), '[]'::json)
+    );
+$$;
+
+-- 允许匿名角色通过 REST API 调用
+GRANT EXECUTE ON FUNCTION get_system_statistics() TO anon, authenticated;
+
+-- 验证
+SELECT get_system_statistics();
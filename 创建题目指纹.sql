@@ -0,0 +1,24 @@
+-- ========================================
+-- 题目内容指纹（导入查重）
+-- ========================================
+-- content_hash 为题干和选项归一化后的 64 位哈希，由程序计算（QuestionFingerprint），
+-- 只是空格、标点或全半角不同的题目指纹相同。
+-- 导入题目时按此列查重，重复的题目会被跳过并在导入结果中列出。
+-- 请在 Supabase SQL Editor 中执行此脚本（SQLite 本地库执行前两条语句即可，去掉 IF NOT EXISTS）
+-- 已有题目的指纹在第一次导入时由程序自动补算
+-- 程序写入题目时只检查该列是否存在，不会自动添加（避免普通写入执行 DDL 锁表）；
+-- 未执行此脚本时程序照常写入，只是不保存指纹，查重只在本次导入内进行。
+-- JDBC 模式下也可以通过 DatabaseOptimizer.createAllIndexes 添加，执行后需重启程序
+-- ========================================
+
+ALTER TABLE questions ADD COLUMN IF NOT EXISTS content_hash BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_questions_content_hash
+ON questions(content_hash);
+
+-- 补算完成后，可用以下查询列出题库中已有的重复题目（保留每组最早的一道）
+-- SELECT content_hash, MIN(question_id) AS keep_id, ARRAY_AGG(question_id ORDER BY question_id) AS ids
+-- FROM questions
+-- WHERE content_hash IS NOT NULL
+-- GROUP BY content_hash
+-- HAVING COUNT(*) > 1;
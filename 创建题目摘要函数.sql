@@ -0,0 +1,17 @@
+-- ========================================
+-- 题目列表摘要（截断的题干）
+-- ========================================
+-- 题目管理和检索窗口的列表只显示题干的前 80 个字符（QuestionSummary.PREVIEW_LENGTH）。
+-- PostgREST 把以表行为参数的函数当作计算列，请求 select=content_preview 时在数据库端截断，
+-- 不再为列表传输完整题干。
+-- 请在 Supabase SQL Editor 中执行此脚本；未执行时程序自动退回读取完整题干并在本地截断
+-- JDBC 模式直接在查询中使用 SUBSTR，不需要此函数
+-- ========================================
+
+CREATE OR REPLACE FUNCTION content_preview(questions)
+RETURNS TEXT AS $$
+    SELECT LEFT($1.question_content, 80);
+$$ LANGUAGE SQL STABLE;
+
+-- 让 PostgREST 重新加载表结构缓存，新的计算列立即可用
+NOTIFY pgrst, 'reload schema';